@@ -0,0 +1,63 @@
+package hrider.actions;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents a factory of named daemon threads. The daemon threads don't prevent the application from exiting
+ *          while the background operations are running.
+ */
+public class DaemonThreadFactory implements ThreadFactory {
+
+    //region Variables
+    /**
+     * The prefix of the thread names.
+     */
+    private String        name;
+    /**
+     * The number of created threads.
+     */
+    private AtomicInteger counter;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link DaemonThreadFactory} class.
+     *
+     * @param name The prefix of the thread names.
+     */
+    public DaemonThreadFactory(String name) {
+        this.name = name;
+        this.counter = new AtomicInteger();
+    }
+    //endregion
+
+    //region Public Methods
+    @Override
+    public Thread newThread(Runnable r) {
+        Thread thread = new Thread(r);
+        thread.setName(String.format("%s-%d", this.name, this.counter.incrementAndGet()));
+        thread.setDaemon(true);
+
+        return thread;
+    }
+    //endregion
+}
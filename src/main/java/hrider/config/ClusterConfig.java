@@ -1,5 +1,6 @@
 package hrider.config;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -26,6 +27,13 @@ import java.util.List;
  */
 public class ClusterConfig extends PropertiesConfig {
 
+    //region Variables
+    /**
+     * The name of the configuration file.
+     */
+    private String name;
+    //endregion
+
     //region Constructor
 
     /**
@@ -35,11 +43,87 @@ public class ClusterConfig extends PropertiesConfig {
      */
     public ClusterConfig(String name) {
         super(name);
+
+        this.name = name;
     }
     //endregion
 
     //region Public Methods
 
+    /**
+     * Gets the folder where the local indexes of the column values of the cluster tables are stored.
+     *
+     * @return The folder of the indexes.
+     */
+    public File getIndexFolder() {
+        return new File("config/" + this.name + ".indexes");
+    }
+
+    /**
+     * Gets the folder where the checkpoints of the tables copied to the cluster are stored.
+     *
+     * @return The folder of the checkpoints.
+     */
+    public File getCheckpointFolder() {
+        return new File("config/" + this.name + ".checkpoints");
+    }
+
+    /**
+     * Gets the time the source table has been copied to the target table of the cluster last. The changes done to the source table after
+     * this time are not copied yet.
+     *
+     * @param sourceServer The name of the cluster the table is copied from.
+     * @param sourceTable  The name of the table to copy from.
+     * @param targetTable  The name of the table to copy to.
+     * @return The time in milliseconds or null if the table has never been copied completely.
+     */
+    public Long getLastSync(String sourceServer, String sourceTable, String targetTable) {
+        return get(Long.class, String.format("copy.%s.%s.%s.lastSync", sourceServer, sourceTable, targetTable));
+    }
+
+    /**
+     * Saves the time the source table has been copied to the target table of the cluster last.
+     *
+     * @param sourceServer The name of the cluster the table is copied from.
+     * @param sourceTable  The name of the table to copy from.
+     * @param targetTable  The name of the table to copy to.
+     * @param time         The time in milliseconds the completed copy has been started at.
+     */
+    public void setLastSync(String sourceServer, String sourceTable, String targetTable, long time) {
+        set(String.format("copy.%s.%s.%s.lastSync", sourceServer, sourceTable, targetTable), Long.toString(time));
+    }
+
+    /**
+     * Gets the time the copy of the source table to the target table of the cluster has been started at. The time is kept until the copy
+     * is completed, so the resumed copy is synchronized from the time it has originally been started at.
+     *
+     * @param sourceServer The name of the cluster the table is copied from.
+     * @param sourceTable  The name of the table to copy from.
+     * @param targetTable  The name of the table to copy to.
+     * @return The time in milliseconds or null if there is no copy in progress.
+     */
+    public Long getCopyStart(String sourceServer, String sourceTable, String targetTable) {
+        return get(Long.class, String.format("copy.%s.%s.%s.started", sourceServer, sourceTable, targetTable));
+    }
+
+    /**
+     * Saves the time the copy of the source table to the target table of the cluster has been started at.
+     *
+     * @param sourceServer The name of the cluster the table is copied from.
+     * @param sourceTable  The name of the table to copy from.
+     * @param targetTable  The name of the table to copy to.
+     * @param time         The time in milliseconds or null if the copy has been completed.
+     */
+    public void setCopyStart(String sourceServer, String sourceTable, String targetTable, Long time) {
+        String key = String.format("copy.%s.%s.%s.started", sourceServer, sourceTable, targetTable);
+        if (time != null) {
+            set(key, time.toString());
+        }
+        else {
+            remove(key);
+        }
+    }
+
     /**
      * Gets a connection details used to connect to the hbase cluster.
      *
@@ -33,6 +33,32 @@ public class GlobalConfig extends PropertiesConfig {
     private static final String KEY_BATCH_WRITE_SIZE               = "global.batch.writeSize";
     private static final String KEY_CONNECTION_CHECK_TIMEOUT       = "global.connection.check.timeout";
     private static final String KEY_ROW_COUNT_OPERATION_TIMEOUT    = "global.operation.timeout.rowCount";
+    private static final String KEY_ROW_COUNT_THREADS              = "global.operation.rowCount.threads";
+    private static final String KEY_ROWS_CHECKPOINT_INTERVAL       = "global.scan.checkpointInterval";
+    private static final String KEY_SCANNER_SESSION_TIMEOUT        = "global.scan.session.timeout";
+    private static final String KEY_PREFETCH_PAGES                 = "global.scan.prefetchPages";
+    private static final String KEY_TABLE_SIZE_CACHE_TIMEOUT       = "global.tableSize.cache.timeout";
+    private static final String KEY_COLUMNS_SCAN_MAX_RESULT_SIZE   = "global.scan.columns.maxResultSize";
+    private static final String KEY_COLUMN_SAMPLE_ROWS             = "global.scan.columns.sampleRows";
+    private static final String KEY_COLUMN_SAMPLE_THREADS          = "global.operation.columnSample.threads";
+    private static final String KEY_PAGE_HISTORY_MAX_SIZE          = "global.scan.history.maxSize";
+    private static final String KEY_REVERSE_NAVIGATION             = "global.scan.reverseNavigation";
+    private static final String KEY_WIDE_ROW_COLUMNS               = "global.scan.wideRow.columns";
+    private static final String KEY_WIDE_ROW_MAX_RESULT_SIZE       = "global.scan.wideRow.maxResultSize";
+    private static final String KEY_SCAN_PROFILE                   = "global.scan.profile.%s.%s";
+    private static final String KEY_SCAN_ADAPTIVE_CACHING          = "global.scan.adaptiveCaching";
+    private static final String KEY_SCAN_ADAPTIVE_MAX_CACHING      = "global.scan.adaptiveCaching.maxRows";
+    private static final String KEY_FULL_SCAN_WARNING_SIZE         = "global.scan.fullScan.warningSize";
+    private static final String KEY_PAGE_CACHE_MAX_SIZE            = "global.scan.pageCache.maxSize";
+    private static final String KEY_PAGE_CACHE_TIME_TO_LIVE        = "global.scan.pageCache.timeToLive";
+    private static final String KEY_VALUE_INDEX_THREADS            = "global.operation.valueIndex.threads";
+    private static final String KEY_VALUE_INDEX_MAX_KEYS           = "global.scan.valueIndex.maxKeys";
+    private static final String KEY_COPY_THREADS                   = "global.operation.copy.threads";
+    private static final String KEY_COPY_CHECKPOINT_INTERVAL       = "global.operation.copy.checkpointInterval";
+    private static final String KEY_COPY_MAX_ROWS_PER_SECOND       = "global.operation.copy.maxRowsPerSecond";
+    private static final String KEY_COPY_MAX_BYTES_PER_SECOND      = "global.operation.copy.maxBytesPerSecond";
+    private static final String KEY_COPY_SYNC_OVERLAP              = "global.operation.copy.syncOverlap";
+    private static final String KEY_COMPARE_THREADS                = "global.operation.compare.threads";
     private static final String KEY_CONVERTERS_CLASSES_FOLDER      = "global.converters.classes.folder";
     private static final String KEY_CONVERTERS_CODE_FOLDER         = "global.converters.code.folder";
 
@@ -44,6 +70,31 @@ public class GlobalConfig extends PropertiesConfig {
     private static final String DEFAULT_BATCH_WRITE_SIZE               = "100";
     private static final String DEFAULT_CONNECTION_CHECK_TIMEOUT       = "5000";
     private static final String DEFAULT_ROW_COUNT_OPERATION_TIMEOUT    = "30000";
+    private static final String DEFAULT_ROW_COUNT_THREADS              = "8";
+    private static final String DEFAULT_ROWS_CHECKPOINT_INTERVAL       = "10000";
+    private static final String DEFAULT_SCANNER_SESSION_TIMEOUT        = "30000";
+    private static final String DEFAULT_PREFETCH_PAGES                 = "1";
+    private static final String DEFAULT_TABLE_SIZE_CACHE_TIMEOUT       = "60000";
+    private static final String DEFAULT_COLUMNS_SCAN_MAX_RESULT_SIZE   = "2097152";
+    private static final String DEFAULT_COLUMN_SAMPLE_ROWS             = "20";
+    private static final String DEFAULT_COLUMN_SAMPLE_THREADS          = "4";
+    private static final String DEFAULT_PAGE_HISTORY_MAX_SIZE          = "67108864";
+    private static final String DEFAULT_REVERSE_NAVIGATION             = "false";
+    private static final String DEFAULT_WIDE_ROW_COLUMNS               = "0";
+    private static final String DEFAULT_WIDE_ROW_MAX_RESULT_SIZE       = "4194304";
+    private static final String DEFAULT_SCAN_ADAPTIVE_CACHING          = "true";
+    private static final String DEFAULT_SCAN_ADAPTIVE_MAX_CACHING      = "10000";
+    private static final String DEFAULT_FULL_SCAN_WARNING_SIZE         = "10737418240";
+    private static final String DEFAULT_PAGE_CACHE_MAX_SIZE            = "33554432";
+    private static final String DEFAULT_PAGE_CACHE_TIME_TO_LIVE        = "300000";
+    private static final String DEFAULT_VALUE_INDEX_THREADS            = "4";
+    private static final String DEFAULT_VALUE_INDEX_MAX_KEYS           = "10000";
+    private static final String DEFAULT_COPY_THREADS                   = "8";
+    private static final String DEFAULT_COPY_CHECKPOINT_INTERVAL       = "10000";
+    private static final String DEFAULT_COPY_MAX_ROWS_PER_SECOND       = "0";
+    private static final String DEFAULT_COPY_MAX_BYTES_PER_SECOND      = "0";
+    private static final String DEFAULT_COPY_SYNC_OVERLAP              = "60000";
+    private static final String DEFAULT_COMPARE_THREADS                = "8";
     private static final String DEFAULT_CONVERTERS_CLASSES_FOLDER      = "converters/classes";
     private static final String DEFAULT_CONVERTERS_CODE_FOLDER         = "converters/code";
     //endregion
@@ -143,6 +194,290 @@ public class GlobalConfig extends PropertiesConfig {
         return get(Long.class, KEY_ROW_COUNT_OPERATION_TIMEOUT, DEFAULT_ROW_COUNT_OPERATION_TIMEOUT);
     }
 
+    /**
+     * Gets a maximum number of threads used to count the rows of the table regions in parallel.
+     *
+     * @return A number of threads.
+     */
+    public int getRowCountThreads() {
+        return get(Integer.class, KEY_ROW_COUNT_THREADS, DEFAULT_ROW_COUNT_THREADS);
+    }
+
+    /**
+     * Gets a number of rows between two row key checkpoints recorded by the scanner. The checkpoints are used to jump to a specific row
+     * without scanning from the beginning of the table.
+     *
+     * @return A number of rows.
+     */
+    public long getRowsCheckpointInterval() {
+        return get(Long.class, KEY_ROWS_CHECKPOINT_INTERVAL, DEFAULT_ROWS_CHECKPOINT_INTERVAL);
+    }
+
+    /**
+     * Gets an amount of time the hbase scanner can stay idle between two loaded pages before it is reopened. The value should be lower than
+     * the scanner lease period configured on the region servers.
+     *
+     * @return An amount of time to wait.
+     */
+    public long getScannerSessionTimeout() {
+        return get(Long.class, KEY_SCANNER_SESSION_TIMEOUT, DEFAULT_SCANNER_SESSION_TIMEOUT);
+    }
+
+    /**
+     * Gets a number of pages to load in the background ahead of the forward navigation.
+     *
+     * @return A number of pages or 0 if the pages should not be loaded in advance.
+     */
+    public int getPrefetchPages() {
+        return get(Integer.class, KEY_PREFETCH_PAGES, DEFAULT_PREFETCH_PAGES);
+    }
+
+    /**
+     * Gets an amount of time the table size calculated from the region load metrics is cached.
+     *
+     * @return An amount of time to cache.
+     */
+    public long getTableSizeCacheTimeout() {
+        return get(Long.class, KEY_TABLE_SIZE_CACHE_TIMEOUT, DEFAULT_TABLE_SIZE_CACHE_TIMEOUT);
+    }
+
+    /**
+     * Gets a maximum number of bytes to be returned by a single call to the region server while the column names are discovered.
+     *
+     * @return A maximum size of the result in bytes.
+     */
+    public long getColumnsScanMaxResultSize() {
+        return get(Long.class, KEY_COLUMNS_SCAN_MAX_RESULT_SIZE, DEFAULT_COLUMNS_SCAN_MAX_RESULT_SIZE);
+    }
+
+    /**
+     * Gets a number of rows to be read from each region of the table while the columns are sampled.
+     *
+     * @return A number of rows.
+     */
+    public int getColumnSampleRows() {
+        return get(Integer.class, KEY_COLUMN_SAMPLE_ROWS, DEFAULT_COLUMN_SAMPLE_ROWS);
+    }
+
+    /**
+     * Gets a maximum number of regions to be sampled for the columns in parallel.
+     *
+     * @return A number of threads.
+     */
+    public int getColumnSampleThreads() {
+        return get(Integer.class, KEY_COLUMN_SAMPLE_THREADS, DEFAULT_COLUMN_SAMPLE_THREADS);
+    }
+
+    /**
+     * Gets an approximate number of bytes of the previously visited pages to be kept in memory for the backward navigation.
+     *
+     * @return A maximum size of the kept pages in bytes.
+     */
+    public long getPageHistoryMaxSize() {
+        return get(Long.class, KEY_PAGE_HISTORY_MAX_SIZE, DEFAULT_PAGE_HISTORY_MAX_SIZE);
+    }
+
+    /**
+     * Gets a value indicating whether the previous pages should be loaded by the reversed scan instead of being kept in memory.
+     *
+     * @return True if the reversed scan should be used or False otherwise.
+     */
+    public boolean getReverseNavigation() {
+        return get(Boolean.class, KEY_REVERSE_NAVIGATION, DEFAULT_REVERSE_NAVIGATION);
+    }
+
+    /**
+     * Gets a maximum number of columns to be loaded for each row at once. Used for the tables with very wide rows.
+     *
+     * @return A number of columns or 0 if all the columns of the row should be loaded.
+     */
+    public int getWideRowColumns() {
+        return get(Integer.class, KEY_WIDE_ROW_COLUMNS, DEFAULT_WIDE_ROW_COLUMNS);
+    }
+
+    /**
+     * Gets a maximum number of bytes to be returned by a single call to the region server while the wide rows are loaded.
+     *
+     * @return A maximum size of the result in bytes.
+     */
+    public long getWideRowMaxResultSize() {
+        return get(Long.class, KEY_WIDE_ROW_MAX_RESULT_SIZE, DEFAULT_WIDE_ROW_MAX_RESULT_SIZE);
+    }
+
+    /**
+     * Gets a value indicating whether the number of rows returned by a single call to the region server should be adapted to the size of the rows.
+     *
+     * @return True if the number of rows is adapted or False otherwise.
+     */
+    public boolean isAdaptiveScanCaching() {
+        return get(Boolean.class, KEY_SCAN_ADAPTIVE_CACHING, DEFAULT_SCAN_ADAPTIVE_CACHING);
+    }
+
+    /**
+     * Gets a maximum number of rows to be returned by a single call to the region server when the number is adapted to the size of the rows.
+     *
+     * @return A number of rows.
+     */
+    public int getAdaptiveScanMaxCaching() {
+        return get(Integer.class, KEY_SCAN_ADAPTIVE_MAX_CACHING, DEFAULT_SCAN_ADAPTIVE_MAX_CACHING);
+    }
+
+    /**
+     * Gets the size of the table starting from which the user is warned before the query scanning the whole table is run.
+     *
+     * @return The size of the table in bytes.
+     */
+    public long getFullScanWarningSize() {
+        return get(Long.class, KEY_FULL_SCAN_WARNING_SIZE, DEFAULT_FULL_SCAN_WARNING_SIZE);
+    }
+
+    /**
+     * Gets the maximum size of the rows kept in the cache of the loaded pages shared by the scanners of the connection.
+     *
+     * @return A maximum size in bytes or 0 if the pages are not cached.
+     */
+    public long getPageCacheMaxSize() {
+        return get(Long.class, KEY_PAGE_CACHE_MAX_SIZE, DEFAULT_PAGE_CACHE_MAX_SIZE);
+    }
+
+    /**
+     * Gets the period of time the cached pages can be shown without loading them again.
+     *
+     * @return The period of time in milliseconds.
+     */
+    public long getPageCacheTimeToLive() {
+        return get(Long.class, KEY_PAGE_CACHE_TIME_TO_LIVE, DEFAULT_PAGE_CACHE_TIME_TO_LIVE);
+    }
+
+    /**
+     * Gets the number of regions scanned in parallel while the local index of the column values is built.
+     *
+     * @return The number of threads.
+     */
+    public int getValueIndexThreads() {
+        return get(Integer.class, KEY_VALUE_INDEX_THREADS, DEFAULT_VALUE_INDEX_THREADS);
+    }
+
+    /**
+     * Gets the maximum number of rows found in the local index of the column values for which the query is narrowed to these rows. The query
+     * matching more rows scans the table as usual.
+     *
+     * @return The maximum number of rows.
+     */
+    public int getValueIndexMaxKeys() {
+        return get(Integer.class, KEY_VALUE_INDEX_MAX_KEYS, DEFAULT_VALUE_INDEX_MAX_KEYS);
+    }
+
+    /**
+     * Gets the number of regions copied in parallel while a table is copied to another table.
+     *
+     * @return The number of threads.
+     */
+    public int getCopyThreads() {
+        return get(Integer.class, KEY_COPY_THREADS, DEFAULT_COPY_THREADS);
+    }
+
+    /**
+     * Gets the number of rows copied from a region between two checkpoints of the copy.
+     *
+     * @return The number of rows.
+     */
+    public long getCopyCheckpointInterval() {
+        return get(Long.class, KEY_COPY_CHECKPOINT_INTERVAL, DEFAULT_COPY_CHECKPOINT_INTERVAL);
+    }
+
+    /**
+     * Gets the maximum number of rows per second read from the source table and written to the target table by all the regions of the copy.
+     *
+     * @return The number of rows or 0 if the rate is not limited.
+     */
+    public long getCopyMaxRowsPerSecond() {
+        return get(Long.class, KEY_COPY_MAX_ROWS_PER_SECOND, DEFAULT_COPY_MAX_ROWS_PER_SECOND);
+    }
+
+    /**
+     * Gets the maximum number of bytes per second read from the source table and written to the target table by all the regions of the copy.
+     *
+     * @return The number of bytes or 0 if the rate is not limited.
+     */
+    public long getCopyMaxBytesPerSecond() {
+        return get(Long.class, KEY_COPY_MAX_BYTES_PER_SECOND, DEFAULT_COPY_MAX_BYTES_PER_SECOND);
+    }
+
+    /**
+     * Gets the time the incremental copy goes back before the last synchronization. The changes stamped by the region servers with a time
+     * slightly before the last synchronization but written after it are copied thanks to the overlap.
+     *
+     * @return The time in milliseconds.
+     */
+    public long getCopySyncOverlap() {
+        return get(Long.class, KEY_COPY_SYNC_OVERLAP, DEFAULT_COPY_SYNC_OVERLAP);
+    }
+
+    /**
+     * Gets the number of key ranges hashed or compared in parallel while two tables are compared.
+     *
+     * @return The number of threads.
+     */
+    public int getCompareThreads() {
+        return get(Integer.class, KEY_COMPARE_THREADS, DEFAULT_COMPARE_THREADS);
+    }
+
+    /**
+     * Gets a number of rows to be returned by a single call to the region server for the scans of the specified profile.
+     *
+     * @param profile      The name of the scan profile.
+     * @param defaultValue The value of the profile used if the setting is not configured.
+     * @return A number of rows.
+     */
+    public int getScanCaching(String profile, int defaultValue) {
+        return get(Integer.class, String.format(KEY_SCAN_PROFILE, profile, "caching"), String.valueOf(defaultValue));
+    }
+
+    /**
+     * Gets a value indicating whether the blocks loaded by the scans of the specified profile should be cached by the region server.
+     *
+     * @param profile      The name of the scan profile.
+     * @param defaultValue The value of the profile used if the setting is not configured.
+     * @return True if the blocks should be cached or False otherwise.
+     */
+    public boolean getScanCacheBlocks(String profile, boolean defaultValue) {
+        return get(Boolean.class, String.format(KEY_SCAN_PROFILE, profile, "cacheBlocks"), String.valueOf(defaultValue));
+    }
+
+    /**
+     * Gets a maximum number of bytes to be returned by a single call to the region server for the scans of the specified profile.
+     *
+     * @param profile      The name of the scan profile.
+     * @param defaultValue The value of the profile used if the setting is not configured.
+     * @return A number of bytes or 0 if the size is not limited.
+     */
+    public long getScanMaxResultSize(String profile, long defaultValue) {
+        return get(Long.class, String.format(KEY_SCAN_PROFILE, profile, "maxResultSize"), String.valueOf(defaultValue));
+    }
+
+    /**
+     * Gets a maximum number of cells to be returned in a single result for the scans of the specified profile.
+     *
+     * @param profile      The name of the scan profile.
+     * @param defaultValue The value of the profile used if the setting is not configured.
+     * @return A number of cells or 0 if the whole rows should be returned.
+     */
+    public int getScanBatch(String profile, int defaultValue) {
+        return get(Integer.class, String.format(KEY_SCAN_PROFILE, profile, "batch"), String.valueOf(defaultValue));
+    }
+
+    /**
+     * Gets a value indicating whether the scans of the specified profile should be executed as small scans.
+     *
+     * @param profile      The name of the scan profile.
+     * @param defaultValue The value of the profile used if the setting is not configured.
+     * @return True if the scans are small or False otherwise.
+     */
+    public boolean getScanSmall(String profile, boolean defaultValue) {
+        return get(Boolean.class, String.format(KEY_SCAN_PROFILE, profile, "small"), String.valueOf(defaultValue));
+    }
+
     /**
      * Gets a folder where the compiled classes of the custom converters should be located.
      *
@@ -166,9 +501,35 @@ public class GlobalConfig extends PropertiesConfig {
     @Override
     protected void onFileCreated() {
         set(KEY_ROW_COUNT_OPERATION_TIMEOUT, DEFAULT_ROW_COUNT_OPERATION_TIMEOUT);
+        set(KEY_ROW_COUNT_THREADS, DEFAULT_ROW_COUNT_THREADS);
         set(KEY_BATCH_READ_SIZE, DEFAULT_BATCH_READ_SIZE);
         set(KEY_BATCH_WRITE_SIZE, DEFAULT_BATCH_WRITE_SIZE);
         set(KEY_CONNECTION_CHECK_TIMEOUT, DEFAULT_CONNECTION_CHECK_TIMEOUT);
+        set(KEY_ROWS_CHECKPOINT_INTERVAL, DEFAULT_ROWS_CHECKPOINT_INTERVAL);
+        set(KEY_SCANNER_SESSION_TIMEOUT, DEFAULT_SCANNER_SESSION_TIMEOUT);
+        set(KEY_PREFETCH_PAGES, DEFAULT_PREFETCH_PAGES);
+        set(KEY_TABLE_SIZE_CACHE_TIMEOUT, DEFAULT_TABLE_SIZE_CACHE_TIMEOUT);
+        set(KEY_COLUMNS_SCAN_MAX_RESULT_SIZE, DEFAULT_COLUMNS_SCAN_MAX_RESULT_SIZE);
+        set(KEY_COLUMN_SAMPLE_ROWS, DEFAULT_COLUMN_SAMPLE_ROWS);
+        set(KEY_COLUMN_SAMPLE_THREADS, DEFAULT_COLUMN_SAMPLE_THREADS);
+        set(KEY_PAGE_HISTORY_MAX_SIZE, DEFAULT_PAGE_HISTORY_MAX_SIZE);
+        set(KEY_REVERSE_NAVIGATION, DEFAULT_REVERSE_NAVIGATION);
+        set(KEY_WIDE_ROW_COLUMNS, DEFAULT_WIDE_ROW_COLUMNS);
+        set(KEY_WIDE_ROW_MAX_RESULT_SIZE, DEFAULT_WIDE_ROW_MAX_RESULT_SIZE);
+        set(KEY_SCAN_ADAPTIVE_CACHING, DEFAULT_SCAN_ADAPTIVE_CACHING);
+        set(KEY_SCAN_ADAPTIVE_MAX_CACHING, DEFAULT_SCAN_ADAPTIVE_MAX_CACHING);
+        set(KEY_FULL_SCAN_WARNING_SIZE, DEFAULT_FULL_SCAN_WARNING_SIZE);
+        set(KEY_PAGE_CACHE_MAX_SIZE, DEFAULT_PAGE_CACHE_MAX_SIZE);
+        set(KEY_PAGE_CACHE_TIME_TO_LIVE, DEFAULT_PAGE_CACHE_TIME_TO_LIVE);
+        set(KEY_VALUE_INDEX_THREADS, DEFAULT_VALUE_INDEX_THREADS);
+        set(KEY_VALUE_INDEX_MAX_KEYS, DEFAULT_VALUE_INDEX_MAX_KEYS);
+        set(KEY_COPY_THREADS, DEFAULT_COPY_THREADS);
+        set(KEY_COPY_CHECKPOINT_INTERVAL, DEFAULT_COPY_CHECKPOINT_INTERVAL);
+        set(KEY_COPY_MAX_ROWS_PER_SECOND, DEFAULT_COPY_MAX_ROWS_PER_SECOND);
+        set(KEY_COPY_MAX_BYTES_PER_SECOND, DEFAULT_COPY_MAX_BYTES_PER_SECOND);
+        set(KEY_COPY_SYNC_OVERLAP, DEFAULT_COPY_SYNC_OVERLAP);
+        set(KEY_COMPARE_THREADS, DEFAULT_COMPARE_THREADS);
+
         set(KEY_DATE_FORMAT, DEFAULT_DATE_FORMAT);
         set(KEY_DATE_TIME_ZONE, DEFAULT_DATE_TIME_ZONE);
         set(KEY_EXTERNAL_VIEWER_DELIMETER, DEFAULT_EXTERNAL_VIEWER_DELIMETER);
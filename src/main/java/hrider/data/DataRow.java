@@ -26,7 +26,7 @@ import java.util.Map;
  *          <p/>
  *          This class represents a row in the grid or an hbase row.
  */
-public class DataRow implements Serializable {
+public class DataRow implements Serializable, Cloneable {
 
     //region Constants
     private static final long serialVersionUID = 5158560383309065143L;
@@ -204,6 +204,20 @@ public class DataRow implements Serializable {
         return values;
     }
 
+    /**
+     * Creates a copy of the row. The cells of the copy hold their own values so changing them doesn't affect the original row.
+     *
+     * @return A new row.
+     */
+    @Override
+    public DataRow clone() {
+        DataRow row = new DataRow(this.key != null ? new ConvertibleObject(this.key.getType(), this.key.getValue()) : null);
+        for (DataCell cell : this.cells.values()) {
+            row.addCell(new DataCell(row, cell.getColumn(), new ConvertibleObject(cell.getType(), cell.getValueAsByteArray())));
+        }
+        return row;
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (obj instanceof DataRow) {
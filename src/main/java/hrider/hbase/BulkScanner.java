@@ -0,0 +1,282 @@
+package hrider.hbase;
+
+import hrider.config.GlobalConfig;
+import org.apache.hadoop.hbase.client.HTable;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.io.TimeRange;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.io.IOException;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents a scanner going over the whole table for the bulk operations. The scanner measures the size of the received rows
+ *          and re-opens the underlying hbase scanner when the number of rows requested in a single call no longer matches the size of the rows.
+ */
+public class BulkScanner {
+
+    //region Constants
+    /**
+     * The ratio between the current and the adapted number of rows requested in a single call the scanner is re-opened at.
+     */
+    private static final int    ADAPT_RATIO = 2;
+    /**
+     * The byte appended to the key of the row to get the key of the following row.
+     */
+    private static final byte[] ZERO_BYTE   = {0};
+    //endregion
+
+    //region Variables
+    /**
+     * The table to scan.
+     */
+    private HTable           table;
+    /**
+     * The range of keys to scan.
+     */
+    private KeyRange         range;
+    /**
+     * The time range of the changes to scan or null to scan the latest versions of all the cells.
+     */
+    private TimeRange        timeRange;
+    /**
+     * Indicates if each returned row should contain all its cells even if the scan profile limits the number of cells per result.
+     */
+    private boolean          wholeRows;
+    /**
+     * The settings of the scan.
+     */
+    private ScanProfile      profile;
+    /**
+     * The estimation of the size of the rows.
+     */
+    private RowSizeEstimator rowSize;
+    /**
+     * The underlying hbase scanner.
+     */
+    private ResultScanner    scanner;
+    /**
+     * The number of rows requested from the region server in a single call by the current hbase scanner.
+     */
+    private int              caching;
+    /**
+     * Indicates if the underlying scanner can be re-opened. The scanner returning the rows in parts cannot be re-opened in the middle of the row.
+     */
+    private boolean          canReopen;
+    /**
+     * The number of rows received from the current hbase scanner.
+     */
+    private long             rowsNumber;
+    /**
+     * The statistics of the scan.
+     */
+    private ScanStatistics   statistics;
+    /**
+     * The settings of the current hbase scanner. Used to collect the metrics reported by the region servers when the scanner is closed.
+     */
+    private Scan             scan;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link BulkScanner} class.
+     *
+     * @param table   The table to scan.
+     * @param profile The settings of the scan.
+     * @param rowSize The estimation of the size of the rows. The estimation is updated with the received rows.
+     * @throws IOException Error accessing hbase.
+     */
+    public BulkScanner(HTable table, ScanProfile profile, RowSizeEstimator rowSize) throws IOException {
+        this(table, profile, rowSize, new KeyRange(null, null));
+    }
+
+    /**
+     * Initializes a new instance of the {@link BulkScanner} class.
+     *
+     * @param table   The table to scan.
+     * @param profile The settings of the scan.
+     * @param rowSize The estimation of the size of the rows. The estimation is updated with the received rows.
+     * @param range   The range of keys to scan.
+     * @throws IOException Error accessing hbase.
+     */
+    public BulkScanner(HTable table, ScanProfile profile, RowSizeEstimator rowSize, KeyRange range) throws IOException {
+        this(table, profile, rowSize, range, null);
+    }
+
+    /**
+     * Initializes a new instance of the {@link BulkScanner} class.
+     *
+     * @param table     The table to scan.
+     * @param profile   The settings of the scan.
+     * @param rowSize   The estimation of the size of the rows. The estimation is updated with the received rows.
+     * @param range     The range of keys to scan.
+     * @param timeRange The time range of the changes to scan. If specified all the versions of the cells and the delete markers written
+     *                  within the time range are returned. This parameter can be null.
+     * @throws IOException Error accessing hbase.
+     */
+    public BulkScanner(HTable table, ScanProfile profile, RowSizeEstimator rowSize, KeyRange range, TimeRange timeRange) throws IOException {
+        this(table, profile, rowSize, range, timeRange, false);
+    }
+
+    /**
+     * Initializes a new instance of the {@link BulkScanner} class.
+     *
+     * @param table     The table to scan.
+     * @param profile   The settings of the scan.
+     * @param rowSize   The estimation of the size of the rows. The estimation is updated with the received rows.
+     * @param range     The range of keys to scan.
+     * @param timeRange The time range of the changes to scan. If specified all the versions of the cells and the delete markers written
+     *                  within the time range are returned. This parameter can be null.
+     * @param wholeRows Indicates if each returned row should contain all its cells. If False the row can be returned in parts according
+     *                  to the batch size of the scan profile.
+     * @throws IOException Error accessing hbase.
+     */
+    public BulkScanner(HTable table, ScanProfile profile, RowSizeEstimator rowSize, KeyRange range, TimeRange timeRange, boolean wholeRows)
+        throws IOException {
+        this.table = table;
+        this.range = range;
+        this.timeRange = timeRange;
+        this.wholeRows = wholeRows;
+        this.profile = profile;
+        this.rowSize = rowSize;
+        this.statistics = new ScanStatistics();
+
+        open(null);
+    }
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Gets the number of rows requested from the region server in a single call.
+     *
+     * @return The number of rows.
+     */
+    public int getCaching() {
+        return this.caching;
+    }
+
+    /**
+     * Gets the statistics of the scan. The metrics reported by the region servers are available after the scanner is closed.
+     *
+     * @return The statistics of the scan.
+     */
+    public ScanStatistics getStatistics() {
+        return this.statistics;
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Gets the next row.
+     *
+     * @return The next row or null if there are no more rows.
+     * @throws IOException Error accessing hbase.
+     */
+    public Result next() throws IOException {
+        long started = System.nanoTime();
+
+        Result result = this.scanner.next();
+
+        this.statistics.addFetchTime(System.nanoTime() - started);
+
+        if (result != null) {
+            this.statistics.addRow(0);
+            // The rows returned in parts and the changes scanned within the time range are smaller than the rows of the table.
+            if (this.canReopen && this.timeRange == null) {
+                this.rowSize.addFullRow(RowSizeEstimator.getSize(result));
+            }
+            else {
+                this.rowSize.add(result);
+            }
+            this.rowsNumber++;
+
+            if (this.canReopen && this.rowsNumber % this.caching == 0 && isCachingOutdated()) {
+                close();
+                open(Bytes.add(result.getRow(), ZERO_BYTE));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Closes the scanner.
+     */
+    public void close() {
+        this.scanner.close();
+        this.statistics.addScanMetrics(this.scan);
+    }
+    //endregion
+
+    //region Private Methods
+
+    /**
+     * Opens the underlying hbase scanner.
+     *
+     * @param startKey The key of the first row to scan or null to scan from the beginning of the range.
+     * @throws IOException Error accessing hbase.
+     */
+    private void open(byte[] startKey) throws IOException {
+        Scan scan = this.profile.apply(new Scan(), 0, this.rowSize);
+        if (!this.wholeRows) {
+            scan = this.profile.applyBatch(scan);
+        }
+
+        scan.setStartRow(startKey != null ? startKey : this.range.getStartKey());
+        scan.setStopRow(this.range.getStopKey());
+
+        if (this.timeRange != null) {
+            scan.setTimeRange(this.timeRange.getMin(), this.timeRange.getMax());
+            scan.setMaxVersions();
+            scan.setRaw(true);
+        }
+
+        ScanStatistics.enableScanMetrics(scan);
+
+        this.statistics.setScanSettings(scan.getCaching(), scan.getMaxResultSize());
+
+        this.scan = scan;
+        this.caching = scan.getCaching();
+        this.canReopen = scan.getBatch() <= 0;
+        this.rowsNumber = 0;
+        this.scanner = this.table.getScanner(scan);
+    }
+
+    /**
+     * Checks if the number of rows requested in a single call differs too much from the number adapted to the size of the received rows.
+     *
+     * @return True if the scanner should be re-opened or False otherwise.
+     */
+    private boolean isCachingOutdated() {
+        GlobalConfig config = GlobalConfig.instance();
+
+        long resultSize = this.profile.getMaxResultSize();
+        if (!config.isAdaptiveScanCaching() || resultSize <= 0) {
+            return false;
+        }
+
+        int adapted = this.rowSize.getCaching(resultSize, config.getAdaptiveScanMaxCaching());
+        return adapted >= this.caching * ADAPT_RATIO || adapted * ADAPT_RATIO <= this.caching;
+    }
+    //endregion
+}
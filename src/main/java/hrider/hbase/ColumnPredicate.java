@@ -0,0 +1,625 @@
+package hrider.hbase;
+
+import hrider.data.ColumnType;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.filter.*;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.hbase.util.Pair;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.regex.Pattern;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents a condition on the value of a single column or on the row key.
+ */
+public class ColumnPredicate extends Predicate {
+
+    //region Constants
+    private static final byte[] EMPTY_BYTES_ARRAY = new byte[0];
+    /**
+     * The character matching any single byte in the patterns of the {@link Operator#Like} operator.
+     */
+    private static final char   WILDCARD          = '?';
+    /**
+     * The values of the {@link FuzzyRowFilter} mask marking the fixed and the non-fixed bytes of the key.
+     */
+    private static final byte   FIXED_BYTE        = 0;
+    private static final byte   ANY_BYTE          = 1;
+    private static final Charset UTF8             = Charset.forName("UTF-8");
+    //endregion
+
+    //region Variables
+    /**
+     * The name of the column family or null if the condition is on the row key.
+     */
+    private String     family;
+    /**
+     * The name of the column or null if the condition is on the row key.
+     */
+    private String     column;
+    /**
+     * The operator used to compare the value.
+     */
+    private Operator   operator;
+    /**
+     * The word to compare the value with. The word is null for the unary operators.
+     */
+    private String     word;
+    /**
+     * The type of the word.
+     */
+    private ColumnType wordType;
+    /**
+     * The comparison of the values according to the type of the word. Created on demand for the range operators.
+     */
+    private TypedComparator typedComparator;
+    /**
+     * The regular expression used by the text operators to check the values on the client. Created on demand.
+     */
+    private Pattern    pattern;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link ColumnPredicate} class.
+     *
+     * @param family   The name of the column family or null if the condition is on the row key.
+     * @param column   The name of the column or null if the condition is on the row key.
+     * @param operator The operator used to compare the value.
+     * @param word     The word to compare the value with or null for the unary operators.
+     * @param wordType The type of the word.
+     */
+    public ColumnPredicate(String family, String column, Operator operator, String word, ColumnType wordType) {
+        this.family = family;
+        this.column = column;
+        this.operator = operator;
+        this.word = word;
+        this.wordType = wordType;
+    }
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Checks if the condition is on the row key.
+     *
+     * @return True if the condition is on the row key or False otherwise.
+     */
+    public boolean isKey() {
+        return this.family == null;
+    }
+
+    /**
+     * Gets the name of the column family.
+     *
+     * @return The name of the column family or null if the condition is on the row key.
+     */
+    public String getFamily() {
+        return this.family;
+    }
+
+    /**
+     * Gets the name of the column.
+     *
+     * @return The name of the column or null if the condition is on the row key.
+     */
+    public String getColumn() {
+        return this.column;
+    }
+
+    /**
+     * Gets the operator.
+     *
+     * @return The operator.
+     */
+    public Operator getOperator() {
+        return this.operator;
+    }
+
+    /**
+     * Gets the word.
+     *
+     * @return The word or null for the unary operators.
+     */
+    public String getWord() {
+        return this.word;
+    }
+
+    /**
+     * Gets the type of the word.
+     *
+     * @return The type of the word.
+     */
+    public ColumnType getWordType() {
+        return this.wordType;
+    }
+
+    /**
+     * Gets the first key the rows matching the condition on the row key can have.
+     *
+     * @return The inclusive start key or null if the condition doesn't restrict the beginning of the key range.
+     */
+    public byte[] getStartKey() {
+        if (!isKey()) {
+            return null;
+        }
+
+        if (isRange() && !TypedComparator.isOrderSafe(this.wordType)) {
+            return null;
+        }
+
+        switch (this.operator) {
+            case Equal:
+            case GreaterOrEqual:
+                return this.wordType.toBytes(this.word);
+            case Greater:
+                return Bytes.add(this.wordType.toBytes(this.word), new byte[1]);
+            case StartsWith:
+                return this.wordType.toBytes(this.word);
+            case Like:
+                return getFixedPrefix();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Gets the key the rows matching the condition on the row key precede.
+     *
+     * @return The exclusive stop key or null if the condition doesn't restrict the end of the key range.
+     */
+    public byte[] getStopKey() {
+        if (!isKey()) {
+            return null;
+        }
+
+        if (isRange() && !TypedComparator.isOrderSafe(this.wordType)) {
+            return null;
+        }
+
+        switch (this.operator) {
+            case Equal:
+            case LessOrEqual:
+                return Bytes.add(this.wordType.toBytes(this.word), new byte[1]);
+            case Less:
+                return this.wordType.toBytes(this.word);
+            case StartsWith:
+                return getPrefixStopKey(this.wordType.toBytes(this.word));
+            case Like:
+                return getPrefixStopKey(getFixedPrefix());
+            default:
+                return null;
+        }
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Compiles the condition into a filter. The rows missing the column are rejected unless the condition checks the column for null.
+     * The conditions on the row key are compiled into the filters which can skip to the next matching key. The range conditions on the types
+     * which are not ordered as their bytes are compiled into the byte comparison only if it returns all the matching values.
+     *
+     * @return A filter to be used in the scan or null if the condition can be checked on the client only.
+     */
+    @Override
+    public Filter toFilter() {
+        if (isRange() && !getTypedComparator().canPushDown(this.operator)) {
+            return null;
+        }
+
+        if (isKey()) {
+            if (this.operator == Operator.StartsWith) {
+                return new PrefixFilter(this.wordType.toBytes(this.word));
+            }
+
+            if (this.operator == Operator.Like) {
+                return createFuzzyFilter();
+            }
+        }
+
+        ByteArrayComparable comparator;
+
+        switch (this.operator) {
+            case Contains:
+                comparator = new SubstringComparator(this.word);
+                break;
+            case StartsWith:
+                comparator = new BinaryPrefixComparator(this.wordType.toBytes(this.word));
+                break;
+            case EndsWith:
+            case Like:
+            case Matches:
+                comparator = new RegexStringComparator(getRegex());
+                break;
+            case Less:
+            case LessOrEqual:
+            case Equal:
+            case NotEqual:
+            case GreaterOrEqual:
+            case Greater:
+                comparator = new BinaryComparator(this.wordType.toBytes(this.word));
+                break;
+            case IsNull:
+            case IsNotNull:
+                comparator = new BinaryComparator(EMPTY_BYTES_ARRAY);
+                break;
+            default:
+                throw new IllegalArgumentException(String.format("The specified operator type '%s' is not supported.", this.operator));
+        }
+
+        if (isKey()) {
+            return new RowFilter(this.operator.toFilter(), comparator);
+        }
+
+        SingleColumnValueFilter filter = new SingleColumnValueFilter(
+            Bytes.toBytesBinary(this.family), Bytes.toBytesBinary(this.column), this.operator.toFilter(), comparator);
+
+        // Only the rows without the column match the IsNull condition.
+        filter.setFilterIfMissing(this.operator != Operator.IsNull);
+
+        return filter;
+    }
+
+    /**
+     * Checks if the filter returned by the {@link ColumnPredicate#toFilter()} method returns exactly the rows matching the condition.
+     *
+     * @return True if the filter is exact or False if the rows should be checked on the client.
+     */
+    @Override
+    public boolean isExact() {
+        return !isRange() || getTypedComparator().isOrderSafe();
+    }
+
+    /**
+     * Checks if the row matches the condition. The range conditions compare the values decoded according to the type of the word.
+     *
+     * @param row The row to check.
+     * @return True if the row matches the condition or False otherwise.
+     */
+    @Override
+    public boolean matches(Result row) {
+        byte[] value = isKey() ? row.getRow() : row.getValue(Bytes.toBytesBinary(this.family), Bytes.toBytesBinary(this.column));
+
+        if (this.operator == Operator.IsNull) {
+            return value == null || value.length == 0;
+        }
+
+        if (this.operator == Operator.IsNotNull) {
+            return value != null && value.length > 0;
+        }
+
+        if (value == null) {
+            return false;
+        }
+
+        switch (this.operator) {
+            case Equal:
+                return Bytes.equals(value, this.wordType.toBytes(this.word));
+            case NotEqual:
+                return !Bytes.equals(value, this.wordType.toBytes(this.word));
+            case Less:
+            case LessOrEqual:
+            case GreaterOrEqual:
+            case Greater:
+                return matchesRange(value);
+            case Contains:
+                // The substring comparator of hbase ignores the case.
+                return new String(value, UTF8).toLowerCase().contains(this.word.toLowerCase());
+            case StartsWith:
+                return Bytes.startsWith(value, this.wordType.toBytes(this.word));
+            default:
+                if (isKey() && this.operator == Operator.Like) {
+                    return matchesFuzzy(value);
+                }
+
+                if (this.pattern == null) {
+                    this.pattern = Pattern.compile(getRegex());
+                }
+                return this.pattern.matcher(new String(value, UTF8)).find();
+        }
+    }
+
+    /**
+     * Describes the filter the condition is compiled into.
+     *
+     * @param builder The builder to append the description to. This is the output parameter.
+     * @param indent  The indentation of the description.
+     */
+    @Override
+    public void explain(StringBuilder builder, String indent) {
+        builder.append(indent);
+
+        Filter filter = toFilter();
+        if (filter == null) {
+            builder.append(String.format("client check: %s, compared as %s", this, this.wordType));
+        }
+        else {
+            builder.append(describe(filter));
+
+            if (!isExact()) {
+                builder.append(String.format(" + client check compared as %s", this.wordType));
+            }
+        }
+        builder.append('\n');
+    }
+
+    /**
+     * Adds the condition to the collection.
+     *
+     * @param predicates The collection to add the condition to. This is the output parameter.
+     */
+    @Override
+    public void collectColumnPredicates(Collection<ColumnPredicate> predicates) {
+        predicates.add(this);
+    }
+
+    /**
+     * Gets the condition represented as a filter expression.
+     *
+     * @return A filter expression.
+     */
+    @Override
+    public String toString() {
+        String operand = isKey() ? PredicateParser.KEY_OPERAND : String.format("%s:%s", this.family, this.column);
+
+        if (this.operator.isUnary()) {
+            return String.format("%s %s", PredicateParser.quote(operand), this.operator.getSymbol());
+        }
+        return String.format("%s %s %s", PredicateParser.quote(operand), this.operator.getSymbol(), PredicateParser.quote(this.word));
+    }
+    //endregion
+
+    //region Private Methods
+
+    /**
+     * Checks if the operator compares the order of the value and the word.
+     *
+     * @return True if the operator is a range operator or False otherwise.
+     */
+    private boolean isRange() {
+        switch (this.operator) {
+            case Less:
+            case LessOrEqual:
+            case GreaterOrEqual:
+            case Greater:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Gets the comparison of the values according to the type of the word.
+     *
+     * @return The typed comparator.
+     */
+    private TypedComparator getTypedComparator() {
+        if (this.typedComparator == null) {
+            this.typedComparator = new TypedComparator(this.wordType, this.word);
+        }
+        return this.typedComparator;
+    }
+
+    /**
+     * Checks if the value satisfies the range operator.
+     *
+     * @param value The value to check.
+     * @return True if the value satisfies the operator or False otherwise or if the value cannot be decoded.
+     */
+    private boolean matchesRange(byte[] value) {
+        int result;
+        try {
+            result = getTypedComparator().compareTo(value);
+        }
+        catch (IllegalArgumentException ignore) {
+            return false;
+        }
+
+        switch (this.operator) {
+            case Less:
+                return result < 0;
+            case LessOrEqual:
+                return result <= 0;
+            case GreaterOrEqual:
+                return result >= 0;
+            default:
+                return result > 0;
+        }
+    }
+
+    /**
+     * Checks if the fixed bytes of the pattern match the key.
+     *
+     * @param key The key to check.
+     * @return True if the key matches the pattern or False otherwise.
+     */
+    private boolean matchesFuzzy(byte[] key) {
+        Pair<byte[], byte[]> fuzzyKey = getFuzzyKey();
+
+        byte[] fixed = fuzzyKey.getFirst();
+        byte[] mask = fuzzyKey.getSecond();
+
+        if (key.length < fixed.length) {
+            return false;
+        }
+
+        for (int i = 0 ; i < fixed.length ; i++) {
+            if (mask[i] == FIXED_BYTE && key[i] != fixed[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the regular expression used by the text operators. The word is used as a regular expression only by the {@link Operator#Matches}
+     * operator, the other operators match it literally.
+     *
+     * @return A regular expression.
+     */
+    private String getRegex() {
+        switch (this.operator) {
+            case EndsWith:
+                return Pattern.quote(this.word) + '$';
+            case Matches:
+                return this.word;
+            default:
+                return toRegex(this.word);
+        }
+    }
+
+    /**
+     * Describes the filter the condition is compiled into.
+     *
+     * @param filter The filter to describe.
+     * @return A description of the filter.
+     */
+    private String describe(Filter filter) {
+        String filterName = filter.getClass().getSimpleName();
+
+        if (filter instanceof SingleColumnValueFilter) {
+            SingleColumnValueFilter valueFilter = (SingleColumnValueFilter)filter;
+            return String.format(
+                "%s %s:%s %s %s%s", filterName, this.family, this.column, valueFilter.getOperator(), describe(valueFilter.getComparator()),
+                valueFilter.getFilterIfMissing() ? ", skips the rows without the column" : "");
+        }
+
+        if (filter instanceof CompareFilter) {
+            CompareFilter compareFilter = (CompareFilter)filter;
+            return String.format("%s key %s %s", filterName, compareFilter.getOperator(), describe(compareFilter.getComparator()));
+        }
+
+        if (filter instanceof PrefixFilter) {
+            return String.format("%s key '%s'", filterName, Bytes.toStringBinary(((PrefixFilter)filter).getPrefix()));
+        }
+
+        return String.format("%s %s", filterName, this);
+    }
+
+    /**
+     * Describes the comparator used by the filter.
+     *
+     * @param comparator The comparator to describe.
+     * @return A description of the comparator.
+     */
+    private static String describe(ByteArrayComparable comparator) {
+        return String.format("%s('%s')", comparator.getClass().getSimpleName(), Bytes.toStringBinary(comparator.getValue()));
+    }
+
+    /**
+     * Creates a filter matching the keys against the pattern. Each wildcard of the pattern matches exactly one byte so the filter can jump
+     * over the keys which don't match the fixed bytes.
+     *
+     * @return A filter to be used in the scan.
+     */
+    private Filter createFuzzyFilter() {
+        return new FuzzyRowFilter(Arrays.asList(getFuzzyKey()));
+    }
+
+    /**
+     * Gets the bytes of the pattern and the mask marking the bytes matched by the wildcards.
+     *
+     * @return A pair of the pattern bytes and the mask.
+     */
+    private Pair<byte[], byte[]> getFuzzyKey() {
+        ByteArrayOutputStream key = new ByteArrayOutputStream();
+        ByteArrayOutputStream mask = new ByteArrayOutputStream();
+
+        int start = 0;
+        for (int i = 0 ; i <= this.word.length() ; i++) {
+            if (i == this.word.length() || this.word.charAt(i) == WILDCARD) {
+                byte[] fixed = this.wordType.toBytes(this.word.substring(start, i));
+
+                key.write(fixed, 0, fixed.length);
+                for (int j = 0 ; j < fixed.length ; j++) {
+                    mask.write(FIXED_BYTE);
+                }
+
+                if (i < this.word.length()) {
+                    key.write(0);
+                    mask.write(ANY_BYTE);
+                }
+
+                start = i + 1;
+            }
+        }
+
+        return new Pair<byte[], byte[]>(key.toByteArray(), mask.toByteArray());
+    }
+
+    /**
+     * Gets the bytes of the pattern preceding the first wildcard.
+     *
+     * @return The fixed prefix of the pattern.
+     */
+    private byte[] getFixedPrefix() {
+        int index = this.word.indexOf(WILDCARD);
+        return this.wordType.toBytes(index >= 0 ? this.word.substring(0, index) : this.word);
+    }
+
+    /**
+     * Gets the first key which doesn't start with the prefix.
+     *
+     * @param prefix The prefix.
+     * @return The key or null if all the keys following the prefix start with it.
+     */
+    private static byte[] getPrefixStopKey(byte[] prefix) {
+        for (int i = prefix.length - 1 ; i >= 0 ; i--) {
+            if (prefix[i] != (byte)0xFF) {
+                byte[] stopKey = Arrays.copyOf(prefix, i + 1);
+                stopKey[i]++;
+                return stopKey;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Converts the pattern of the {@link Operator#Like} operator to the regular expression matching the beginning of the value.
+     *
+     * @param pattern The pattern to convert.
+     * @return A regular expression.
+     */
+    private static String toRegex(String pattern) {
+        StringBuilder regex = new StringBuilder("^");
+
+        int start = 0;
+        for (int i = 0 ; i <= pattern.length() ; i++) {
+            if (i == pattern.length() || pattern.charAt(i) == WILDCARD) {
+                if (i > start) {
+                    regex.append(Pattern.quote(pattern.substring(start, i)));
+                }
+
+                if (i < pattern.length()) {
+                    regex.append('.');
+                }
+
+                start = i + 1;
+            }
+        }
+        return regex.toString();
+    }
+    //endregion
+}
@@ -0,0 +1,237 @@
+package hrider.hbase;
+
+import hrider.actions.DaemonThreadFactory;
+import hrider.config.GlobalConfig;
+import hrider.converters.TypeConverter;
+import hrider.data.ColumnFamily;
+import hrider.data.ColumnQualifier;
+import org.apache.hadoop.hbase.HColumnDescriptor;
+import org.apache.hadoop.hbase.HTableDescriptor;
+import org.apache.hadoop.hbase.client.HTable;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.filter.KeyOnlyFilter;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents a columns sampling operation. The table is split by the region boundaries and a small number of rows is read
+ *          from the beginning of each region in parallel. The column names found in the sampled rows are merged into the table schema.
+ */
+public class ColumnSampler {
+
+    //region Variables
+    /**
+     * The connection to the cluster where the table is located.
+     */
+    private Connection    connection;
+    /**
+     * The name of the table which columns are sampled.
+     */
+    private String        tableName;
+    /**
+     * The schema the found columns are added to.
+     */
+    private TableSchema   schema;
+    /**
+     * The number of rows to read from each region.
+     */
+    private int           rowsPerRegion;
+    /**
+     * The converter used to present the names of the found columns.
+     */
+    private TypeConverter nameConverter;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link ColumnSampler} class.
+     *
+     * @param connection    The connection to the cluster where the table is located.
+     * @param tableName     The name of the table which columns are sampled.
+     * @param schema        The schema the found columns are added to.
+     * @param rowsPerRegion The number of rows to read from each region.
+     * @param nameConverter The converter used to present the names of the found columns.
+     */
+    public ColumnSampler(Connection connection, String tableName, TableSchema schema, int rowsPerRegion, TypeConverter nameConverter) {
+        this.connection = connection;
+        this.tableName = tableName;
+        this.schema = schema;
+        this.rowsPerRegion = rowsPerRegion > 0 ? rowsPerRegion : 1;
+        this.nameConverter = nameConverter;
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Samples the rows of all the regions of the table.
+     *
+     * @param listener The listener to notify each time a region has been sampled. This parameter can be null.
+     * @throws IOException Error accessing hbase.
+     */
+    public void sample(ColumnsSampleListener listener) throws IOException {
+        HTable table = this.connection.getTableFactory().get(this.tableName);
+
+        List<KeyRange> ranges = KeyRange.fromRegions(table, null, null);
+        if (ranges.isEmpty()) {
+            this.schema.setSampled(true);
+            return;
+        }
+
+        HTableDescriptor tableDescriptor = table.getTableDescriptor();
+
+        int threads = Math.max(1, Math.min(ranges.size(), GlobalConfig.instance().getColumnSampleThreads()));
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new DaemonThreadFactory(this.tableName + "-columnSample"));
+        CompletionService<Collection<ColumnQualifier>> completionService = new ExecutorCompletionService<Collection<ColumnQualifier>>(executor);
+
+        AtomicBoolean canceled = new AtomicBoolean();
+
+        for (KeyRange range : ranges) {
+            completionService.submit(new RangeSampler(range, tableDescriptor, canceled));
+        }
+
+        try {
+            for (int completed = 1 ; completed <= ranges.size() ; completed++) {
+                Collection<ColumnQualifier> found = completionService.take().get();
+
+                Collection<ColumnQualifier> columns = new ArrayList<ColumnQualifier>();
+                for (ColumnQualifier column : found) {
+                    if (this.schema.addColumn(column)) {
+                        columns.add(column);
+                    }
+                }
+
+                if (listener != null) {
+                    listener.onColumnsFound(columns, completed, ranges.size());
+                }
+            }
+
+            this.schema.setSampled(true);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(String.format("The columns sampling of the '%s' table has been interrupted.", this.tableName));
+        }
+        catch (ExecutionException e) {
+            throw new IOException(String.format("Failed to sample columns of the '%s' table.", this.tableName), e.getCause());
+        }
+        finally {
+            canceled.set(true);
+            executor.shutdown();
+        }
+    }
+    //endregion
+
+    /**
+     * Represents a task sampling the rows at the beginning of a single key range.
+     */
+    private class RangeSampler implements Callable<Collection<ColumnQualifier>> {
+
+        //region Variables
+        /**
+         * The range of keys to sample.
+         */
+        private KeyRange         range;
+        /**
+         * The descriptor of the table used to resolve the column families.
+         */
+        private HTableDescriptor tableDescriptor;
+        /**
+         * Indicates if the whole sampling has been stopped.
+         */
+        private AtomicBoolean    canceled;
+        //endregion
+
+        //region Constructor
+
+        /**
+         * Initializes a new instance of the {@link RangeSampler} class.
+         *
+         * @param range           The range of keys to sample.
+         * @param tableDescriptor The descriptor of the table used to resolve the column families.
+         * @param canceled        Indicates if the whole sampling has been stopped.
+         */
+        private RangeSampler(KeyRange range, HTableDescriptor tableDescriptor, AtomicBoolean canceled) {
+            this.range = range;
+            this.tableDescriptor = tableDescriptor;
+            this.canceled = canceled;
+        }
+        //endregion
+
+        //region Public Methods
+        @Override
+        public Collection<ColumnQualifier> call() throws Exception {
+            Collection<ColumnQualifier> columns = new LinkedHashSet<ColumnQualifier>();
+
+            Scan scan = new Scan();
+            scan.setStartRow(this.range.getStartKey());
+            scan.setStopRow(this.range.getStopKey());
+            scan.setCaching(rowsPerRegion);
+            scan.setCacheBlocks(false);
+            scan.setMaxResultSize(GlobalConfig.instance().getColumnsScanMaxResultSize());
+            scan.setFilter(new KeyOnlyFilter());
+
+            // HTable is not thread safe so each range is sampled through its own instance.
+            HTable table = connection.getTableFactory().create(tableName);
+            try {
+                ResultScanner scanner = table.getScanner(scan);
+                try {
+                    int counter = 0;
+
+                    Result row = scanner.next();
+                    while (row != null && !this.canceled.get()) {
+                        NavigableMap<byte[], NavigableMap<byte[], NavigableMap<Long, byte[]>>> familyMap = row.getMap();
+                        for (NavigableMap.Entry<byte[], NavigableMap<byte[], NavigableMap<Long, byte[]>>> familyEntry : familyMap.entrySet()) {
+                            HColumnDescriptor columnDescriptor = this.tableDescriptor.getFamily(familyEntry.getKey());
+
+                            for (byte[] quantifier : familyEntry.getValue().keySet()) {
+                                columns.add(new ColumnQualifier(quantifier, new ColumnFamily(columnDescriptor), nameConverter));
+                            }
+                        }
+
+                        counter++;
+
+                        row = counter < rowsPerRegion ? scanner.next() : null;
+                    }
+                }
+                finally {
+                    scanner.close();
+                }
+            }
+            finally {
+                table.close();
+            }
+            return columns;
+        }
+        //endregion
+    }
+}
@@ -0,0 +1,37 @@
+package hrider.hbase;
+
+import hrider.data.ColumnQualifier;
+
+import java.util.Collection;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This is a listener interface that allows to receive the columns found by the columns sampling operation.
+ */
+public interface ColumnsSampleListener {
+
+    /**
+     * This method is called each time the rows of a key range have been sampled.
+     *
+     * @param columns         The columns which have not been known before. The collection can be empty.
+     * @param completedRanges The number of key ranges which rows have been sampled.
+     * @param totalRanges     The total number of key ranges.
+     */
+    void onColumnsFound(Collection<ColumnQualifier> columns, int completedRanges, int totalRanges);
+}
@@ -1,5 +1,6 @@
 package hrider.hbase;
 
+import hrider.actions.DaemonThreadFactory;
 import hrider.config.ConnectionDetails;
 import hrider.config.GlobalConfig;
 import hrider.data.ColumnFamily;
@@ -11,6 +12,7 @@ import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hbase.*;
 import org.apache.hadoop.hbase.client.*;
+import org.apache.hadoop.hbase.io.TimeRange;
 import org.apache.hadoop.hbase.io.encoding.DataBlockEncoding;
 import org.apache.hadoop.hbase.io.hfile.CacheConfig;
 import org.apache.hadoop.hbase.io.hfile.HFile;
@@ -19,7 +21,10 @@ import org.apache.hadoop.hbase.regionserver.StoreFileScanner;
 import org.apache.hadoop.hbase.util.Bytes;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Copyright (C) 2012 NICE Systems ltd.
@@ -64,6 +69,30 @@ public class Connection {
      * A list of listeners.
      */
     private List<HbaseActionListener> listeners;
+    /**
+     * A cache of table sizes calculated from the region load metrics.
+     */
+    private Map<String, TableSize>    tableSizes;
+    /**
+     * A cache of columns discovered in the tables.
+     */
+    private Map<String, TableSchema>  tableSchemas;
+    /**
+     * The estimations of the size of the rows of the tables. The key is the name of the table.
+     */
+    private Map<String, RowSizeEstimator> rowSizes;
+    /**
+     * The statistics of the scan done by the last bulk operation.
+     */
+    private ScanStatistics                lastBulkStatistics;
+    /**
+     * The cache of the pages loaded by the scanners of the connection.
+     */
+    private PageCache                     pageCache;
+    /**
+     * The local indexes of the column values. The key is the name of the table followed by the name of the column.
+     */
+    private Map<String, ValueIndex>       valueIndexes;
     //endregion
 
     //region Constructor
@@ -78,6 +107,55 @@ public class Connection {
         this.connectionDetails = connectionDetails;
         this.serverName = connectionDetails.getZookeeper().getHost();
         this.listeners = new ArrayList<HbaseActionListener>();
+        this.tableSizes = new HashMap<String, TableSize>();
+        this.tableSchemas = new HashMap<String, TableSchema>();
+        this.rowSizes = new HashMap<String, RowSizeEstimator>();
+        this.pageCache = new PageCache(GlobalConfig.instance().getPageCacheMaxSize(), GlobalConfig.instance().getPageCacheTimeToLive());
+        this.valueIndexes = new HashMap<String, ValueIndex>();
+
+        // The cached columns and pages become stale as soon as the table structure or the data is changed through this connection.
+        this.listeners.add(
+                new HbaseActionListener() {
+                    @Override
+                    public void copyOperation(String source, String sourceTable, String target, String targetTable, CopyProgress progress) {
+                        clearTableSchema(targetTable);
+                        pageCache.invalidate(targetTable);
+                        invalidateValueIndexes(targetTable);
+                    }
+
+                    @Override
+                    public void saveOperation(String tableName, String path, Result result) {
+                    }
+
+                    @Override
+                    public void loadOperation(String tableName, String path, Put put) {
+                        clearTableSchema(tableName);
+                        pageCache.invalidate(tableName);
+                        invalidateValueIndexes(tableName);
+                    }
+
+                    @Override
+                    public void tableOperation(String tableName, String operation) {
+                        clearTableSchema(tableName);
+                        pageCache.invalidate(tableName);
+                        invalidateValueIndexes(tableName);
+                    }
+
+                    @Override
+                    public void rowOperation(String tableName, DataRow row, String operation) {
+                        if ("added".equals(operation)) {
+                            clearTableSchema(tableName);
+                        }
+                        pageCache.invalidate(tableName);
+                        invalidateValueIndexes(tableName);
+                    }
+
+                    @Override
+                    public void columnOperation(String tableName, String column, String operation) {
+                        clearTableSchema(tableName);
+                        pageCache.invalidate(tableName);
+                    }
+                });
 
         try {
             Configuration config = connectionDetails.createConfig();
@@ -144,6 +222,186 @@ public class Connection {
         return new TableDescriptor(this.hbaseAdmin.getTableDescriptor(Bytes.toBytes(tableName)));
     }
 
+    /**
+     * Gets the size of the table calculated from the load metrics reported by the region servers. The metrics are available immediately
+     * and can be used to estimate the table size before the rows are counted. The size is cached for a short period of time.
+     *
+     * @param tableName The name of the table.
+     * @return The size of the table.
+     * @throws IOException Error accessing hbase.
+     */
+    public TableSize getTableSize(String tableName) throws IOException {
+        synchronized (this.tableSizes) {
+            TableSize size = this.tableSizes.get(tableName);
+            if (size != null && !size.isExpired(GlobalConfig.instance().getTableSizeCacheTimeout())) {
+                return size;
+            }
+        }
+
+        TableSize size = new TableSize();
+
+        ClusterStatus status = this.hbaseAdmin.getClusterStatus();
+
+        HTable table = this.factory.get(tableName);
+        for (Map.Entry<HRegionInfo, ServerName> region : table.getRegionLocations().entrySet()) {
+            ServerLoad serverLoad = status.getLoad(region.getValue());
+            if (serverLoad != null) {
+                RegionLoad regionLoad = serverLoad.getRegionsLoad().get(region.getKey().getRegionName());
+                if (regionLoad != null) {
+                    size.addRegion(regionLoad);
+                }
+            }
+        }
+
+        synchronized (this.tableSizes) {
+            this.tableSizes.put(tableName, size);
+        }
+        return size;
+    }
+
+    /**
+     * Estimates the cost of scanning the key range of the table. The regions covering the range are taken from the region locations and their
+     * sizes are taken from the load metrics reported by the region servers.
+     *
+     * @param tableName The name of the table.
+     * @param startRow  The inclusive start row of the scan or an empty array to start from the beginning of the table.
+     * @param stopRow   The exclusive stop row of the scan or an empty array to scan till the end of the table.
+     * @return The estimated cost of the scan.
+     * @throws IOException Error accessing hbase.
+     */
+    public ScanCost getScanCost(String tableName, byte[] startRow, byte[] stopRow) throws IOException {
+        ClusterStatus status = this.hbaseAdmin.getClusterStatus();
+
+        HTable table = this.factory.get(tableName);
+        NavigableMap<HRegionInfo, ServerName> regions = table.getRegionLocations();
+
+        ScanCost cost = new ScanCost(startRow.length == 0 && stopRow.length == 0, regions.size());
+        for (Map.Entry<HRegionInfo, ServerName> region : regions.entrySet()) {
+            HRegionInfo regionInfo = region.getKey();
+
+            boolean startsBeforeStop = stopRow.length == 0 || Bytes.compareTo(regionInfo.getStartKey(), stopRow) < 0;
+            boolean endsAfterStart = regionInfo.getEndKey().length == 0 || Bytes.compareTo(regionInfo.getEndKey(), startRow) > 0;
+
+            if (startsBeforeStop && endsAfterStart) {
+                RegionLoad regionLoad = null;
+
+                ServerLoad serverLoad = status.getLoad(region.getValue());
+                if (serverLoad != null) {
+                    regionLoad = serverLoad.getRegionsLoad().get(regionInfo.getRegionName());
+                }
+                cost.addRegion(region.getValue().getHostAndPort(), regionLoad);
+            }
+        }
+        return cost;
+    }
+
+    /**
+     * Gets the columns previously discovered in the table.
+     *
+     * @param tableName The name of the table.
+     * @return The cached table schema or null if the columns of the table have not been discovered yet.
+     */
+    public TableSchema getTableSchema(String tableName) {
+        synchronized (this.tableSchemas) {
+            return this.tableSchemas.get(tableName);
+        }
+    }
+
+    /**
+     * Caches the columns discovered in the table.
+     *
+     * @param tableName The name of the table.
+     * @param schema    The discovered columns.
+     */
+    public void setTableSchema(String tableName, TableSchema schema) {
+        synchronized (this.tableSchemas) {
+            this.tableSchemas.put(tableName, schema);
+        }
+    }
+
+    /**
+     * Removes the cached columns of the table so they are discovered again on the next request.
+     *
+     * @param tableName The name of the table.
+     */
+    public void clearTableSchema(String tableName) {
+        synchronized (this.tableSchemas) {
+            this.tableSchemas.remove(tableName);
+        }
+    }
+
+    /**
+     * Removes the cached columns and pages of the table and marks its local indexes as stale. Called when the data of the table has been
+     * changed without raising the events of the connection.
+     *
+     * @param tableName The name of the table.
+     */
+    public void invalidateTable(String tableName) {
+        clearTableSchema(tableName);
+        this.pageCache.invalidate(tableName);
+        invalidateValueIndexes(tableName);
+    }
+
+    /**
+     * Gets the estimation of the size of the rows of the table. The estimation is updated by the scans going over the table.
+     *
+     * @param tableName The name of the table.
+     * @return The estimation of the size of the rows.
+     */
+    public RowSizeEstimator getRowSizeEstimator(String tableName) {
+        synchronized (this.rowSizes) {
+            RowSizeEstimator rowSize = this.rowSizes.get(tableName);
+            if (rowSize == null) {
+                rowSize = new RowSizeEstimator();
+                this.rowSizes.put(tableName, rowSize);
+            }
+            return rowSize;
+        }
+    }
+
+    /**
+     * Gets the cache of the pages loaded by the scanners of the connection.
+     *
+     * @return The page cache.
+     */
+    public PageCache getPageCache() {
+        return this.pageCache;
+    }
+
+    /**
+     * Gets the local index of the column values.
+     *
+     * @param tableName The name of the table.
+     * @param family    The name of the family of the column.
+     * @param column    The name of the column.
+     * @return The index or null if the column is not indexed.
+     */
+    public ValueIndex getValueIndex(String tableName, String family, String column) {
+        synchronized (this.valueIndexes) {
+            return this.valueIndexes.get(getValueIndexKey(tableName, family, column));
+        }
+    }
+
+    /**
+     * Sets the local index of the column values replacing the previous index of the same column.
+     *
+     * @param index The index to set.
+     */
+    public void setValueIndex(ValueIndex index) {
+        synchronized (this.valueIndexes) {
+            this.valueIndexes.put(getValueIndexKey(index.getTableName(), index.getFamily(), index.getColumn()), index);
+        }
+    }
+
+    /**
+     * Gets the statistics of the scan done by the last copy or save operation.
+     *
+     * @return The statistics of the scan or null if no bulk operation has been done yet.
+     */
+    public ScanStatistics getLastBulkStatistics() {
+        return this.lastBulkStatistics;
+    }
+
     /**
      * Adds a listener for hbase related operations.
      *
@@ -167,6 +425,16 @@ public class Connection {
      */
     public void reset() {
         this.factory.clear();
+
+        synchronized (this.tableSchemas) {
+            this.tableSchemas.clear();
+        }
+
+        synchronized (this.rowSizes) {
+            this.rowSizes.clear();
+        }
+
+        this.pageCache.clear();
     }
 
     /**
@@ -298,60 +566,39 @@ public class Connection {
      * @throws IOException Error accessing hbase on one of the clusters or on both clusters.
      */
     public void copyTable(TableDescriptor targetTable, TableDescriptor sourceTable, Connection sourceCluster) throws IOException, TableNotFoundException {
-        HTable source = sourceCluster.factory.get(sourceTable.getName());
-
-        byte[][] startKeys = source.getStartKeys();
-        byte[][] splitKeys = new byte[startKeys.length - 1][];
-
-        System.arraycopy(startKeys, 1, splitKeys, 0, startKeys.length - 1);
-
-        createOrModifyTable(targetTable, splitKeys);
-
-        HTable target = this.factory.get(targetTable.getName());
-
-        Scan scan = new Scan();
-        scan.setCaching(GlobalConfig.instance().getBatchSizeForRead());
-
-        ResultScanner scanner = source.getScanner(scan);
-        try {
-            List<Put> puts = new ArrayList<Put>();
-
-            int batchSize = GlobalConfig.instance().getBatchSizeForWrite();
-
-            boolean isValid;
-
-            do {
-                Result result = scanner.next();
-
-                isValid = result != null;
-                if (isValid) {
-                    Put put = new Put(result.getRow());
-                    for (KeyValue kv : result.list()) {
-                        put.add(kv);
-                    }
-
-                    puts.add(put);
-
-                    if (puts.size() == batchSize) {
-                        target.put(puts);
-                        puts.clear();
-                    }
+        copyTable(targetTable, sourceTable, sourceCluster, null);
+    }
 
-                    for (HbaseActionListener listener : this.listeners) {
-                        listener.copyOperation(sourceCluster.serverName, sourceTable.getName(), this.serverName, targetTable.getName(), result);
-                    }
-                }
-            }
-            while (isValid);
+    /**
+     * Copies all the data from one table to another. The tables can be on different clusters. The progress of the copy is recorded in the
+     * checkpoint so the interrupted copy continues from the recorded positions. The checkpoint is cleared when the copy is completed.
+     *
+     * @param targetTable   The name of the target table.
+     * @param sourceTable   The name of the source table.
+     * @param sourceCluster The source cluster where the source table is located.
+     * @param checkpoint    The checkpoint of the copy. This parameter can be null.
+     * @throws IOException Error accessing hbase on one of the clusters or on both clusters.
+     */
+    public void copyTable(TableDescriptor targetTable, TableDescriptor sourceTable, Connection sourceCluster, CopyCheckpoint checkpoint)
+        throws IOException, TableNotFoundException {
+        copyRegions(targetTable, sourceTable, sourceCluster, checkpoint, null);
+    }
 
-            // add the last puts to the table.
-            if (!puts.isEmpty()) {
-                target.put(puts);
-            }
-        }
-        finally {
-            scanner.close();
-        }
+    /**
+     * Copies the changes done to one table within the specified time range to another. All the versions of the changed cells are copied
+     * along with the delete markers, so the rows deleted from the source table are deleted from the target table as well.
+     *
+     * @param targetTable   The name of the target table.
+     * @param sourceTable   The name of the source table.
+     * @param sourceCluster The source cluster where the source table is located.
+     * @param minTimestamp  The inclusive lower bound of the time range of the changes.
+     * @param maxTimestamp  The exclusive upper bound of the time range of the changes.
+     * @throws IOException Error accessing hbase on one of the clusters or on both clusters.
+     */
+    public void copyTableChanges(
+        TableDescriptor targetTable, TableDescriptor sourceTable, Connection sourceCluster, long minTimestamp, long maxTimestamp)
+        throws IOException, TableNotFoundException {
+        copyRegions(targetTable, sourceTable, sourceCluster, null, new TimeRange(minTimestamp, maxTimestamp));
     }
 
     /**
@@ -371,13 +618,10 @@ public class Connection {
         StoreFile.Writer writer = new StoreFile.WriterBuilder(
             this.getConfiguration(), new CacheConfig(cacheConfig), fs).withFilePath(new Path(path)).build();
 
-        ResultScanner scanner = null;
+        BulkScanner scanner = null;
 
         try {
-            Scan scan = new Scan();
-            scan.setCaching(GlobalConfig.instance().getBatchSizeForRead());
-
-            scanner = table.getScanner(scan);
+            scanner = new BulkScanner(table, ScanProfile.Bulk, getRowSizeEstimator(tableName));
 
             boolean isValid;
             do {
@@ -399,6 +643,8 @@ public class Connection {
         finally {
             if (scanner != null) {
                 scanner.close();
+
+                this.lastBulkStatistics = scanner.getStatistics();
             }
 
             writer.close();
@@ -686,6 +932,33 @@ public class Connection {
 
     //region Private Methods
 
+    /**
+     * Marks the local indexes of the table as stale as they could miss the rows written through this connection.
+     *
+     * @param tableName The name of the table.
+     */
+    private void invalidateValueIndexes(String tableName) {
+        synchronized (this.valueIndexes) {
+            for (ValueIndex index : this.valueIndexes.values()) {
+                if (index.getTableName().equals(tableName)) {
+                    index.setStale();
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the key of the local index of the column values.
+     *
+     * @param tableName The name of the table.
+     * @param family    The name of the family of the column.
+     * @param column    The name of the column.
+     * @return The key of the index.
+     */
+    private static String getValueIndexKey(String tableName, String family, String column) {
+        return String.format("%s/%s:%s", tableName, family, column);
+    }
+
     /**
      * Adds column families to the specified table.
      *
@@ -709,6 +982,96 @@ public class Connection {
         this.hbaseAdmin.enableTable(tableName);
     }
 
+    /**
+     * Copies the regions of the source table to the target table in parallel. The target table is created or modified to match the source
+     * table and is split by the region boundaries of the source table.
+     *
+     * @param targetTable   The name of the target table.
+     * @param sourceTable   The name of the source table.
+     * @param sourceCluster The source cluster where the source table is located.
+     * @param checkpoint    The checkpoint of the copy. This parameter can be null.
+     * @param timeRange     The time range of the changes to copy or null to copy the latest versions of all the cells.
+     * @throws IOException Error accessing hbase on one of the clusters or on both clusters.
+     */
+    private void copyRegions(
+        TableDescriptor targetTable, TableDescriptor sourceTable, Connection sourceCluster, CopyCheckpoint checkpoint, TimeRange timeRange)
+        throws IOException, TableNotFoundException {
+        HTable source = sourceCluster.factory.get(sourceTable.getName());
+
+        byte[][] startKeys = source.getStartKeys();
+        byte[][] splitKeys = new byte[startKeys.length - 1][];
+
+        System.arraycopy(startKeys, 1, splitKeys, 0, startKeys.length - 1);
+
+        createOrModifyTable(targetTable, splitKeys);
+
+        // Each region of the source table is copied by its own task so the copy scales with the number of the region servers.
+        List<KeyRange> regions = KeyRange.fromRegions(source, null, null);
+
+        CopyContext context = new CopyContext(sourceCluster, sourceTable.getName(), targetTable.getName(), checkpoint, timeRange);
+        CopyProgress progress = new CopyProgress(regions.size());
+
+        int threads = Math.max(1, Math.min(regions.size(), GlobalConfig.instance().getCopyThreads()));
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new DaemonThreadFactory(targetTable.getName() + "-copy"));
+        CompletionService<Long> completionService = new ExecutorCompletionService<Long>(executor);
+
+        Map<Future<Long>, KeyRange> tasks = new HashMap<Future<Long>, KeyRange>();
+        for (KeyRange region : regions) {
+            KeyRange remaining = checkpoint != null ? checkpoint.getRemainingRange(region) : region;
+            if (remaining == null) {
+                progress.addRegion(region, 0);
+            }
+            else {
+                tasks.put(completionService.submit(new RegionCopier(context, region, remaining)), region);
+            }
+        }
+
+        try {
+            for (int completed = 0 ; completed < tasks.size() ; completed++) {
+                Future<Long> task = completionService.take();
+
+                progress.addRegion(tasks.get(task), task.get());
+
+                for (HbaseActionListener listener : this.listeners) {
+                    listener.copyOperation(sourceCluster.serverName, sourceTable.getName(), this.serverName, targetTable.getName(), progress);
+                }
+            }
+
+            if (checkpoint != null) {
+                checkpoint.clear();
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(String.format("The copy of the '%s' table has been interrupted.", sourceTable.getName()));
+        }
+        catch (ExecutionException e) {
+            String message = String.format(
+                "Failed to copy the '%s' table to the '%s' table (%s).", sourceTable.getName(), targetTable.getName(), progress);
+
+            if (checkpoint != null) {
+                message += " The copy can be resumed from the checkpoint.";
+            }
+            throw new IOException(message, e.getCause());
+        }
+        finally {
+            // If one of the regions failed the copy of the other regions is stopped before the error is reported so the checkpoint and the
+            // statistics are not updated after the copy ends.
+            context.canceled.set(true);
+            executor.shutdownNow();
+
+            try {
+                executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            }
+            catch (InterruptedException ignore) {
+                Thread.currentThread().interrupt();
+            }
+
+            this.lastBulkStatistics = context.statistics;
+        }
+    }
+
     /**
      * Converts column family to column descriptor.
      *
@@ -723,4 +1086,239 @@ public class Connection {
         return descriptors;
     }
     //endregion
+
+    /**
+     * Represents the state of a table copy shared by the tasks copying the regions.
+     */
+    private static class CopyContext {
+
+        //region Variables
+        /**
+         * The connection to the cluster where the source table is located.
+         */
+        private Connection     sourceCluster;
+        /**
+         * The name of the table to copy from.
+         */
+        private String         sourceTable;
+        /**
+         * The name of the table to copy to.
+         */
+        private String         targetTable;
+        /**
+         * The checkpoint of the copy or null if the progress is not recorded.
+         */
+        private CopyCheckpoint checkpoint;
+        /**
+         * The time range of the changes to copy or null if the latest versions of all the cells are copied.
+         */
+        private TimeRange      timeRange;
+        /**
+         * The limiter of the number of copied rows per second. Each copied row is read from the source and written to the target so
+         * limiting the copied rows limits both the reads and the writes.
+         */
+        private RateLimiter    rowsLimiter;
+        /**
+         * The limiter of the number of copied bytes per second.
+         */
+        private RateLimiter    bytesLimiter;
+        /**
+         * Indicates if the whole copy has been stopped.
+         */
+        private AtomicBoolean  canceled;
+        /**
+         * The statistics of the whole copy the statistics of the regions are added to.
+         */
+        private ScanStatistics statistics;
+        //endregion
+
+        //region Constructor
+
+        /**
+         * Initializes a new instance of the {@link CopyContext} class.
+         *
+         * @param sourceCluster The connection to the cluster where the source table is located.
+         * @param sourceTable   The name of the table to copy from.
+         * @param targetTable   The name of the table to copy to.
+         * @param checkpoint    The checkpoint of the copy. This parameter can be null.
+         * @param timeRange     The time range of the changes to copy. This parameter can be null.
+         */
+        private CopyContext(Connection sourceCluster, String sourceTable, String targetTable, CopyCheckpoint checkpoint, TimeRange timeRange) {
+            this.sourceCluster = sourceCluster;
+            this.sourceTable = sourceTable;
+            this.targetTable = targetTable;
+            this.checkpoint = checkpoint;
+            this.timeRange = timeRange;
+            this.rowsLimiter = new RateLimiter(GlobalConfig.instance().getCopyMaxRowsPerSecond());
+            this.bytesLimiter = new RateLimiter(GlobalConfig.instance().getCopyMaxBytesPerSecond());
+            this.canceled = new AtomicBoolean();
+            this.statistics = new ScanStatistics();
+        }
+        //endregion
+    }
+
+    /**
+     * Represents a task copying the rows of a single region of the source table to the target table. The task uses its own tables and
+     * buffers the written rows on the client.
+     */
+    private class RegionCopier implements Callable<Long> {
+
+        //region Variables
+        /**
+         * The state of the whole copy.
+         */
+        private CopyContext context;
+        /**
+         * The range of keys of the region to copy.
+         */
+        private KeyRange    region;
+        /**
+         * The part of the region which has not been copied yet.
+         */
+        private KeyRange    range;
+        //endregion
+
+        //region Constructor
+
+        /**
+         * Initializes a new instance of the {@link RegionCopier} class.
+         *
+         * @param context The state of the whole copy.
+         * @param region  The range of keys of the region to copy.
+         * @param range   The part of the region which has not been copied yet.
+         */
+        private RegionCopier(CopyContext context, KeyRange region, KeyRange range) {
+            this.context = context;
+            this.region = region;
+            this.range = range;
+        }
+        //endregion
+
+        //region Public Methods
+        @Override
+        public Long call() throws Exception {
+            long rowsNumber = 0;
+
+            CopyCheckpoint checkpoint = this.context.checkpoint;
+
+            // HTable is not thread safe so each region is copied through its own instances.
+            HTable source = this.context.sourceCluster.factory.create(this.context.sourceTable);
+            HTable target = factory.create(this.context.targetTable);
+            try {
+                // The puts are sent to the region servers when the write buffer is full instead of one call per batch.
+                target.setAutoFlush(false, true);
+
+                BulkScanner scanner = new BulkScanner(
+                    source, ScanProfile.Bulk, this.context.sourceCluster.getRowSizeEstimator(this.context.sourceTable), this.range,
+                    this.context.timeRange);
+                try {
+                    List<Put> puts = new ArrayList<Put>();
+                    List<Delete> deletes = new ArrayList<Delete>();
+
+                    int batchSize = GlobalConfig.instance().getBatchSizeForWrite();
+                    long checkpointInterval = GlobalConfig.instance().getCopyCheckpointInterval();
+
+                    byte[] lastKey = null;
+
+                    Result result = scanner.next();
+                    while (result != null && !this.context.canceled.get()) {
+                        this.context.rowsLimiter.acquire(1);
+                        if (this.context.bytesLimiter.isLimited()) {
+                            this.context.bytesLimiter.acquire(RowSizeEstimator.getSize(result));
+                        }
+
+                        Put put = new Put(result.getRow());
+                        Delete delete = new Delete(result.getRow());
+
+                        // The delete markers are returned only by the raw scan of the changes.
+                        for (KeyValue kv : result.list()) {
+                            if (kv.isDelete()) {
+                                delete.addDeleteMarker(kv);
+                            }
+                            else {
+                                put.add(kv);
+                            }
+                        }
+
+                        if (!put.isEmpty()) {
+                            puts.add(put);
+                        }
+
+                        if (!delete.isEmpty()) {
+                            deletes.add(delete);
+                        }
+
+                        rowsNumber++;
+
+                        lastKey = result.getRow();
+
+                        if (puts.size() == batchSize) {
+                            target.put(puts);
+                            puts.clear();
+                        }
+
+                        if (deletes.size() == batchSize) {
+                            target.delete(deletes);
+                            deletes.clear();
+                        }
+
+                        // The position is recorded only after the rows before it have reached the region servers.
+                        if (checkpoint != null && checkpointInterval > 0 && rowsNumber % checkpointInterval == 0) {
+                            flush(target, puts, deletes);
+                            checkpoint.update(this.region, lastKey);
+                        }
+
+                        result = scanner.next();
+                    }
+
+                    // add the last puts to the table.
+                    flush(target, puts, deletes);
+
+                    if (checkpoint != null) {
+                        if (!this.context.canceled.get()) {
+                            checkpoint.complete(this.region);
+                        }
+                        else if (lastKey != null) {
+                            checkpoint.update(this.region, lastKey);
+                        }
+                    }
+                }
+                finally {
+                    scanner.close();
+
+                    this.context.statistics.add(scanner.getStatistics());
+                }
+            }
+            finally {
+                target.close();
+                source.close();
+            }
+            return rowsNumber;
+        }
+        //endregion
+
+        //region Private Methods
+
+        /**
+         * Writes the buffered puts and deletes to the target table.
+         *
+         * @param target  The target table.
+         * @param puts    The puts which have not been added to the table yet.
+         * @param deletes The deletes which have not been applied to the table yet.
+         * @throws IOException Error accessing hbase.
+         */
+        private void flush(HTable target, List<Put> puts, List<Delete> deletes) throws IOException {
+            if (!puts.isEmpty()) {
+                target.put(puts);
+                puts.clear();
+            }
+            target.flushCommits();
+
+            if (!deletes.isEmpty()) {
+                target.delete(deletes);
+                deletes.clear();
+            }
+        }
+        //endregion
+    }
 }
@@ -0,0 +1,280 @@
+package hrider.hbase;
+
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.io.*;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents the checkpoint of a table copy. The checkpoint keeps the key of the last row copied from each region of the
+ *          source table and is saved to a file, so an interrupted copy can resume from these keys instead of the beginning of the table.
+ *          The positions are matched by the region boundaries; a region which has been split or merged since is copied from its beginning.
+ */
+public class CopyCheckpoint {
+
+    //region Constants
+    /**
+     * The extension of the checkpoint files.
+     */
+    public static final String FILE_EXTENSION = ".checkpoint";
+
+    private static final int VERSION = 1;
+    //endregion
+
+    //region Variables
+    /**
+     * The file the checkpoint is saved to.
+     */
+    private File                  file;
+    /**
+     * The positions of the copy in the regions of the source table. The key is the start key of the region.
+     */
+    private Map<byte[], Position> positions;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link CopyCheckpoint} class.
+     *
+     * @param file The file the checkpoint is saved to.
+     */
+    private CopyCheckpoint(File file) {
+        this.file = file;
+        this.positions = new TreeMap<byte[], Position>(Bytes.BYTES_COMPARATOR);
+    }
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Gets the file the checkpoint is saved to.
+     *
+     * @return The checkpoint file.
+     */
+    public File getFile() {
+        return this.file;
+    }
+
+    /**
+     * Checks whether the checkpoint contains any position. A non empty checkpoint means a previous copy has been interrupted.
+     *
+     * @return True if there are no positions or False otherwise.
+     */
+    public synchronized boolean isEmpty() {
+        return this.positions.isEmpty();
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Opens the checkpoint saved to the file. If the file doesn't exist an empty checkpoint is returned.
+     *
+     * @param file The checkpoint file.
+     * @return The loaded checkpoint.
+     * @throws IOException Error reading the file.
+     */
+    public static CopyCheckpoint open(File file) throws IOException {
+        CopyCheckpoint checkpoint = new CopyCheckpoint(file);
+        if (file.exists()) {
+            DataInputStream stream = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            try {
+                int version = stream.readInt();
+                if (version != VERSION) {
+                    throw new IOException(String.format("The checkpoint file '%s' has unsupported version %d.", file.getName(), version));
+                }
+
+                int count = stream.readInt();
+                for (int i = 0 ; i < count ; i++) {
+                    Position position = new Position();
+
+                    byte[] startKey = Bytes.readByteArray(stream);
+                    position.stopKey = Bytes.readByteArray(stream);
+                    position.done = stream.readBoolean();
+                    if (stream.readBoolean()) {
+                        position.lastKey = Bytes.readByteArray(stream);
+                    }
+
+                    checkpoint.positions.put(startKey, position);
+                }
+            }
+            finally {
+                stream.close();
+            }
+        }
+        return checkpoint;
+    }
+
+    /**
+     * Gets the name of the file keeping the checkpoint of the copy.
+     *
+     * @param sourceServer The name of the cluster the table is copied from.
+     * @param sourceTable  The name of the table to copy from.
+     * @param targetTable  The name of the table to copy to.
+     * @return The file name.
+     */
+    public static String getFileName(String sourceServer, String sourceTable, String targetTable) {
+        return String.format("%s-%s-%s%s", sourceServer, sourceTable, targetTable, FILE_EXTENSION).replaceAll("[^\\w\\-.]", "_");
+    }
+
+    /**
+     * Gets the part of the region which has not been copied yet.
+     *
+     * @param region The range of keys of the region.
+     * @return The range of keys to copy or null if the region has already been copied.
+     */
+    public synchronized KeyRange getRemainingRange(KeyRange region) {
+        Position position = this.positions.get(region.getStartKey());
+        if (position == null || !Bytes.equals(position.stopKey, region.getStopKey())) {
+            return region;
+        }
+
+        if (position.done) {
+            return null;
+        }
+
+        if (position.lastKey == null) {
+            return region;
+        }
+
+        // The last row could be returned in parts and copied partially so it is copied again.
+        return new KeyRange(position.lastKey, region.getStopKey());
+    }
+
+    /**
+     * Records the key of the last row copied from the region and saves the checkpoint. The rows up to the key must be already written to
+     * the target table.
+     *
+     * @param region  The range of keys of the region.
+     * @param lastKey The key of the last copied row.
+     * @throws IOException Error writing the file.
+     */
+    public synchronized void update(KeyRange region, byte[] lastKey) throws IOException {
+        getPosition(region).lastKey = lastKey;
+        save();
+    }
+
+    /**
+     * Marks the region as copied and saves the checkpoint.
+     *
+     * @param region The range of keys of the region.
+     * @throws IOException Error writing the file.
+     */
+    public synchronized void complete(KeyRange region) throws IOException {
+        getPosition(region).done = true;
+        save();
+    }
+
+    /**
+     * Removes all the positions and deletes the file. Called when the copy has been completed or should start from the beginning.
+     */
+    public synchronized void clear() {
+        this.positions.clear();
+
+        if (this.file.exists() && !this.file.delete()) {
+            this.file.deleteOnExit();
+        }
+    }
+    //endregion
+
+    //region Private Methods
+
+    /**
+     * Gets the position of the copy in the region creating a new one if the region has not been recorded yet.
+     *
+     * @param region The range of keys of the region.
+     * @return The position.
+     */
+    private Position getPosition(KeyRange region) {
+        Position position = this.positions.get(region.getStartKey());
+        if (position == null || !Bytes.equals(position.stopKey, region.getStopKey())) {
+            position = new Position();
+            position.stopKey = region.getStopKey();
+
+            this.positions.put(region.getStartKey(), position);
+        }
+        return position;
+    }
+
+    /**
+     * Writes the positions to a temporary file and replaces the checkpoint file with it, so the interrupted write doesn't corrupt the
+     * checkpoint.
+     *
+     * @throws IOException Error writing the file.
+     */
+    private void save() throws IOException {
+        File folder = this.file.getAbsoluteFile().getParentFile();
+        if (!folder.exists() && !folder.mkdirs()) {
+            throw new IOException(String.format("Failed to create the '%s' folder.", folder.getPath()));
+        }
+
+        File temp = new File(folder, this.file.getName() + ".tmp");
+
+        DataOutputStream stream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+        try {
+            stream.writeInt(VERSION);
+            stream.writeInt(this.positions.size());
+
+            for (Map.Entry<byte[], Position> entry : this.positions.entrySet()) {
+                Position position = entry.getValue();
+
+                Bytes.writeByteArray(stream, entry.getKey());
+                Bytes.writeByteArray(stream, position.stopKey);
+                stream.writeBoolean(position.done);
+                stream.writeBoolean(position.lastKey != null);
+                if (position.lastKey != null) {
+                    Bytes.writeByteArray(stream, position.lastKey);
+                }
+            }
+        }
+        finally {
+            stream.close();
+        }
+
+        // File.renameTo doesn't replace an existing file on all the systems.
+        if (this.file.exists() && !this.file.delete() || !temp.renameTo(this.file)) {
+            throw new IOException(String.format("Failed to save the checkpoint file '%s'.", this.file.getPath()));
+        }
+    }
+    //endregion
+
+    /**
+     * Represents the position of the copy in a single region.
+     */
+    private static class Position {
+
+        //region Variables
+        /**
+         * The key the region stops before.
+         */
+        private byte[]  stopKey;
+        /**
+         * The key of the last copied row or null if no row has been copied yet.
+         */
+        private byte[]  lastKey;
+        /**
+         * Indicates whether the whole region has been copied.
+         */
+        private boolean done;
+        //endregion
+    }
+}
@@ -0,0 +1,129 @@
+package hrider.hbase;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents the progress of a table copy running in parallel over the regions of the source table. The progress is
+ *          reported each time the copy of a region is completed.
+ */
+public class CopyProgress {
+
+    //region Variables
+    /**
+     * The number of regions to copy.
+     */
+    private int      regionsCount;
+    /**
+     * The number of regions which have been copied.
+     */
+    private int      copiedRegions;
+    /**
+     * The number of rows which have been copied from all the regions.
+     */
+    private long     rowsNumber;
+    /**
+     * The range of keys of the region which has been copied last.
+     */
+    private KeyRange region;
+    /**
+     * The number of rows which have been copied from the last region.
+     */
+    private long     regionRows;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link CopyProgress} class.
+     *
+     * @param regionsCount The number of regions to copy.
+     */
+    public CopyProgress(int regionsCount) {
+        this.regionsCount = regionsCount;
+    }
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Gets the number of regions to copy.
+     *
+     * @return The number of regions.
+     */
+    public synchronized int getRegionsCount() {
+        return this.regionsCount;
+    }
+
+    /**
+     * Gets the number of regions which have been copied.
+     *
+     * @return The number of regions.
+     */
+    public synchronized int getCopiedRegions() {
+        return this.copiedRegions;
+    }
+
+    /**
+     * Gets the number of rows which have been copied from all the regions.
+     *
+     * @return The number of rows.
+     */
+    public synchronized long getRowsNumber() {
+        return this.rowsNumber;
+    }
+
+    /**
+     * Gets the range of keys of the region which has been copied last.
+     *
+     * @return The range of keys or null if no region has been copied yet.
+     */
+    public synchronized KeyRange getRegion() {
+        return this.region;
+    }
+
+    /**
+     * Gets the number of rows which have been copied from the last region.
+     *
+     * @return The number of rows.
+     */
+    public synchronized long getRegionRows() {
+        return this.regionRows;
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Records the completed copy of a region.
+     *
+     * @param region     The range of keys of the copied region.
+     * @param regionRows The number of rows copied from the region.
+     */
+    public synchronized void addRegion(KeyRange region, long regionRows) {
+        this.region = region;
+        this.regionRows = regionRows;
+        this.rowsNumber += regionRows;
+        this.copiedRegions++;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%d of %d regions, %d rows", this.copiedRegions, this.regionsCount, this.rowsNumber);
+    }
+    //endregion
+}
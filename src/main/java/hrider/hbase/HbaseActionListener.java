@@ -27,15 +27,16 @@ import org.apache.hadoop.hbase.client.Result;
 public interface HbaseActionListener {
 
     /**
-     * An event that is raised when a row is copied from one table to another.
+     * An event that is raised when a region of one table is copied to another. The regions are copied in parallel and the event is raised on
+     * the thread which started the copy.
      *
      * @param source      The name of the source machine.
      * @param sourceTable The name of the table to be copied from.
      * @param target      The name of the target machine.
      * @param targetTable The name of the table to be copied to.
-     * @param result      The row to be copied.
+     * @param progress    The progress of the copy including the region which has just been copied.
      */
-    void copyOperation(String source, String sourceTable, String target, String targetTable, Result result);
+    void copyOperation(String source, String sourceTable, String target, String targetTable, CopyProgress progress);
 
     /**
      * An event that is raised when a row is saved to the file.
@@ -0,0 +1,145 @@
+package hrider.hbase;
+
+import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.client.HTable;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.hbase.util.Pair;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents a range of row keys. The start key is inclusive and the stop key is exclusive. An empty key means
+ *          the beginning or the end of the table.
+ */
+public class KeyRange {
+
+    //region Variables
+    /**
+     * The first key of the range.
+     */
+    private byte[] startKey;
+    /**
+     * The key the range stops before.
+     */
+    private byte[] stopKey;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link KeyRange} class.
+     *
+     * @param startKey The first key of the range. This parameter can be null.
+     * @param stopKey  The key the range stops before. This parameter can be null.
+     */
+    public KeyRange(byte[] startKey, byte[] stopKey) {
+        this.startKey = startKey != null ? startKey : HConstants.EMPTY_START_ROW;
+        this.stopKey = stopKey != null ? stopKey : HConstants.EMPTY_END_ROW;
+    }
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Gets the first key of the range.
+     *
+     * @return The start key or an empty array if the range starts at the beginning of the table.
+     */
+    public byte[] getStartKey() {
+        return this.startKey;
+    }
+
+    /**
+     * Gets the key the range stops before.
+     *
+     * @return The stop key or an empty array if the range ends at the end of the table.
+     */
+    public byte[] getStopKey() {
+        return this.stopKey;
+    }
+
+    /**
+     * Checks whether the range doesn't contain any key.
+     *
+     * @return True if the range is empty or False otherwise.
+     */
+    public boolean isEmpty() {
+        return this.stopKey.length > 0 && Bytes.compareTo(this.startKey, this.stopKey) >= 0;
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Splits the specified range by the region boundaries of the table.
+     *
+     * @param table    The table which regions are used to split the range.
+     * @param startKey The first key of the range to split. This parameter can be null.
+     * @param stopKey  The key the range to split stops before. This parameter can be null.
+     * @return A list of ranges ordered by the keys. Each range is located within a single region.
+     * @throws IOException Error accessing hbase.
+     */
+    public static List<KeyRange> fromRegions(HTable table, byte[] startKey, byte[] stopKey) throws IOException {
+        KeyRange range = new KeyRange(startKey, stopKey);
+
+        List<KeyRange> ranges = new ArrayList<KeyRange>();
+
+        Pair<byte[][], byte[][]> keys = table.getStartEndKeys();
+        for (int i = 0 ; i < keys.getFirst().length ; i++) {
+            KeyRange intersection = range.intersect(new KeyRange(keys.getFirst()[i], keys.getSecond()[i]));
+            if (!intersection.isEmpty()) {
+                ranges.add(intersection);
+            }
+        }
+
+        return ranges;
+    }
+
+    /**
+     * Gets the keys shared by this range and the specified one.
+     *
+     * @param range The range to intersect with.
+     * @return A new range which may be empty.
+     */
+    public KeyRange intersect(KeyRange range) {
+        byte[] start = Bytes.compareTo(this.startKey, range.startKey) >= 0 ? this.startKey : range.startKey;
+
+        byte[] stop;
+        if (this.stopKey.length == 0) {
+            stop = range.stopKey;
+        }
+        else if (range.stopKey.length == 0) {
+            stop = this.stopKey;
+        }
+        else {
+            stop = Bytes.compareTo(this.stopKey, range.stopKey) <= 0 ? this.stopKey : range.stopKey;
+        }
+
+        return new KeyRange(start, stop);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[%s, %s)", Bytes.toStringBinary(this.startKey), Bytes.toStringBinary(this.stopKey));
+    }
+    //endregion
+}
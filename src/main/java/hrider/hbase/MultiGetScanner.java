@@ -0,0 +1,222 @@
+package hrider.hbase;
+
+import hrider.config.GlobalConfig;
+import org.apache.hadoop.hbase.client.*;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents a scanner returning the rows with the specified keys. The rows are requested from the region servers by the
+ *          batches of gets built from the settings of the scan, so only the requested rows are read. The keys outside of the range of the
+ *          scan are skipped. The rows which don't exist or are rejected by the filter of the scan are not returned.
+ */
+public class MultiGetScanner implements ResultScanner {
+
+    //region Variables
+    /**
+     * The table to get the rows from.
+     */
+    private HTable           table;
+    /**
+     * The scan which settings are applied to the gets.
+     */
+    private Scan             scan;
+    /**
+     * The keys of the rows to get in the order of the scan.
+     */
+    private Iterator<byte[]> keys;
+    /**
+     * The number of rows requested in a single call.
+     */
+    private int              batchSize;
+    /**
+     * The rows received by the last call which have not been returned yet.
+     */
+    private Queue<Result>    results;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link MultiGetScanner} class.
+     *
+     * @param table The table to get the rows from.
+     * @param scan  The scan which range, columns, time range and filter are applied to the rows.
+     * @param keys  The sorted list of the keys of the rows.
+     */
+    public MultiGetScanner(HTable table, Scan scan, List<byte[]> keys) {
+        this.table = table;
+        this.scan = scan;
+        this.batchSize = scan.getCaching() > 0 ? scan.getCaching() : GlobalConfig.instance().getBatchSizeForRead();
+        this.results = new LinkedList<Result>();
+
+        List<byte[]> scannedKeys = new ArrayList<byte[]>();
+        for (byte[] key : keys) {
+            if (isInRange(key)) {
+                scannedKeys.add(key);
+            }
+        }
+
+        if (scan.isReversed()) {
+            Collections.reverse(scannedKeys);
+        }
+
+        this.keys = scannedKeys.iterator();
+    }
+    //endregion
+
+    //region Public Methods
+
+    @Override
+    public Result next() throws IOException {
+        while (this.results.isEmpty() && this.keys.hasNext()) {
+            List<Get> gets = new ArrayList<Get>();
+            while (gets.size() < this.batchSize && this.keys.hasNext()) {
+                gets.add(createGet(this.keys.next()));
+            }
+
+            for (Result result : this.table.get(gets)) {
+                if (result != null && !result.isEmpty()) {
+                    this.results.add(result);
+                }
+            }
+        }
+        return this.results.poll();
+    }
+
+    @Override
+    public Result[] next(int nbRows) throws IOException {
+        List<Result> list = new ArrayList<Result>();
+
+        Result result = nbRows > 0 ? next() : null;
+        while (result != null) {
+            list.add(result);
+
+            result = list.size() < nbRows ? next() : null;
+        }
+        return list.toArray(new Result[list.size()]);
+    }
+
+    @Override
+    public void close() {
+        this.results.clear();
+        this.keys = Collections.<byte[]>emptyList().iterator();
+    }
+
+    @Override
+    public Iterator<Result> iterator() {
+        return new Iterator<Result>() {
+            private Result nextResult;
+
+            @Override
+            public boolean hasNext() {
+                if (this.nextResult == null) {
+                    try {
+                        this.nextResult = MultiGetScanner.this.next();
+                    }
+                    catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+                return this.nextResult != null;
+            }
+
+            @Override
+            public Result next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                Result result = this.nextResult;
+                this.nextResult = null;
+                return result;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+    //endregion
+
+    //region Private Methods
+
+    /**
+     * Checks whether the key is located within the range of the scan. The start row of the reversed scan is the upper bound of the range.
+     *
+     * @param key The key of the row.
+     * @return True if the row should be returned or False otherwise.
+     */
+    private boolean isInRange(byte[] key) {
+        byte[] lowerBound = this.scan.isReversed() ? this.scan.getStopRow() : this.scan.getStartRow();
+        byte[] upperBound = this.scan.isReversed() ? this.scan.getStartRow() : this.scan.getStopRow();
+
+        if (this.scan.isReversed()) {
+            // The start row of the reversed scan is inclusive and the stop row is exclusive.
+            return (lowerBound.length == 0 || Bytes.compareTo(key, lowerBound) > 0) &&
+                   (upperBound.length == 0 || Bytes.compareTo(key, upperBound) <= 0);
+        }
+
+        return Bytes.compareTo(key, lowerBound) >= 0 && (upperBound.length == 0 || Bytes.compareTo(key, upperBound) < 0);
+    }
+
+    /**
+     * Creates a get of the row with the columns, the time range, the versions and the filter of the scan.
+     *
+     * @param key The key of the row.
+     * @return A new get.
+     * @throws IOException Error creating the get.
+     */
+    private Get createGet(byte[] key) throws IOException {
+        Get get = new Get(key);
+
+        for (Map.Entry<byte[], NavigableSet<byte[]>> entry : this.scan.getFamilyMap().entrySet()) {
+            if (entry.getValue() == null || entry.getValue().isEmpty()) {
+                get.addFamily(entry.getKey());
+            }
+            else {
+                for (byte[] qualifier : entry.getValue()) {
+                    get.addColumn(entry.getKey(), qualifier);
+                }
+            }
+        }
+
+        get.setTimeRange(this.scan.getTimeRange().getMin(), this.scan.getTimeRange().getMax());
+        get.setMaxVersions(this.scan.getMaxVersions());
+        get.setCacheBlocks(this.scan.getCacheBlocks());
+
+        if (this.scan.getMaxResultsPerColumnFamily() > 0) {
+            get.setMaxResultsPerColumnFamily(this.scan.getMaxResultsPerColumnFamily());
+        }
+
+        if (this.scan.getRowOffsetPerColumnFamily() > 0) {
+            get.setRowOffsetPerColumnFamily(this.scan.getRowOffsetPerColumnFamily());
+        }
+
+        if (this.scan.getFilter() != null) {
+            get.setFilter(this.scan.getFilter());
+        }
+        return get;
+    }
+    //endregion
+}
@@ -0,0 +1,116 @@
+package hrider.hbase;
+
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents a sparse index of row offsets to row keys. The index is used to start a scan from the closest known key instead
+ *          of the beginning of the table when a specific row number is requested.
+ */
+public class OffsetIndex {
+
+    //region Variables
+    /**
+     * The number of rows between two checkpoints recorded while scanning over the table.
+     */
+    private long                       interval;
+    /**
+     * The map of checkpoints. The key is a zero based offset of the row and the value is the key of the row.
+     */
+    private NavigableMap<Long, byte[]> checkpoints;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link OffsetIndex} class.
+     *
+     * @param interval The number of rows between two checkpoints.
+     */
+    public OffsetIndex(long interval) {
+        this.interval = interval > 0 ? interval : 1;
+        this.checkpoints = new TreeMap<Long, byte[]>();
+    }
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Gets the number of rows between two checkpoints.
+     *
+     * @return The checkpoint interval.
+     */
+    public long getInterval() {
+        return this.interval;
+    }
+
+    /**
+     * Gets the number of recorded checkpoints.
+     *
+     * @return The number of checkpoints.
+     */
+    public synchronized int size() {
+        return this.checkpoints.size();
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Checks whether a row located at the specified offset should be recorded as a checkpoint.
+     *
+     * @param offset The zero based offset of the row.
+     * @return True if the row should be recorded or False otherwise.
+     */
+    public boolean isCheckpoint(long offset) {
+        return offset % this.interval == 0;
+    }
+
+    /**
+     * Records a checkpoint.
+     *
+     * @param offset The zero based offset of the row.
+     * @param key    The key of the row.
+     */
+    public synchronized void put(long offset, byte[] key) {
+        if (offset >= 0 && key != null) {
+            this.checkpoints.put(offset, key);
+        }
+    }
+
+    /**
+     * Gets the closest checkpoint located at or before the specified offset.
+     *
+     * @param offset The zero based offset of the row.
+     * @return A checkpoint or null if there are no checkpoints before the offset.
+     */
+    public synchronized Map.Entry<Long, byte[]> floor(long offset) {
+        return this.checkpoints.floorEntry(offset);
+    }
+
+    /**
+     * Removes all checkpoints.
+     */
+    public synchronized void clear() {
+        this.checkpoints.clear();
+    }
+    //endregion
+}
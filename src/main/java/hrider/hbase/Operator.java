@@ -23,20 +23,68 @@ import org.apache.hadoop.hbase.filter.CompareFilter;
  *          This enum represents an operator that is supported by the query on hbase.
  */
 public enum Operator {
-    Contains,
-    StartsWith,
-    EndsWith,
-    Less,
-    LessOrEqual,
-    Equal,
-    NotEqual,
-    GreaterOrEqual,
-    Greater,
-    IsNull,
-    IsNotNull;
+    Contains("contains"),
+    StartsWith("startsWith"),
+    EndsWith("endsWith"),
+    Like("like"),
+    Matches("matches"),
+    Less("<"),
+    LessOrEqual("<="),
+    Equal("="),
+    NotEqual("!="),
+    GreaterOrEqual(">="),
+    Greater(">"),
+    IsNull("isNull"),
+    IsNotNull("isNotNull");
+
+    //region Variables
+    /**
+     * The symbol representing the operator in the filter expressions.
+     */
+    private final String symbol;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link Operator} enum.
+     *
+     * @param symbol The symbol representing the operator in the filter expressions.
+     */
+    Operator(String symbol) {
+        this.symbol = symbol;
+    }
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Gets the symbol representing the operator in the filter expressions.
+     *
+     * @return The symbol of the operator.
+     */
+    public String getSymbol() {
+        return this.symbol;
+    }
+    //endregion
 
     //region Public Methods
 
+    /**
+     * Gets the operator represented by the symbol. The symbols of the word operators are case insensitive.
+     *
+     * @param symbol The symbol of the operator.
+     * @return The operator or null if there is no operator with such symbol.
+     */
+    public static Operator fromSymbol(String symbol) {
+        for (Operator operator : values()) {
+            if (operator.symbol.equalsIgnoreCase(symbol)) {
+                return operator;
+            }
+        }
+        return null;
+    }
+
     /**
      * Indicates if the operator is an unary operator.
      *
@@ -55,6 +103,8 @@ public enum Operator {
             case Contains:
             case StartsWith:
             case EndsWith:
+            case Like:
+            case Matches:
                 return CompareFilter.CompareOp.EQUAL;
             case Less:
                 return CompareFilter.CompareOp.LESS;
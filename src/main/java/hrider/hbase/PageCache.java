@@ -0,0 +1,273 @@
+package hrider.hbase;
+
+import hrider.data.ColumnQualifier;
+import hrider.data.ConvertibleObject;
+import hrider.data.DataRow;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents a cache of the loaded pages of rows shared by the scanners of the connection. The least recently used pages are
+ *          evicted once the estimated size of the cached rows exceeds the configured limit and the pages expire after the configured period of time.
+ */
+public class PageCache {
+
+    //region Variables
+    /**
+     * The maximum size of the cached rows in bytes.
+     */
+    private long                         maxSize;
+    /**
+     * The period of time in milliseconds a page can be taken from the cache.
+     */
+    private long                         timeToLive;
+    /**
+     * The estimated size of the cached rows in bytes.
+     */
+    private long                         size;
+    /**
+     * The cached pages ordered from the least recently used one.
+     */
+    private LinkedHashMap<String, Entry> entries;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link PageCache} class.
+     *
+     * @param maxSize    The maximum size of the cached rows in bytes. The cache is disabled if the size is not positive.
+     * @param timeToLive The period of time in milliseconds a page can be taken from the cache.
+     */
+    public PageCache(long maxSize, long timeToLive) {
+        this.maxSize = maxSize;
+        this.timeToLive = timeToLive;
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+    }
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Gets the estimated size of the cached rows.
+     *
+     * @return The size in bytes.
+     */
+    public synchronized long getSize() {
+        return this.size;
+    }
+
+    /**
+     * Gets the number of cached pages.
+     *
+     * @return The number of pages.
+     */
+    public synchronized int getPagesCount() {
+        return this.entries.size();
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Gets the cached page.
+     *
+     * @param key The key identifying the table, the query, the loaded columns and the position of the page.
+     * @return A cached page or null if the page is not cached or has expired.
+     */
+    public synchronized Entry get(String key) {
+        Entry entry = this.entries.get(key);
+        if (entry != null && System.currentTimeMillis() - entry.timestamp > this.timeToLive) {
+            remove(key);
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * Adds the page to the cache. The least recently used pages are evicted if the cache is full. The cache keeps a copy of the rows as the
+     * rows shown to the user can be edited or extended with more columns.
+     *
+     * @param tableName The name of the table the page has been loaded from.
+     * @param key       The key identifying the table, the query, the loaded columns and the position of the page.
+     * @param rows      The rows of the page.
+     * @param columns   The columns loaded from the rows.
+     * @param lastKey   The key of the last row of the page.
+     * @param pageSize  The estimated size of the rows in bytes.
+     */
+    public synchronized void put(
+        String tableName, String key, Collection<DataRow> rows, Collection<ColumnQualifier> columns, ConvertibleObject lastKey, long pageSize) {
+        if (this.maxSize <= 0 || pageSize > this.maxSize) {
+            return;
+        }
+
+        remove(key);
+
+        this.entries.put(key, new Entry(tableName, copyRows(rows), columns, lastKey, pageSize));
+        this.size += pageSize;
+
+        Iterator<Entry> iterator = this.entries.values().iterator();
+        while (this.size > this.maxSize && iterator.hasNext()) {
+            this.size -= iterator.next().size;
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Removes all the pages of the table. The pages become stale once the data of the table is changed.
+     *
+     * @param tableName The name of the table.
+     */
+    public synchronized void invalidate(String tableName) {
+        Iterator<Entry> iterator = this.entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.tableName.equals(tableName)) {
+                this.size -= entry.size;
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Removes all the pages.
+     */
+    public synchronized void clear() {
+        this.entries.clear();
+        this.size = 0;
+    }
+    //endregion
+
+    //region Private Methods
+
+    /**
+     * Removes the page from the cache.
+     *
+     * @param key The key of the page.
+     */
+    private void remove(String key) {
+        Entry entry = this.entries.remove(key);
+        if (entry != null) {
+            this.size -= entry.size;
+        }
+    }
+
+    /**
+     * Copies the rows of the page.
+     *
+     * @param rows The rows to copy.
+     * @return A list of copied rows.
+     */
+    private static Collection<DataRow> copyRows(Collection<DataRow> rows) {
+        Collection<DataRow> copies = new ArrayList<DataRow>(rows.size());
+        for (DataRow row : rows) {
+            copies.add(row.clone());
+        }
+        return copies;
+    }
+    //endregion
+
+    /**
+     * Represents a cached page of rows.
+     */
+    public static class Entry {
+
+        //region Variables
+        /**
+         * The name of the table the page has been loaded from.
+         */
+        private String                      tableName;
+        /**
+         * The rows of the page.
+         */
+        private Collection<DataRow>         rows;
+        /**
+         * The columns loaded from the rows.
+         */
+        private Collection<ColumnQualifier> columns;
+        /**
+         * The key of the last row of the page.
+         */
+        private ConvertibleObject           lastKey;
+        /**
+         * The estimated size of the rows in bytes.
+         */
+        private long                        size;
+        /**
+         * The time the page has been cached.
+         */
+        private long                        timestamp;
+        //endregion
+
+        //region Constructor
+
+        /**
+         * Initializes a new instance of the {@link Entry} class.
+         *
+         * @param tableName The name of the table the page has been loaded from.
+         * @param rows      The rows of the page.
+         * @param columns   The columns loaded from the rows.
+         * @param lastKey   The key of the last row of the page.
+         * @param size      The estimated size of the rows in bytes.
+         */
+        private Entry(String tableName, Collection<DataRow> rows, Collection<ColumnQualifier> columns, ConvertibleObject lastKey, long size) {
+            this.tableName = tableName;
+            this.rows = rows;
+            this.columns = columns;
+            this.lastKey = lastKey;
+            this.size = size;
+            this.timestamp = System.currentTimeMillis();
+        }
+        //endregion
+
+        //region Public Properties
+
+        /**
+         * Gets a copy of the rows of the page. The cached rows are not affected by the changes of the returned rows.
+         *
+         * @return A list of rows.
+         */
+        public Collection<DataRow> getRows() {
+            return copyRows(this.rows);
+        }
+
+        /**
+         * Gets the columns loaded from the rows.
+         *
+         * @return A list of columns.
+         */
+        public Collection<ColumnQualifier> getColumns() {
+            return this.columns;
+        }
+
+        /**
+         * Gets the key of the last row of the page.
+         *
+         * @return The key of the last row.
+         */
+        public ConvertibleObject getLastKey() {
+            return this.lastKey;
+        }
+        //endregion
+    }
+}
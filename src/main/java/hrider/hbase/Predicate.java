@@ -0,0 +1,70 @@
+package hrider.hbase;
+
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.filter.Filter;
+
+import java.util.Collection;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents a node of the tree of conditions the rows returned from the hbase should satisfy. The tree is compiled into
+ *          a single filter evaluated on the region servers.
+ */
+public abstract class Predicate {
+
+    //region Public Methods
+
+    /**
+     * Compiles the predicate into a filter. The filter returns at least all the rows matching the predicate.
+     *
+     * @return A filter to be used in the scan or null if the predicate can be checked on the client only.
+     */
+    public abstract Filter toFilter();
+
+    /**
+     * Checks if the filter returned by the {@link Predicate#toFilter()} method returns exactly the rows matching the predicate.
+     *
+     * @return True if the filter is exact or False if the rows should be checked on the client with the {@link Predicate#matches(Result)} method.
+     */
+    public abstract boolean isExact();
+
+    /**
+     * Checks if the row matches the predicate.
+     *
+     * @param row The row to check.
+     * @return True if the row matches the predicate or False otherwise.
+     */
+    public abstract boolean matches(Result row);
+
+    /**
+     * Describes the filters the predicate is compiled into and the conditions checked on the client.
+     *
+     * @param builder The builder to append the description to. This is the output parameter.
+     * @param indent  The indentation of the description.
+     */
+    public abstract void explain(StringBuilder builder, String indent);
+
+    /**
+     * Collects the conditions on the columns the predicate consists of.
+     *
+     * @param predicates The collection to add the conditions to. This is the output parameter.
+     */
+    public abstract void collectColumnPredicates(Collection<ColumnPredicate> predicates);
+    //endregion
+}
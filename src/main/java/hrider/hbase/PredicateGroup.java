@@ -0,0 +1,249 @@
+package hrider.hbase;
+
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.filter.Filter;
+import org.apache.hadoop.hbase.filter.FilterList;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents a group of predicates joined by a logical conjunction. The group is compiled into a {@link FilterList}.
+ */
+public class PredicateGroup extends Predicate {
+
+    //region Variables
+    /**
+     * The conjunction joining the predicates.
+     */
+    private Conjunction     conjunction;
+    /**
+     * The predicates of the group.
+     */
+    private List<Predicate> predicates;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link PredicateGroup} class.
+     *
+     * @param conjunction The conjunction joining the predicates.
+     */
+    public PredicateGroup(Conjunction conjunction) {
+        this.conjunction = conjunction;
+        this.predicates = new ArrayList<Predicate>();
+    }
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Gets the conjunction joining the predicates.
+     *
+     * @return The conjunction.
+     */
+    public Conjunction getConjunction() {
+        return this.conjunction;
+    }
+
+    /**
+     * Gets the predicates of the group.
+     *
+     * @return A list of predicates.
+     */
+    public List<Predicate> getPredicates() {
+        return this.predicates;
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Adds a predicate to the group.
+     *
+     * @param predicate The predicate to add.
+     */
+    public void add(Predicate predicate) {
+        this.predicates.add(predicate);
+    }
+
+    /**
+     * Compiles the group into a filter list. The predicates which can be checked on the client only are left out of the AND groups and turn
+     * the OR groups into the client side check as a whole.
+     *
+     * @return A filter to be used in the scan or null if the group can be checked on the client only.
+     */
+    @Override
+    public Filter toFilter() {
+        List<Filter> filters = new ArrayList<Filter>();
+        for (Predicate predicate : this.predicates) {
+            Filter filter = predicate.toFilter();
+            if (filter != null) {
+                filters.add(filter);
+            }
+            else if (this.conjunction == Conjunction.Or) {
+                return null;
+            }
+        }
+
+        if (filters.isEmpty()) {
+            return null;
+        }
+
+        if (filters.size() == 1) {
+            return filters.get(0);
+        }
+
+        return new FilterList(this.conjunction == Conjunction.And ? FilterList.Operator.MUST_PASS_ALL : FilterList.Operator.MUST_PASS_ONE, filters);
+    }
+
+    /**
+     * Checks if the filter list returned by the {@link PredicateGroup#toFilter()} method returns exactly the rows matching the group.
+     *
+     * @return True if the filters of all the predicates are exact or False otherwise.
+     */
+    @Override
+    public boolean isExact() {
+        for (Predicate predicate : this.predicates) {
+            if (!predicate.isExact()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if the row matches the group.
+     *
+     * @param row The row to check.
+     * @return True if the row matches the group or False otherwise.
+     */
+    @Override
+    public boolean matches(Result row) {
+        for (Predicate predicate : this.predicates) {
+            boolean isMatch = predicate.matches(row);
+            if (this.conjunction == Conjunction.And && !isMatch) {
+                return false;
+            }
+
+            if (this.conjunction == Conjunction.Or && isMatch) {
+                return true;
+            }
+        }
+        return this.conjunction == Conjunction.And;
+    }
+
+    /**
+     * Describes the filter list the group is compiled into followed by the descriptions of the predicates of the group.
+     *
+     * @param builder The builder to append the description to. This is the output parameter.
+     * @param indent  The indentation of the description.
+     */
+    @Override
+    public void explain(StringBuilder builder, String indent) {
+        builder.append(indent);
+        builder.append(this.conjunction.getSymbol());
+
+        if (toFilter() == null) {
+            builder.append(" (client check)");
+        }
+        builder.append('\n');
+
+        for (Predicate predicate : this.predicates) {
+            predicate.explain(builder, indent + "    ");
+        }
+    }
+
+    /**
+     * Collects the conditions on the columns of all the predicates of the group.
+     *
+     * @param predicates The collection to add the conditions to. This is the output parameter.
+     */
+    @Override
+    public void collectColumnPredicates(Collection<ColumnPredicate> predicates) {
+        for (Predicate predicate : this.predicates) {
+            predicate.collectColumnPredicates(predicates);
+        }
+    }
+
+    /**
+     * Gets the group represented as a filter expression.
+     *
+     * @return A filter expression.
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+
+        for (Predicate predicate : this.predicates) {
+            if (builder.length() > 0) {
+                builder.append(' ');
+                builder.append(this.conjunction.getSymbol());
+                builder.append(' ');
+            }
+
+            if (predicate instanceof PredicateGroup) {
+                builder.append('(');
+                builder.append(predicate);
+                builder.append(')');
+            }
+            else {
+                builder.append(predicate);
+            }
+        }
+        return builder.toString();
+    }
+    //endregion
+
+    /**
+     * Represents a logical conjunction of the predicates.
+     */
+    public enum Conjunction {
+        And("AND"),
+        Or("OR");
+
+        //region Variables
+        /**
+         * The symbol representing the conjunction in the filter expressions.
+         */
+        private final String symbol;
+        //endregion
+
+        //region Constructor
+        Conjunction(String symbol) {
+            this.symbol = symbol;
+        }
+        //endregion
+
+        //region Public Properties
+
+        /**
+         * Gets the symbol representing the conjunction in the filter expressions.
+         *
+         * @return The symbol of the conjunction.
+         */
+        public String getSymbol() {
+            return this.symbol;
+        }
+        //endregion
+    }
+}
@@ -0,0 +1,406 @@
+package hrider.hbase;
+
+import hrider.data.ColumnQualifier;
+import hrider.data.ColumnType;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents a parser of the filter expressions. The expression consists of the conditions on the columns and on the row
+ *          key joined by AND and OR and grouped by parentheses, for example: <code>cf:a = 'x' AND (cf:b startsWith 'y' OR key &gt;= '100')</code>.
+ *          AND has a higher precedence than OR. The words are converted to bytes according to the types of the columns they are compared with.
+ *          The <code>like</code> operator matches the beginning of the value against a pattern where each '?' matches exactly one byte, for example:
+ *          <code>key like '????-2013'</code>.
+ */
+public class PredicateParser {
+
+    //region Constants
+    /**
+     * The operand representing the row key in the expressions.
+     */
+    public static final String KEY_OPERAND      = ColumnQualifier.KEY.getName();
+    /**
+     * The characters which cannot be a part of a word without quotes.
+     */
+    private static final String SPECIAL_CHARS   = "()'=!<>";
+    private static final char   QUOTE           = '\'';
+    //endregion
+
+    //region Variables
+    /**
+     * The map of column types used to convert the words. The key is the full name of the column.
+     */
+    private Map<String, ColumnType> columnTypes;
+    /**
+     * The tokens of the expression being parsed.
+     */
+    private List<Token>             tokens;
+    /**
+     * The index of the current token.
+     */
+    private int                     position;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link PredicateParser} class.
+     *
+     * @param columnTypes The map of column types used to convert the words. The key is the full name of the column.
+     */
+    public PredicateParser(Map<String, ColumnType> columnTypes) {
+        this.columnTypes = columnTypes;
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Parses the filter expression.
+     *
+     * @param expression The expression to parse.
+     * @return A predicate or null if the expression is empty.
+     * @throws ParseException The expression is not valid.
+     */
+    public Predicate parse(String expression) throws ParseException {
+        this.tokens = tokenize(expression);
+        this.position = 0;
+
+        if (this.tokens.isEmpty()) {
+            return null;
+        }
+
+        Predicate predicate = parseOr();
+
+        if (this.position < this.tokens.size()) {
+            Token token = this.tokens.get(this.position);
+            throw new ParseException(String.format("Unexpected '%s' at position %d.", token.text, token.offset + 1), token.offset);
+        }
+
+        return predicate;
+    }
+
+    /**
+     * Puts the value in quotes if it cannot be parsed as a single word otherwise.
+     *
+     * @param value The value to quote.
+     * @return The value which can be used in the filter expressions.
+     */
+    public static String quote(String value) {
+        boolean isWord = !value.isEmpty();
+        for (int i = 0 ; i < value.length() && isWord ; i++) {
+            isWord = !isSeparator(value.charAt(i));
+        }
+
+        if (isWord) {
+            return value;
+        }
+        return QUOTE + value.replace(String.valueOf(QUOTE), String.valueOf(QUOTE) + QUOTE) + QUOTE;
+    }
+    //endregion
+
+    //region Private Methods
+
+    /**
+     * Parses the predicates joined by OR.
+     *
+     * @return A predicate.
+     * @throws ParseException The expression is not valid.
+     */
+    private Predicate parseOr() throws ParseException {
+        Predicate predicate = parseAnd();
+        if (!isKeyword(PredicateGroup.Conjunction.Or)) {
+            return predicate;
+        }
+
+        PredicateGroup group = new PredicateGroup(PredicateGroup.Conjunction.Or);
+        group.add(predicate);
+
+        while (isKeyword(PredicateGroup.Conjunction.Or)) {
+            this.position++;
+            group.add(parseAnd());
+        }
+        return group;
+    }
+
+    /**
+     * Parses the predicates joined by AND.
+     *
+     * @return A predicate.
+     * @throws ParseException The expression is not valid.
+     */
+    private Predicate parseAnd() throws ParseException {
+        Predicate predicate = parseFactor();
+        if (!isKeyword(PredicateGroup.Conjunction.And)) {
+            return predicate;
+        }
+
+        PredicateGroup group = new PredicateGroup(PredicateGroup.Conjunction.And);
+        group.add(predicate);
+
+        while (isKeyword(PredicateGroup.Conjunction.And)) {
+            this.position++;
+            group.add(parseFactor());
+        }
+        return group;
+    }
+
+    /**
+     * Parses a single condition or a group of predicates in parentheses.
+     *
+     * @return A predicate.
+     * @throws ParseException The expression is not valid.
+     */
+    private Predicate parseFactor() throws ParseException {
+        Token token = next("a condition");
+
+        if (!token.quoted && "(".equals(token.text)) {
+            Predicate predicate = parseOr();
+
+            Token closing = next("')'");
+            if (closing.quoted || !")".equals(closing.text)) {
+                throw new ParseException(String.format("')' is expected at position %d.", closing.offset + 1), closing.offset);
+            }
+            return predicate;
+        }
+
+        return parseCondition(token);
+    }
+
+    /**
+     * Parses a condition on a column or on the row key.
+     *
+     * @param operand The token of the column the condition is on.
+     * @return A predicate.
+     * @throws ParseException The expression is not valid.
+     */
+    private Predicate parseCondition(Token operand) throws ParseException {
+        String family = null;
+        String column = null;
+        ColumnType wordType;
+
+        if (!operand.quoted && KEY_OPERAND.equalsIgnoreCase(operand.text)) {
+            wordType = getColumnType(ColumnQualifier.KEY.getName(), ColumnType.BinaryString);
+        }
+        else {
+            int separator = operand.text.indexOf(':');
+            if (separator <= 0) {
+                throw new ParseException(
+                    String.format("The column '%s' at position %d must be in the family:column form.", operand.text, operand.offset + 1),
+                    operand.offset);
+            }
+
+            family = operand.text.substring(0, separator);
+            column = operand.text.substring(separator + 1);
+            wordType = getColumnType(operand.text, ColumnType.String);
+        }
+
+        Token token = next("an operator");
+
+        Operator operator = token.quoted ? null : Operator.fromSymbol(token.text);
+        if (operator == null) {
+            throw new ParseException(String.format("Unknown operator '%s' at position %d.", token.text, token.offset + 1), token.offset);
+        }
+
+        if (operator.isUnary()) {
+            if (family == null) {
+                throw new ParseException(String.format("The row key cannot be checked for null at position %d.", token.offset + 1), token.offset);
+            }
+            return new ColumnPredicate(family, column, operator, null, wordType);
+        }
+
+        Token word = next("a word");
+        if (!word.quoted && isSeparator(word.text.charAt(0))) {
+            throw new ParseException(String.format("A word is expected at position %d.", word.offset + 1), word.offset);
+        }
+
+        try {
+            wordType.toBytes(word.text);
+        }
+        catch (RuntimeException e) {
+            throw new ParseException(
+                String.format("The word '%s' at position %d cannot be converted to %s.", word.text, word.offset + 1, wordType), word.offset);
+        }
+
+        if (operator == Operator.Matches) {
+            try {
+                Pattern.compile(word.text);
+            }
+            catch (PatternSyntaxException e) {
+                throw new ParseException(
+                    String.format("The word '%s' at position %d is not a valid regular expression: %s", word.text, word.offset + 1,
+                        e.getDescription()), word.offset);
+            }
+        }
+
+        return new ColumnPredicate(family, column, operator, word.text, wordType);
+    }
+
+    /**
+     * Checks if the current token is the keyword of the conjunction.
+     *
+     * @param conjunction The conjunction to check.
+     * @return True if the current token is the keyword of the conjunction or False otherwise.
+     */
+    private boolean isKeyword(PredicateGroup.Conjunction conjunction) {
+        if (this.position < this.tokens.size()) {
+            Token token = this.tokens.get(this.position);
+            return !token.quoted && conjunction.getSymbol().equalsIgnoreCase(token.text);
+        }
+        return false;
+    }
+
+    /**
+     * Gets the current token and moves to the next one.
+     *
+     * @param expected The description of the expected token used in the error message.
+     * @return The current token.
+     * @throws ParseException The expression has ended.
+     */
+    private Token next(String expected) throws ParseException {
+        if (this.position >= this.tokens.size()) {
+            int offset = this.tokens.isEmpty() ? 0 : this.tokens.get(this.tokens.size() - 1).offset;
+            throw new ParseException(String.format("The expression has ended while %s is expected.", expected), offset);
+        }
+        return this.tokens.get(this.position++);
+    }
+
+    /**
+     * Gets the type of the column.
+     *
+     * @param columnName  The full name of the column.
+     * @param defaultType The type to use if the type of the column is not known.
+     * @return The type of the column.
+     */
+    private ColumnType getColumnType(String columnName, ColumnType defaultType) {
+        ColumnType columnType = this.columnTypes != null ? this.columnTypes.get(columnName) : null;
+        return columnType != null ? columnType : defaultType;
+    }
+
+    /**
+     * Splits the expression into tokens.
+     *
+     * @param expression The expression to split.
+     * @return A list of tokens.
+     * @throws ParseException The expression contains a quote which is not closed.
+     */
+    private static List<Token> tokenize(String expression) throws ParseException {
+        List<Token> tokens = new ArrayList<Token>();
+
+        int index = 0;
+        while (index < expression.length()) {
+            char ch = expression.charAt(index);
+
+            if (Character.isWhitespace(ch)) {
+                index++;
+            }
+            else if (ch == QUOTE) {
+                StringBuilder builder = new StringBuilder();
+
+                int start = index++;
+                boolean closed = false;
+
+                while (index < expression.length() && !closed) {
+                    ch = expression.charAt(index++);
+                    if (ch == QUOTE) {
+                        if (index < expression.length() && expression.charAt(index) == QUOTE) {
+                            builder.append(QUOTE);
+                            index++;
+                        }
+                        else {
+                            closed = true;
+                        }
+                    }
+                    else {
+                        builder.append(ch);
+                    }
+                }
+
+                if (!closed) {
+                    throw new ParseException(String.format("The quote at position %d is not closed.", start + 1), start);
+                }
+                tokens.add(new Token(builder.toString(), start, true));
+            }
+            else if (ch == '(' || ch == ')') {
+                tokens.add(new Token(String.valueOf(ch), index++, false));
+            }
+            else if ("=!<>".indexOf(ch) >= 0) {
+                int start = index++;
+                if (index < expression.length() && expression.charAt(index) == '=') {
+                    index++;
+                }
+                tokens.add(new Token(expression.substring(start, index), start, false));
+            }
+            else {
+                int start = index;
+                while (index < expression.length() && !isSeparator(expression.charAt(index))) {
+                    index++;
+                }
+                tokens.add(new Token(expression.substring(start, index), start, false));
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Checks if the character ends a word without quotes.
+     *
+     * @param ch The character to check.
+     * @return True if the character ends a word or False otherwise.
+     */
+    private static boolean isSeparator(char ch) {
+        return Character.isWhitespace(ch) || SPECIAL_CHARS.indexOf(ch) >= 0;
+    }
+    //endregion
+
+    /**
+     * Represents a token of the expression.
+     */
+    private static class Token {
+
+        //region Variables
+        /**
+         * The text of the token. The quotes are removed from the quoted tokens.
+         */
+        private String  text;
+        /**
+         * The zero based offset of the token in the expression.
+         */
+        private int     offset;
+        /**
+         * Indicates if the token is quoted. The quoted tokens are never treated as keywords or operators.
+         */
+        private boolean quoted;
+        //endregion
+
+        //region Constructor
+        private Token(String text, int offset, boolean quoted) {
+            this.text = text;
+            this.offset = offset;
+            this.quoted = quoted;
+        }
+        //endregion
+    }
+}
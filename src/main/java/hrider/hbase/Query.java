@@ -76,6 +76,10 @@ public class Query {
      * The type of the word.
      */
     private ColumnType wordType;
+    /**
+     * The tree of additional conditions the rows should satisfy.
+     */
+    private Predicate  predicate;
     //endregion
 
     //region Public Properties
@@ -349,5 +353,35 @@ public class Query {
     public void setWordType(ColumnType wordType) {
         this.wordType = wordType;
     }
+
+    /**
+     * Gets the condition on the column defined by the family, the column, the operator and the word of the query.
+     *
+     * @return A predicate or null if the query doesn't have a condition on the column.
+     */
+    public ColumnPredicate getColumnPredicate() {
+        if (this.word != null || this.operator != null && this.operator.isUnary()) {
+            return new ColumnPredicate(this.family, this.column, this.operator, this.word, this.wordType);
+        }
+        return null;
+    }
+
+    /**
+     * Gets the tree of additional conditions the rows should satisfy. The conditions are joined with the condition on the column by AND.
+     *
+     * @return A predicate or null if there are no additional conditions.
+     */
+    public Predicate getPredicate() {
+        return this.predicate;
+    }
+
+    /**
+     * Sets a new tree of additional conditions.
+     *
+     * @param predicate A new predicate to set.
+     */
+    public void setPredicate(Predicate predicate) {
+        this.predicate = predicate;
+    }
     //endregion
 }
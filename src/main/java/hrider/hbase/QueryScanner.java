@@ -1,12 +1,20 @@
 package hrider.hbase;
 
+import hrider.config.GlobalConfig;
+import org.apache.hadoop.hbase.client.HTable;
 import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
 import org.apache.hadoop.hbase.client.Scan;
 import org.apache.hadoop.hbase.filter.*;
 import org.apache.hadoop.hbase.util.Bytes;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Copyright (C) 2012 NICE Systems ltd.
@@ -35,14 +43,30 @@ public class QueryScanner extends Scanner {
      * A constant representing a size of the unicode character.
      */
     private static final int    UNICODE_CHAR_SIZE = 4;
-    private static final byte[] EMPTY_BYTES_ARRAY = new byte[0];
+    /**
+     * The number of bytes in a megabyte.
+     */
+    private static final long   MEGABYTE          = 1024L * 1024L;
     //endregion
 
     //region Variables
     /**
      * A query to be used with he scanner.
      */
-    private Query query;
+    private Query                 query;
+    /**
+     * The conditions of the query used by the last created scan. The conditions which cannot be evaluated by the region servers are checked
+     * on the loaded rows.
+     */
+    private volatile Predicate    predicate;
+    /**
+     * The description of the local index of the column values used by the last created scan or null if no index has been used.
+     */
+    private volatile String       indexUsage;
+    /**
+     * The keys of the rows found in the local index of the column values by the last created scan or null if no index has been used.
+     */
+    private volatile List<byte[]> indexKeys;
     //endregion
 
     //region Constructor
@@ -84,6 +108,87 @@ public class QueryScanner extends Scanner {
         }
         this.query = query;
     }
+
+    /**
+     * Gets the maximum number of columns loaded for each row at once. The rows are loaded as a whole if the query has conditions checked on
+     * the client as the columns they depend on could be located beyond the loaded columns.
+     *
+     * @return The number of columns or 0 if all the columns of the row are loaded.
+     */
+    @Override
+    public int getColumnsWindow() {
+        Query localQuery = this.query;
+        if (localQuery != null) {
+            Predicate localPredicate = createPredicate(localQuery);
+            if (localPredicate != null && !localPredicate.isExact()) {
+                return 0;
+            }
+        }
+        return super.getColumnsWindow();
+    }
+
+    /**
+     * Estimates the cost of running the query: the regions covering the scanned key range, the region servers hosting them and the size of
+     * their data.
+     *
+     * @return The estimated cost of the scan.
+     * @throws IOException Error accessing hbase.
+     */
+    public ScanCost getScanCost() throws IOException {
+        Scan scan = getScanner();
+        return getConnection().getScanCost(getTableName(), scan.getStartRow(), scan.getStopRow());
+    }
+
+    /**
+     * Describes how the query is executed: the range of the scanned keys, the regions and the region servers touched by the scan, the
+     * estimated size of the scanned data, the filters evaluated by the region servers and the conditions checked on the client.
+     *
+     * @return A description of the scan plan.
+     * @throws IOException Error accessing hbase.
+     */
+    public String explain() throws IOException {
+        Scan scan = getScanner();
+
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("table: %s\n", getTableName()));
+        builder.append(
+            String.format(
+                "start row: %s\n", scan.getStartRow().length == 0 ? "beginning of the table" : Bytes.toStringBinary(scan.getStartRow())));
+        builder.append(
+            String.format("stop row: %s\n", scan.getStopRow().length == 0 ? "end of the table" : Bytes.toStringBinary(scan.getStopRow())));
+
+        if (this.query != null && this.query.getStartDate() != null && this.query.getEndDate() != null) {
+            builder.append(String.format("time range: %s - %s\n", this.query.getStartDate(), this.query.getEndDate()));
+        }
+
+        ScanCost cost = getConnection().getScanCost(getTableName(), scan.getStartRow(), scan.getStopRow());
+        builder.append(String.format("regions: %d of %d\n", cost.getRegionsCount(), cost.getTableRegionsCount()));
+        builder.append(String.format("region servers: %s\n", cost.getServers()));
+        builder.append(String.format("estimated size: %d MB\n", cost.getSize() / MEGABYTE));
+
+        if (cost.isFullScan()) {
+            builder.append("warning: the query scans the whole table\n");
+        }
+
+        String localIndexUsage = this.indexUsage;
+        if (localIndexUsage != null) {
+            builder.append(String.format("value index: %s\n", localIndexUsage));
+        }
+
+        Predicate localPredicate = this.predicate;
+        if (localPredicate == null) {
+            builder.append("filters: none\n");
+        }
+        else {
+            builder.append("filters:\n");
+            localPredicate.explain(builder, "    ");
+
+            if (!localPredicate.isExact()) {
+                builder.append("the rows returned by the region servers are checked against the query on the client\n");
+            }
+        }
+        return builder.toString();
+    }
     //endregion
 
     //region Protected Methods
@@ -99,6 +204,8 @@ public class QueryScanner extends Scanner {
         Scan scan = super.getScanner();
 
         if (this.query != null) {
+            this.indexKeys = null;
+
             if (this.query.getStartKey() != null) {
                 scan.setStartRow(this.query.getStartKey());
             }
@@ -107,77 +214,281 @@ public class QueryScanner extends Scanner {
                 scan.setStopRow(padWithMaxUnicode(this.query.getEndKey()));
             }
 
+            Predicate localPredicate = createPredicate(this.query);
+            if (localPredicate != null) {
+                narrowKeyRange(scan, localPredicate);
+
+                // The conditions are evaluated by the region servers where possible. The conditions which cannot be compiled into the filters
+                // exactly are checked again by the isValidRow method.
+                Filter filter = localPredicate.toFilter();
+                if (filter != null) {
+                    scan.setFilter(filter);
+                }
+            }
+            this.predicate = localPredicate;
+            this.indexUsage = localPredicate != null ? applyValueIndex(scan, localPredicate) : null;
+
             if (this.query.getStartDate() != null && this.query.getEndDate() != null) {
                 scan.setTimeRange(this.query.getStartDate().getTime(), this.query.getEndDate().getTime());
             }
+        }
+
+        return scan;
+    }
+
+    /**
+     * Gets the description of the query restricting the scan. The description includes the key range, the time range and the filters the
+     * conditions are compiled into.
+     *
+     * @return A description of the query or an empty string if the query is not set.
+     */
+    @Override
+    protected String getQueryKey() {
+        Query localQuery = this.query;
+        if (localQuery == null) {
+            return "";
+        }
+
+        StringBuilder builder = new StringBuilder();
+        builder.append(localQuery.getStartKey() != null ? Bytes.toStringBinary(localQuery.getStartKey()) : "").append('|');
+        builder.append(localQuery.getEndKey() != null ? Bytes.toStringBinary(localQuery.getEndKey()) : "").append('|');
+
+        if (localQuery.getStartDate() != null && localQuery.getEndDate() != null) {
+            builder.append(localQuery.getStartDate().getTime()).append('-').append(localQuery.getEndDate().getTime());
+        }
+        builder.append('|');
+
+        Predicate localPredicate = createPredicate(localQuery);
+        if (localPredicate != null) {
+            localPredicate.explain(builder, "");
+        }
+        return builder.toString();
+    }
 
-            if (this.query.getWord() != null || this.query.getOperator().isUnary()) {
-                RegexStringComparator comparator=null;
-                BinaryComparator bComparator=null;
-
-                switch (this.query.getOperator()) {
-                    case Contains:
-                        comparator = new RegexStringComparator(String.format(".*%s.*", this.query.getWord()));
-
-                        //comparator = new RegexStringComparator(this.query.getWord());
-                        //scan.setBatch(1);
-                        break;
-                    case StartsWith:
-                        comparator = new RegexStringComparator(String.format("^%s.*", this.query.getWord()));
-                        break;
-                    case EndsWith:
-                        comparator = new RegexStringComparator(String.format(".*%s$", this.query.getWord()));
-                        break;
-                    case Less:
-                    case LessOrEqual:
-                    case Equal:
-                    case NotEqual:
-                    case GreaterOrEqual:
-                    case Greater:
-                        bComparator = new BinaryComparator(this.query.getWordAsByteArray());
-                        break;
-                    case IsNull:
-                    case IsNotNull:
-                        bComparator = new BinaryComparator(EMPTY_BYTES_ARRAY);
-                        break;
-                    default:
-                        throw new IllegalArgumentException(String.format("The specified operator type '%s' is not supported.", this.query.getOperator()));
+    /**
+     * Checks if the scanner is restricted by a query.
+     *
+     * @return True if the query is set or False otherwise.
+     */
+    @Override
+    protected boolean hasQuery() {
+        return this.query != null;
+    }
+
+    /**
+     * Gets the columns to be loaded with the rows. The columns used by the query are always loaded as they are required to evaluate the
+     * filters and to validate the rows.
+     *
+     * @return A set of column names or null if all the columns are loaded.
+     */
+    @Override
+    protected Set<String> getProjectedColumns() {
+        Set<String> columns = super.getProjectedColumns();
+
+        Query localQuery = this.query;
+        if (columns != null && localQuery != null) {
+            if (localQuery.getWord() != null) {
+                columns.add(getColumnKey(localQuery.getFamily(), Bytes.toBytesBinary(localQuery.getColumn())));
+            }
+
+            if (localQuery.getPredicate() != null) {
+                Collection<ColumnPredicate> predicates = new ArrayList<ColumnPredicate>();
+                localQuery.getPredicate().collectColumnPredicates(predicates);
+
+                for (ColumnPredicate predicate : predicates) {
+                    if (!predicate.isKey()) {
+                        columns.add(getColumnKey(predicate.getFamily(), Bytes.toBytesBinary(predicate.getColumn())));
+                    }
                 }
-                if (comparator!=null)
-                    scan.setFilter(
-                        new SingleColumnValueFilter(
-                            Bytes.toBytesBinary(this.query.getFamily()), Bytes.toBytesBinary(this.query.getColumn()), this.query.getOperator().toFilter(),
-                            comparator));
-                else if (bComparator!=null)
-                    scan.setFilter(
-                            new SingleColumnValueFilter(
-                                    Bytes.toBytesBinary(this.query.getFamily()), Bytes.toBytesBinary(this.query.getColumn()), this.query.getOperator().toFilter(),
-                                    bComparator));
             }
         }
-
-        return scan;
+        return columns;
     }
 
     /**
      * Checks if the row is valid according to the query. If a query is done on a specific column and the row does not contain this column the row
-     * is considered invalid.
+     * is considered invalid. The conditions which cannot be evaluated by the region servers, such as the range conditions on the negative numbers,
+     * are checked on the values decoded according to their types.
      *
      * @param row The row to check.
-     * @return True if the query doesn't have a specific column or a row contains the column used with the query or False otherwise.
+     * @return True if the row satisfies the query or False otherwise.
      */
     @Override
     protected boolean isValidRow(Result row) {
         Query localQuery = this.query;
-        if (localQuery != null && localQuery.getWord() != null) {
-            return row.containsColumn(Bytes.toBytesBinary(localQuery.getFamily()), Bytes.toBytesBinary(localQuery.getColumn()));
+
+        // In the wide row mode the column could be located beyond the loaded columns. The rows without the column are filtered out by the
+        // region servers anyway. The wide row mode is not used for the queries with conditions checked on the client.
+        if (getColumnsWindow() != 0) {
+            return true;
+        }
+
+        if (localQuery != null && localQuery.getWord() != null &&
+            !row.containsColumn(Bytes.toBytesBinary(localQuery.getFamily()), Bytes.toBytesBinary(localQuery.getColumn()))) {
+            return false;
         }
-        return true;
+
+        Predicate localPredicate = this.predicate;
+        return localPredicate == null || localPredicate.isExact() || localPredicate.matches(row);
+    }
+
+    /**
+     * Opens the hbase scanner for the scan. If the scan has been restricted by the local index of the column values the rows found in the
+     * index are read with batched gets.
+     *
+     * @param table The table to scan.
+     * @param scan  The settings of the scan.
+     * @return An hbase scanner.
+     * @throws IOException Error accessing hbase.
+     */
+    @Override
+    protected ResultScanner openScanner(HTable table, Scan scan) throws IOException {
+        List<byte[]> keys = this.indexKeys;
+        if (keys != null) {
+            return new MultiGetScanner(table, scan, keys);
+        }
+        return super.openScanner(table, scan);
     }
     //endregion
 
     //region Private Methods
 
+    /**
+     * Creates the predicate combining the condition on the column of the query with the additional conditions.
+     *
+     * @param query The query.
+     * @return A predicate or null if the query doesn't have any conditions.
+     */
+    private static Predicate createPredicate(Query query) {
+        ColumnPredicate columnPredicate = query.getColumnPredicate();
+        if (columnPredicate == null) {
+            return query.getPredicate();
+        }
+
+        if (query.getPredicate() == null) {
+            return columnPredicate;
+        }
+
+        PredicateGroup group = new PredicateGroup(PredicateGroup.Conjunction.And);
+        group.add(columnPredicate);
+        group.add(query.getPredicate());
+
+        return group;
+    }
+
+    /**
+     * Narrows the range of keys scanned according to the conditions on the row key which must be satisfied by all the rows. The conditions
+     * joined by OR cannot narrow the range and are evaluated by the filters only.
+     *
+     * @param scan      The scan to update.
+     * @param predicate The predicate to analyze.
+     */
+    private static void narrowKeyRange(Scan scan, Predicate predicate) {
+        if (predicate instanceof PredicateGroup) {
+            PredicateGroup group = (PredicateGroup)predicate;
+            if (group.getConjunction() == PredicateGroup.Conjunction.And) {
+                for (Predicate item : group.getPredicates()) {
+                    narrowKeyRange(scan, item);
+                }
+            }
+        }
+        else if (predicate instanceof ColumnPredicate) {
+            ColumnPredicate columnPredicate = (ColumnPredicate)predicate;
+
+            byte[] startKey = columnPredicate.getStartKey();
+            if (startKey != null && Bytes.compareTo(startKey, scan.getStartRow()) > 0) {
+                scan.setStartRow(startKey);
+            }
+
+            byte[] stopKey = columnPredicate.getStopKey();
+            if (stopKey != null && (scan.getStopRow().length == 0 || Bytes.compareTo(stopKey, scan.getStopRow()) < 0)) {
+                scan.setStopRow(stopKey);
+            }
+        }
+    }
+
+    /**
+     * Restricts the scan to the rows found in the local index of the column values if the query has an equality or a prefix condition on
+     * the indexed column which must be satisfied by all the rows. The found rows are read with batched gets instead of the scan. The filters
+     * of the query are kept so the rows which value has been changed since the index was built are still rejected by the region servers.
+     *
+     * @param scan      The scan to update.
+     * @param predicate The predicate of the query.
+     * @return A description of the used index or null if no index has been used.
+     * @throws IOException Error converting the value.
+     */
+    private String applyValueIndex(Scan scan, Predicate predicate) throws IOException {
+        Collection<ColumnPredicate> predicates = new ArrayList<ColumnPredicate>();
+        collectRequiredPredicates(predicate, predicates);
+
+        for (ColumnPredicate columnPredicate : predicates) {
+            Operator operator = columnPredicate.getOperator();
+            if (columnPredicate.isKey() || operator != Operator.Equal && operator != Operator.StartsWith) {
+                continue;
+            }
+
+            ValueIndex index = getConnection().getValueIndex(getTableName(), columnPredicate.getFamily(), columnPredicate.getColumn());
+            if (index == null || index.isStale()) {
+                continue;
+            }
+
+            byte[] value = columnPredicate.getWordType().toBytes(columnPredicate.getWord());
+
+            List<byte[]> keys = index.lookup(value, operator == Operator.StartsWith, GlobalConfig.instance().getValueIndexMaxKeys());
+            if (keys != null) {
+                narrowToKeys(scan, keys);
+                this.indexKeys = keys;
+
+                return String.format(
+                    "%s:%s, %d candidate rows, indexed up to %s", index.getFamily(), index.getColumn(), keys.size(), new Date(index.getTimestamp()));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Narrows the key range of the scan to the range covered by the specified rows so the regions without the rows are not touched.
+     *
+     * @param scan The scan to update.
+     * @param keys The sorted list of the keys of the rows.
+     */
+    private static void narrowToKeys(Scan scan, List<byte[]> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        byte[] firstKey = keys.get(0);
+        byte[] stopKey = Bytes.add(keys.get(keys.size() - 1), new byte[1]);
+
+        if (Bytes.compareTo(firstKey, scan.getStartRow()) > 0) {
+            scan.setStartRow(firstKey);
+        }
+
+        if (scan.getStopRow().length == 0 || Bytes.compareTo(stopKey, scan.getStopRow()) < 0) {
+            scan.setStopRow(stopKey);
+        }
+    }
+
+    /**
+     * Collects the conditions which must be satisfied by all the rows. The conditions joined by OR are skipped.
+     *
+     * @param predicate  The predicate to analyze.
+     * @param predicates The collection to add the conditions to. This is the output parameter.
+     */
+    private static void collectRequiredPredicates(Predicate predicate, Collection<ColumnPredicate> predicates) {
+        if (predicate instanceof PredicateGroup) {
+            PredicateGroup group = (PredicateGroup)predicate;
+            if (group.getConjunction() == PredicateGroup.Conjunction.And) {
+                for (Predicate item : group.getPredicates()) {
+                    collectRequiredPredicates(item, predicates);
+                }
+            }
+        }
+        else if (predicate instanceof ColumnPredicate) {
+            predicates.add((ColumnPredicate)predicate);
+        }
+    }
+
     /**
      * Adds additional 4 bytes to the end key byte array. This prevents the scan go further than the end key.
      *
@@ -0,0 +1,113 @@
+package hrider.hbase;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents a token bucket limiting the rate of an operation. The bucket holds up to one second of permits. A caller taking
+ *          more permits than available goes into debt and waits until the debt is refilled, so the callers sharing the limiter together don't
+ *          exceed the rate.
+ */
+public class RateLimiter {
+
+    //region Constants
+    private static final double NANOS_IN_SECOND = 1000000000.0;
+    //endregion
+
+    //region Variables
+    /**
+     * The number of permits added to the bucket per second or 0 if the rate is not limited.
+     */
+    private double rate;
+    /**
+     * The number of permits currently available. A negative number means the permits are taken in advance.
+     */
+    private double permits;
+    /**
+     * The time the bucket has been refilled last in nanoseconds.
+     */
+    private long   lastRefill;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link RateLimiter} class.
+     *
+     * @param rate The number of permits per second or 0 if the rate is not limited.
+     */
+    public RateLimiter(double rate) {
+        this.rate = Math.max(rate, 0);
+        this.permits = this.rate;
+        this.lastRefill = System.nanoTime();
+    }
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Gets the number of permits per second.
+     *
+     * @return The rate or 0 if the rate is not limited.
+     */
+    public double getRate() {
+        return this.rate;
+    }
+
+    /**
+     * Checks whether the rate is limited.
+     *
+     * @return True if the callers can be delayed or False otherwise.
+     */
+    public boolean isLimited() {
+        return this.rate > 0;
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Takes the permits from the bucket waiting until they are available.
+     *
+     * @param count The number of permits to take.
+     * @throws InterruptedException The waiting thread has been interrupted.
+     */
+    public void acquire(long count) throws InterruptedException {
+        if (!isLimited() || count <= 0) {
+            return;
+        }
+
+        long delay;
+
+        synchronized (this) {
+            long now = System.nanoTime();
+
+            this.permits = Math.min(this.rate, this.permits + (now - this.lastRefill) * this.rate / NANOS_IN_SECOND);
+            this.permits -= count;
+            this.lastRefill = now;
+
+            delay = this.permits < 0 ? (long)(-this.permits * NANOS_IN_SECOND / this.rate) : 0;
+        }
+
+        if (delay > 0) {
+            TimeUnit.NANOSECONDS.sleep(delay);
+        }
+    }
+    //endregion
+}
@@ -0,0 +1,164 @@
+package hrider.hbase;
+
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.client.Result;
+
+import java.util.List;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents an estimation of the size of the rows returned by the region servers. The estimation follows the recently
+ *          received rows so it adapts when the scanned part of the table or the loaded columns change.
+ */
+public class RowSizeEstimator {
+
+    //region Constants
+    /**
+     * The weight of a newly received row in the estimation. The estimation is mostly defined by the last several dozens of rows.
+     */
+    private static final double ROW_WEIGHT = 1.0 / 16;
+    //endregion
+
+    //region Variables
+    /**
+     * The number of rows received so far.
+     */
+    private long   rowsNumber;
+    /**
+     * The estimated average size of the row in bytes.
+     */
+    private double averageSize;
+    /**
+     * The number of received rows which contained all the columns.
+     */
+    private long   fullRowsNumber;
+    /**
+     * The estimated average size of the row containing all the columns in bytes.
+     */
+    private double averageFullSize;
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Gets the number of rows the estimation is based on.
+     *
+     * @return The number of rows.
+     */
+    public synchronized long getRowsNumber() {
+        return this.rowsNumber;
+    }
+
+    /**
+     * Gets the estimated average size of the row.
+     *
+     * @return The size in bytes or 0 if no rows have been received yet.
+     */
+    public synchronized long getAverageRowSize() {
+        return (long)this.averageSize;
+    }
+
+    /**
+     * Gets the estimated average size of the row containing all the columns. The rows received by the scans restricted to some of the
+     * columns are not taken into account.
+     *
+     * @return The size in bytes or 0 if no full rows have been received yet.
+     */
+    public synchronized long getAverageFullRowSize() {
+        return (long)this.averageFullSize;
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Updates the estimation with the size of the received row.
+     *
+     * @param result The received row.
+     */
+    public void add(Result result) {
+        add(getSize(result));
+    }
+
+    /**
+     * Updates the estimation with the size of the received row.
+     *
+     * @param size The size of the row in bytes.
+     */
+    public synchronized void add(long size) {
+        if (this.rowsNumber == 0) {
+            this.averageSize = size;
+        }
+        else {
+            this.averageSize += (size - this.averageSize) * ROW_WEIGHT;
+        }
+        this.rowsNumber++;
+    }
+
+    /**
+     * Updates the estimation with the size of the received row containing all the columns.
+     *
+     * @param size The size of the row in bytes.
+     */
+    public synchronized void addFullRow(long size) {
+        add(size);
+
+        if (this.fullRowsNumber == 0) {
+            this.averageFullSize = size;
+        }
+        else {
+            this.averageFullSize += (size - this.averageFullSize) * ROW_WEIGHT;
+        }
+        this.fullRowsNumber++;
+    }
+
+    /**
+     * Calculates the number of rows to be requested from the region server in a single call so the response is close to the target size.
+     *
+     * @param targetSize The target size of the response in bytes.
+     * @param maxCaching The maximum number of rows to request. The value is also returned if there is no estimation yet.
+     * @return The number of rows.
+     */
+    public int getCaching(long targetSize, int maxCaching) {
+        long rowSize = getAverageRowSize();
+        if (rowSize <= 0 || targetSize <= 0) {
+            return maxCaching;
+        }
+        return (int)Math.max(1, Math.min(maxCaching, targetSize / rowSize));
+    }
+
+    /**
+     * Calculates the size of the row.
+     *
+     * @param result The row.
+     * @return The size in bytes.
+     */
+    public static long getSize(Result result) {
+        long size = 0;
+
+        List<KeyValue> keyValues = result.list();
+        if (keyValues != null) {
+            for (KeyValue kv : keyValues) {
+                size += kv.getLength();
+            }
+        }
+        return size;
+    }
+    //endregion
+}
@@ -0,0 +1,33 @@
+package hrider.hbase;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This is a listener interface that allows to receive the progress of the rows count operation.
+ */
+public interface RowsCountListener {
+
+    /**
+     * This method is called each time the rows of a key range have been counted.
+     *
+     * @param rowsCount       The number of rows counted so far.
+     * @param completedRanges The number of key ranges which rows have been counted.
+     * @param totalRanges     The total number of key ranges.
+     */
+    void onProgress(long rowsCount, int completedRanges, int totalRanges);
+}
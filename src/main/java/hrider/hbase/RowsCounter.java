@@ -0,0 +1,297 @@
+package hrider.hbase;
+
+import hrider.actions.DaemonThreadFactory;
+import hrider.config.GlobalConfig;
+import org.apache.commons.lang.time.StopWatch;
+import org.apache.hadoop.hbase.client.HTable;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents a rows count operation. The table is split by the region boundaries and the rows of each region are counted
+ *          in parallel on a bounded pool of threads.
+ */
+public class RowsCounter {
+
+    //region Variables
+    /**
+     * The connection to the cluster where the table is located.
+     */
+    private Connection                 connection;
+    /**
+     * The name of the table which rows are counted.
+     */
+    private String                     tableName;
+    /**
+     * The scan used as a template for the scan of each region.
+     */
+    private Scan                       scan;
+    /**
+     * The number of rows between two recorded checkpoints.
+     */
+    private long                       checkpointInterval;
+    /**
+     * Indicates if the count has been stopped before all the rows have been counted.
+     */
+    private boolean                    isPartial;
+    /**
+     * The map of row offsets to row keys recorded during the count.
+     */
+    private NavigableMap<Long, byte[]> checkpoints;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link RowsCounter} class.
+     *
+     * @param connection         The connection to the cluster where the table is located.
+     * @param tableName          The name of the table which rows are counted.
+     * @param scan               The scan used as a template for the scan of each region.
+     * @param checkpointInterval The number of rows between two recorded checkpoints.
+     */
+    public RowsCounter(Connection connection, String tableName, Scan scan, long checkpointInterval) {
+        this.connection = connection;
+        this.tableName = tableName;
+        this.scan = scan;
+        this.checkpointInterval = checkpointInterval > 0 ? checkpointInterval : 1;
+        this.checkpoints = new TreeMap<Long, byte[]>();
+    }
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Indicates that the count has been stopped before all the rows have been counted.
+     *
+     * @return True if the count has been stopped because of the timeout or False otherwise.
+     */
+    public boolean isPartial() {
+        return this.isPartial;
+    }
+
+    /**
+     * Gets the checkpoints recorded during the count. The offsets are known only for the rows of the regions that precede the first
+     * region which hasn't been completely counted.
+     *
+     * @return A map of zero based row offsets to row keys.
+     */
+    public NavigableMap<Long, byte[]> getCheckpoints() {
+        return this.checkpoints;
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Counts the rows.
+     *
+     * @param timeout  The amount of time to wait for the count to complete.
+     * @param listener The listener to notify each time a region has been counted. This parameter can be null.
+     * @return The number of rows counted until the count has been completed or stopped.
+     * @throws IOException Error accessing hbase.
+     */
+    public long count(long timeout, RowsCountListener listener) throws IOException {
+        List<KeyRange> ranges = KeyRange.fromRegions(this.connection.getTableFactory().get(this.tableName), this.scan.getStartRow(), this.scan.getStopRow());
+        if (ranges.isEmpty()) {
+            return 0;
+        }
+
+        int threads = Math.max(1, Math.min(ranges.size(), GlobalConfig.instance().getRowCountThreads()));
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new DaemonThreadFactory(this.tableName + "-rowsCount"));
+        CompletionService<RangeCounter> completionService = new ExecutorCompletionService<RangeCounter>(executor);
+
+        AtomicBoolean canceled = new AtomicBoolean();
+
+        List<RangeCounter> counters = new ArrayList<RangeCounter>();
+        for (KeyRange range : ranges) {
+            RangeCounter counter = new RangeCounter(range, canceled);
+            counters.add(counter);
+
+            completionService.submit(counter);
+        }
+
+        StopWatch stopWatch = new StopWatch();
+        stopWatch.start();
+
+        try {
+            int completed = 0;
+            while (completed < counters.size()) {
+                long remaining = timeout - stopWatch.getTime();
+
+                Future<RangeCounter> future = remaining > 0 ? completionService.poll(remaining, TimeUnit.MILLISECONDS) : null;
+                if (future == null) {
+                    this.isPartial = true;
+                    break;
+                }
+
+                future.get();
+                completed++;
+
+                if (listener != null) {
+                    listener.onProgress(getCount(counters), completed, counters.size());
+                }
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(String.format("The rows count of the '%s' table has been interrupted.", this.tableName));
+        }
+        catch (ExecutionException e) {
+            throw new IOException(String.format("Failed to count rows of the '%s' table.", this.tableName), e.getCause());
+        }
+        finally {
+            canceled.set(true);
+            executor.shutdown();
+
+            stopWatch.stop();
+        }
+
+        long count = getCount(counters);
+
+        long offset = 0;
+        for (RangeCounter counter : counters) {
+            if (!counter.completed) {
+                break;
+            }
+
+            for (Map.Entry<Long, byte[]> checkpoint : counter.checkpoints.entrySet()) {
+                this.checkpoints.put(offset + checkpoint.getKey(), checkpoint.getValue());
+            }
+
+            offset += counter.count.get();
+        }
+
+        return count;
+    }
+    //endregion
+
+    //region Private Methods
+
+    /**
+     * Gets the number of rows counted so far by all the counters.
+     *
+     * @param counters The list of counters.
+     * @return The number of rows.
+     */
+    private static long getCount(Iterable<RangeCounter> counters) {
+        long count = 0;
+        for (RangeCounter counter : counters) {
+            count += counter.count.get();
+        }
+        return count;
+    }
+    //endregion
+
+    /**
+     * Represents a task counting the rows of a single key range.
+     */
+    private class RangeCounter implements Callable<RangeCounter> {
+
+        //region Variables
+        /**
+         * The range of keys to count.
+         */
+        private KeyRange                   range;
+        /**
+         * Indicates if the whole count has been stopped.
+         */
+        private AtomicBoolean              canceled;
+        /**
+         * The number of rows counted so far.
+         */
+        private AtomicLong                 count;
+        /**
+         * The map of row offsets within the range to row keys.
+         */
+        private NavigableMap<Long, byte[]> checkpoints;
+        /**
+         * Indicates if all the rows of the range have been counted.
+         */
+        private volatile boolean           completed;
+        //endregion
+
+        //region Constructor
+
+        /**
+         * Initializes a new instance of the {@link RangeCounter} class.
+         *
+         * @param range    The range of keys to count.
+         * @param canceled Indicates if the whole count has been stopped.
+         */
+        private RangeCounter(KeyRange range, AtomicBoolean canceled) {
+            this.range = range;
+            this.canceled = canceled;
+            this.count = new AtomicLong();
+            this.checkpoints = new TreeMap<Long, byte[]>();
+        }
+        //endregion
+
+        //region Public Methods
+        @Override
+        public RangeCounter call() throws Exception {
+            Scan rangeScan = new Scan(scan);
+            rangeScan.setStartRow(this.range.getStartKey());
+            rangeScan.setStopRow(this.range.getStopKey());
+
+            // HTable is not thread safe so each range is counted through its own instance.
+            HTable table = connection.getTableFactory().create(tableName);
+            try {
+                ResultScanner scanner = table.getScanner(rangeScan);
+                try {
+                    Result result = scanner.next();
+                    while (result != null && !this.canceled.get()) {
+                        long offset = this.count.get();
+                        if (offset % checkpointInterval == 0) {
+                            this.checkpoints.put(offset, result.getRow());
+                        }
+
+                        this.count.incrementAndGet();
+
+                        result = scanner.next();
+                    }
+
+                    this.completed = result == null;
+                }
+                finally {
+                    scanner.close();
+                }
+            }
+            finally {
+                table.close();
+            }
+            return this;
+        }
+        //endregion
+    }
+}
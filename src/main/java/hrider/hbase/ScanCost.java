@@ -0,0 +1,136 @@
+package hrider.hbase;
+
+import org.apache.hadoop.hbase.RegionLoad;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents the estimated cost of a scan calculated from the locations of the regions covering the scanned key range and
+ *          the load metrics reported by the region servers hosting them.
+ */
+public class ScanCost {
+
+    //region Variables
+    /**
+     * Indicates whether the scan is not restricted by a key range and reads all the regions of the table.
+     */
+    private boolean     fullScan;
+    /**
+     * The number of regions of the table.
+     */
+    private int         tableRegionsCount;
+    /**
+     * The number of regions covering the scanned key range.
+     */
+    private int         regionsCount;
+    /**
+     * The addresses of the region servers hosting the scanned regions.
+     */
+    private Set<String> servers;
+    /**
+     * The size of the scanned regions.
+     */
+    private TableSize   size;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link ScanCost} class.
+     *
+     * @param fullScan          Indicates whether the scan reads all the regions of the table.
+     * @param tableRegionsCount The number of regions of the table.
+     */
+    public ScanCost(boolean fullScan, int tableRegionsCount) {
+        this.fullScan = fullScan;
+        this.tableRegionsCount = tableRegionsCount;
+        this.servers = new TreeSet<String>();
+        this.size = new TableSize();
+    }
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Checks whether the scan is not restricted by a key range and reads all the regions of the table.
+     *
+     * @return True if the whole table is scanned or False otherwise.
+     */
+    public boolean isFullScan() {
+        return this.fullScan;
+    }
+
+    /**
+     * Gets the number of regions of the table.
+     *
+     * @return The number of regions.
+     */
+    public int getTableRegionsCount() {
+        return this.tableRegionsCount;
+    }
+
+    /**
+     * Gets the number of regions covering the scanned key range.
+     *
+     * @return The number of regions.
+     */
+    public int getRegionsCount() {
+        return this.regionsCount;
+    }
+
+    /**
+     * Gets the addresses of the region servers hosting the scanned regions.
+     *
+     * @return A collection of server addresses.
+     */
+    public Collection<String> getServers() {
+        return this.servers;
+    }
+
+    /**
+     * Gets the size of the data held by the scanned regions. The size is known only for the regions which load has been reported.
+     *
+     * @return The size in bytes.
+     */
+    public long getSize() {
+        return this.size.getDataSize();
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Adds the region covering the scanned key range.
+     *
+     * @param server The address of the region server hosting the region.
+     * @param load   The load of the region or null if it is not reported.
+     */
+    public void addRegion(String server, RegionLoad load) {
+        this.regionsCount++;
+        this.servers.add(server);
+
+        if (load != null) {
+            this.size.addRegion(load);
+        }
+    }
+    //endregion
+}
@@ -0,0 +1,258 @@
+package hrider.hbase;
+
+import hrider.config.GlobalConfig;
+import org.apache.hadoop.hbase.client.Scan;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This enum represents a set of scan settings tuned for a specific kind of operation. The settings of each profile can be overridden
+ *          in the global configuration.
+ */
+public enum ScanProfile {
+    /**
+     * Used to load the pages of rows shown to the user. The loaded blocks are cached as the user is likely to go over the same rows again.
+     * The rows are requested in batches of the size configured by the global.batch.readSize setting.
+     */
+    Interactive("interactive", 0, true, 2 * 1024 * 1024, 0, false),
+    /**
+     * Used to go over the whole table, for example to export or to copy it. The blocks are not cached so the job doesn't evict the blocks
+     * used by the other clients of the cluster. The rows are requested in batches of the size configured by the global.batch.readSize
+     * setting.
+     */
+    Bulk("bulk", 0, false, 4 * 1024 * 1024, 0, false),
+    /**
+     * Used to count the rows of the table. Only the keys are loaded so the rows are requested in large batches.
+     */
+    Count("count", 5000, false, 2 * 1024 * 1024, 0, false);
+
+    //region Variables
+    private final String  name;
+    private final int     caching;
+    private final boolean cacheBlocks;
+    private final long    maxResultSize;
+    private final int     batch;
+    private final boolean small;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link ScanProfile} enum.
+     *
+     * @param name          The name of the profile used in the configuration.
+     * @param caching       The default number of rows to be returned by a single call to the region server or 0 to use the size of
+     *                      the batch for the read operations from the global configuration.
+     * @param cacheBlocks   The default value indicating whether the loaded blocks should be cached by the region server.
+     * @param maxResultSize The default maximum number of bytes to be returned by a single call to the region server.
+     * @param batch         The default maximum number of cells to be returned in a single result or 0 to return the whole rows.
+     * @param small         The default value indicating whether the scan should be executed as a small scan.
+     */
+    ScanProfile(String name, int caching, boolean cacheBlocks, long maxResultSize, int batch, boolean small) {
+        this.name = name;
+        this.caching = caching;
+        this.cacheBlocks = cacheBlocks;
+        this.maxResultSize = maxResultSize;
+        this.batch = batch;
+        this.small = small;
+    }
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Gets the name of the profile used in the configuration.
+     *
+     * @return The name of the profile.
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Gets the default number of rows to be returned by a single call to the region server.
+     *
+     * @return The number of rows.
+     */
+    public int getDefaultCaching() {
+        return this.caching > 0 ? this.caching : GlobalConfig.instance().getBatchSizeForRead();
+    }
+
+    /**
+     * Gets the default value indicating whether the loaded blocks should be cached by the region server.
+     *
+     * @return True if the blocks should be cached or False otherwise.
+     */
+    public boolean getDefaultCacheBlocks() {
+        return this.cacheBlocks;
+    }
+
+    /**
+     * Gets the default maximum number of bytes to be returned by a single call to the region server.
+     *
+     * @return The number of bytes or 0 if the size is not limited.
+     */
+    public long getDefaultMaxResultSize() {
+        return this.maxResultSize;
+    }
+
+    /**
+     * Gets the default maximum number of cells to be returned in a single result.
+     *
+     * @return The number of cells or 0 to return the whole rows.
+     */
+    public int getDefaultBatch() {
+        return this.batch;
+    }
+
+    /**
+     * Gets the default value indicating whether the scan should be executed as a small scan.
+     *
+     * @return True if the scan is small or False otherwise.
+     */
+    public boolean getDefaultSmall() {
+        return this.small;
+    }
+
+    /**
+     * Gets the number of rows to be returned by a single call to the region server. The default value can be overridden in the global
+     * configuration.
+     *
+     * @return The number of rows.
+     */
+    public int getCaching() {
+        return GlobalConfig.instance().getScanCaching(this.name, getDefaultCaching());
+    }
+
+    /**
+     * Gets the value indicating whether the loaded blocks should be cached by the region server. The default value can be overridden in the
+     * global configuration.
+     *
+     * @return True if the blocks should be cached or False otherwise.
+     */
+    public boolean getCacheBlocks() {
+        return GlobalConfig.instance().getScanCacheBlocks(this.name, this.cacheBlocks);
+    }
+
+    /**
+     * Gets the maximum number of bytes to be returned by a single call to the region server. The default value can be overridden in the
+     * global configuration.
+     *
+     * @return The number of bytes or 0 if the size is not limited.
+     */
+    public long getMaxResultSize() {
+        return GlobalConfig.instance().getScanMaxResultSize(this.name, this.maxResultSize);
+    }
+
+    /**
+     * Gets the maximum number of cells to be returned in a single result. The default value can be overridden in the global configuration.
+     *
+     * @return The number of cells or 0 to return the whole rows.
+     */
+    public int getBatch() {
+        return GlobalConfig.instance().getScanBatch(this.name, this.batch);
+    }
+
+    /**
+     * Gets the value indicating whether the scan should be executed as a small scan. The default value can be overridden in the global
+     * configuration.
+     *
+     * @return True if the scan is small or False otherwise.
+     */
+    public boolean getSmall() {
+        return GlobalConfig.instance().getScanSmall(this.name, this.small);
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Applies the settings of the profile to the scan.
+     *
+     * @param scan The scan to update.
+     * @return The updated scan.
+     */
+    public Scan apply(Scan scan) {
+        return apply(scan, 0);
+    }
+
+    /**
+     * Applies the settings of the profile to the scan.
+     *
+     * @param scan       The scan to update.
+     * @param rowsNumber The number of rows the caller is going to read or 0 if the number is not known. The scan doesn't request more rows
+     *                   than required from the region server.
+     * @return The updated scan.
+     */
+    public Scan apply(Scan scan, int rowsNumber) {
+        return apply(scan, rowsNumber, null);
+    }
+
+    /**
+     * Applies the settings of the profile to the scan. If the size of the rows is already known the number of rows requested in a single call
+     * is adapted so the response of the region server is close to the maximum result size of the profile.
+     *
+     * @param scan       The scan to update.
+     * @param rowsNumber The number of rows the caller is going to read or 0 if the number is not known. The scan doesn't request more rows
+     *                   than required from the region server.
+     * @param rowSize    The estimation of the size of the rows or null if the size is not known.
+     * @return The updated scan.
+     */
+    public Scan apply(Scan scan, int rowsNumber, RowSizeEstimator rowSize) {
+        GlobalConfig config = GlobalConfig.instance();
+
+        long resultSize = getMaxResultSize();
+
+        int rowsCaching = getCaching();
+        if (rowSize != null && rowSize.getRowsNumber() > 0 && resultSize > 0 && config.isAdaptiveScanCaching()) {
+            rowsCaching = rowSize.getCaching(resultSize, config.getAdaptiveScanMaxCaching());
+        }
+
+        if (rowsNumber > 0 && rowsNumber < rowsCaching) {
+            rowsCaching = rowsNumber;
+        }
+
+        scan.setCaching(rowsCaching);
+        scan.setCacheBlocks(getCacheBlocks());
+        scan.setSmall(getSmall());
+
+        if (resultSize > 0) {
+            scan.setMaxResultSize(resultSize);
+        }
+
+        return scan;
+    }
+
+    /**
+     * Applies the batch of the profile to the scan. The batch splits the wide rows into several results so it can be used only by the operations
+     * which process the cells rather than the whole rows. The filters should be set on the scan before the batch is applied.
+     *
+     * @param scan The scan to update.
+     * @return The updated scan.
+     */
+    public Scan applyBatch(Scan scan) {
+        int cellsBatch = getBatch();
+
+        // The rows filtered as a whole cannot be split into several results.
+        if (cellsBatch > 0 && (scan.getFilter() == null || !scan.getFilter().hasFilterRow())) {
+            scan.setBatch(cellsBatch);
+        }
+        return scan;
+    }
+    //endregion
+}
@@ -0,0 +1,363 @@
+package hrider.hbase;
+
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.client.metrics.ScanMetrics;
+import org.apache.hadoop.hbase.protobuf.ProtobufUtil;
+import org.apache.hadoop.hbase.util.Bytes;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents the statistics of a page load. The client time is split into the time spent waiting for the region servers,
+ *          the time spent building the rows and the time spent converting the rows for the presentation. The statistics reported by the region
+ *          servers are available for the scans closed after the page has been loaded.
+ */
+public class ScanStatistics {
+
+    //region Constants
+    private static final long NANOS_IN_MILLI = 1000000L;
+    //endregion
+
+    //region Variables
+    /**
+     * The number of loaded rows.
+     */
+    private long    rowsNumber;
+    /**
+     * The time spent waiting for the rows from the region servers in nanoseconds.
+     */
+    private long    fetchTime;
+    /**
+     * The time spent building the rows from the hbase results in nanoseconds.
+     */
+    private long    buildTime;
+    /**
+     * The time spent converting the rows for the presentation in nanoseconds.
+     */
+    private long    convertTime;
+    /**
+     * The number of calls to the region servers or -1 if the number is not known.
+     */
+    private long    rpcCalls;
+    /**
+     * The number of calls to the remote region servers or -1 if the number is not known.
+     */
+    private long    remoteRpcCalls;
+    /**
+     * The number of bytes returned by the region servers or -1 if the number is not known.
+     */
+    private long    bytes;
+    /**
+     * The number of scanned regions or -1 if the number is not known.
+     */
+    private long    regions;
+    /**
+     * The number of rows requested from the region server in a single call.
+     */
+    private int     caching;
+    /**
+     * The maximum size of the response of the region server.
+     */
+    private long    maxResultSize;
+    /**
+     * Indicates whether the rows have been taken from the page cache.
+     */
+    private boolean cached;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link ScanStatistics} class.
+     */
+    public ScanStatistics() {
+        this.rpcCalls = -1;
+        this.remoteRpcCalls = -1;
+        this.bytes = -1;
+        this.regions = -1;
+    }
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Gets the number of loaded rows.
+     *
+     * @return The number of rows.
+     */
+    public synchronized long getRowsNumber() {
+        return this.rowsNumber;
+    }
+
+    /**
+     * Gets the time spent waiting for the rows from the region servers.
+     *
+     * @return The time in milliseconds.
+     */
+    public synchronized long getFetchTime() {
+        return this.fetchTime / NANOS_IN_MILLI;
+    }
+
+    /**
+     * Gets the time spent building the rows from the hbase results.
+     *
+     * @return The time in milliseconds.
+     */
+    public synchronized long getBuildTime() {
+        return this.buildTime / NANOS_IN_MILLI;
+    }
+
+    /**
+     * Gets the time spent converting the rows for the presentation.
+     *
+     * @return The time in milliseconds.
+     */
+    public synchronized long getConvertTime() {
+        return this.convertTime / NANOS_IN_MILLI;
+    }
+
+    /**
+     * Gets the number of loaded rows per second of the client time.
+     *
+     * @return The number of rows per second.
+     */
+    public synchronized long getRowsPerSecond() {
+        long time = this.fetchTime + this.buildTime + this.convertTime;
+        if (time == 0) {
+            return 0;
+        }
+        return this.rowsNumber * 1000 * NANOS_IN_MILLI / time;
+    }
+
+    /**
+     * Gets the number of calls to the region servers.
+     *
+     * @return The number of calls or -1 if the number is not known.
+     */
+    public synchronized long getRpcCalls() {
+        return this.rpcCalls;
+    }
+
+    /**
+     * Gets the number of calls to the remote region servers.
+     *
+     * @return The number of calls or -1 if the number is not known.
+     */
+    public synchronized long getRemoteRpcCalls() {
+        return this.remoteRpcCalls;
+    }
+
+    /**
+     * Gets the number of bytes returned by the region servers.
+     *
+     * @return The number of bytes or -1 if the number is not known.
+     */
+    public synchronized long getBytes() {
+        return this.bytes;
+    }
+
+    /**
+     * Gets the number of scanned regions.
+     *
+     * @return The number of regions or -1 if the number is not known.
+     */
+    public synchronized long getRegions() {
+        return this.regions;
+    }
+
+    /**
+     * Gets the number of rows requested from the region server in a single call.
+     *
+     * @return The number of rows.
+     */
+    public synchronized int getCaching() {
+        return this.caching;
+    }
+
+    /**
+     * Gets the maximum size of the response of the region server.
+     *
+     * @return The size in bytes or 0 if the size is not limited.
+     */
+    public synchronized long getMaxResultSize() {
+        return this.maxResultSize;
+    }
+
+    /**
+     * Checks whether the rows have been taken from the page cache.
+     *
+     * @return True if the rows have not been loaded from the region servers or False otherwise.
+     */
+    public synchronized boolean isCached() {
+        return this.cached;
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Marks the rows as taken from the page cache.
+     *
+     * @param rowsNumber The number of rows.
+     */
+    public synchronized void setCached(long rowsNumber) {
+        this.rowsNumber = rowsNumber;
+        this.cached = true;
+    }
+
+    /**
+     * Adds the time spent waiting for a row from the region servers.
+     *
+     * @param nanos The time in nanoseconds.
+     */
+    public synchronized void addFetchTime(long nanos) {
+        this.fetchTime += nanos;
+    }
+
+    /**
+     * Counts a loaded row and adds the time spent building it from the hbase result.
+     *
+     * @param nanos The time in nanoseconds.
+     */
+    public synchronized void addRow(long nanos) {
+        this.buildTime += nanos;
+        this.rowsNumber++;
+    }
+
+    /**
+     * Adds the time spent converting the rows for the presentation.
+     *
+     * @param nanos The time in nanoseconds.
+     */
+    public synchronized void addConvertTime(long nanos) {
+        this.convertTime += nanos;
+    }
+
+    /**
+     * Sets the settings of the scan the rows have been loaded with.
+     *
+     * @param caching       The number of rows requested from the region server in a single call.
+     * @param maxResultSize The maximum size of the response of the region server.
+     */
+    public synchronized void setScanSettings(int caching, long maxResultSize) {
+        this.caching = caching;
+        this.maxResultSize = maxResultSize;
+    }
+
+    /**
+     * Asks the region servers to report the metrics of the scan. The metrics are attached to the scan when the scanner is closed.
+     *
+     * @param scan The scan to collect the metrics for.
+     */
+    public static void enableScanMetrics(Scan scan) {
+        scan.setAttribute(Scan.SCAN_ATTRIBUTES_METRICS_ENABLE, Bytes.toBytes(Boolean.TRUE));
+    }
+
+    /**
+     * Adds the statistics reported by the region servers for the closed scan.
+     *
+     * @param scan The closed scan. The metrics are available only if they have been enabled by {@link #enableScanMetrics(Scan)}.
+     */
+    public void addScanMetrics(Scan scan) {
+        byte[] data = scan.getAttribute(Scan.SCAN_ATTRIBUTES_METRICS_DATA);
+        if (data != null) {
+            addScanMetrics(ProtobufUtil.toScanMetrics(data));
+        }
+    }
+
+    /**
+     * Adds the statistics reported by the region servers.
+     *
+     * @param metrics The metrics of the closed scan. This parameter can be null.
+     */
+    public synchronized void addScanMetrics(ScanMetrics metrics) {
+        if (metrics != null) {
+            this.rpcCalls = Math.max(this.rpcCalls, 0) + metrics.countOfRPCcalls.get();
+            this.remoteRpcCalls = Math.max(this.remoteRpcCalls, 0) + metrics.countOfRemoteRPCcalls.get();
+            this.bytes = Math.max(this.bytes, 0) + metrics.countOfBytesInResults.get();
+            this.regions = Math.max(this.regions, 0) + metrics.countOfRegions.get();
+        }
+    }
+
+    /**
+     * Adds the statistics of another scan. Used to sum up the statistics of the scans running in parallel.
+     *
+     * @param other The statistics to add.
+     */
+    public void add(ScanStatistics other) {
+        long otherRows;
+        long otherFetchTime;
+        long otherBuildTime;
+        long otherConvertTime;
+        int otherCaching;
+        long otherMaxResultSize;
+        long[] otherMetrics;
+
+        synchronized (other) {
+            otherRows = other.rowsNumber;
+            otherFetchTime = other.fetchTime;
+            otherBuildTime = other.buildTime;
+            otherConvertTime = other.convertTime;
+            otherCaching = other.caching;
+            otherMaxResultSize = other.maxResultSize;
+            otherMetrics = new long[]{other.rpcCalls, other.remoteRpcCalls, other.bytes, other.regions};
+        }
+
+        synchronized (this) {
+            this.rowsNumber += otherRows;
+            this.fetchTime += otherFetchTime;
+            this.buildTime += otherBuildTime;
+            this.convertTime += otherConvertTime;
+            this.caching = otherCaching;
+            this.maxResultSize = otherMaxResultSize;
+
+            if (otherMetrics[0] >= 0) {
+                this.rpcCalls = Math.max(this.rpcCalls, 0) + otherMetrics[0];
+                this.remoteRpcCalls = Math.max(this.remoteRpcCalls, 0) + otherMetrics[1];
+                this.bytes = Math.max(this.bytes, 0) + otherMetrics[2];
+                this.regions = Math.max(this.regions, 0) + otherMetrics[3];
+            }
+        }
+    }
+
+    /**
+     * Gets a short description of the statistics suitable for the status bar.
+     *
+     * @return A description of the statistics.
+     */
+    @Override
+    public synchronized String toString() {
+        if (this.cached) {
+            return String.format("%d rows taken from the cache: convert %d ms", this.rowsNumber, getConvertTime());
+        }
+
+        StringBuilder builder = new StringBuilder();
+        builder.append(
+            String.format(
+                "%d rows loaded (%d rows/sec): fetch %d ms, build %d ms, convert %d ms; caching %d, max result size %d", this.rowsNumber,
+                getRowsPerSecond(), getFetchTime(), getBuildTime(), getConvertTime(), this.caching, this.maxResultSize));
+
+        if (this.rpcCalls >= 0) {
+            builder.append(
+                String.format(
+                    "; %d RPCs (%d remote), %d bytes, %d regions", this.rpcCalls, this.remoteRpcCalls, this.bytes, this.regions));
+        }
+        return builder.toString();
+    }
+    //endregion
+}
@@ -1,19 +1,31 @@
 package hrider.hbase;
 
+import hrider.actions.Action;
+import hrider.actions.RunnableAction;
 import hrider.config.GlobalConfig;
 import hrider.converters.TypeConverter;
 import hrider.data.*;
+import hrider.io.Log;
 import hrider.ui.MessageHandler;
-import org.apache.commons.lang.time.StopWatch;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.hbase.HColumnDescriptor;
+import org.apache.hadoop.hbase.HConstants;
 import org.apache.hadoop.hbase.HTableDescriptor;
+import org.apache.hadoop.hbase.client.Get;
 import org.apache.hadoop.hbase.client.HTable;
 import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.client.ResultScanner;
 import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.filter.BinaryComparator;
+import org.apache.hadoop.hbase.filter.ColumnPaginationFilter;
+import org.apache.hadoop.hbase.filter.CompareFilter;
+import org.apache.hadoop.hbase.filter.FamilyFilter;
+import org.apache.hadoop.hbase.filter.Filter;
 import org.apache.hadoop.hbase.filter.FilterList;
 import org.apache.hadoop.hbase.filter.FirstKeyOnlyFilter;
+import org.apache.hadoop.hbase.filter.KeyOnlyFilter;
+import org.apache.hadoop.hbase.filter.QualifierFilter;
+import org.apache.hadoop.hbase.util.Bytes;
 
 import java.io.IOException;
 import java.util.*;
@@ -41,6 +53,10 @@ import java.util.*;
 @SuppressWarnings({"OverlyNestedMethod", "ClassWithTooManyMethods"})
 public class Scanner {
 
+    //region Constants
+    private static final Log logger = Log.getLogger(Scanner.class);
+    //endregion
+
     //region Variables
     /**
      * The connection which owns the scanner.
@@ -83,6 +99,67 @@ public class Scanner {
      * Represents a converter for column names.
      */
     private TypeConverter           columnNameConverter;
+    /**
+     * A sparse index of row offsets to row keys. Used to start the scan from the closest known row when jumping to a specific row.
+     */
+    private OffsetIndex             offsetIndex;
+    /**
+     * Indicates if the {@link Scanner#lastRow} is counted from the beginning of the scan. If the scan has been started from the arbitrary key
+     * the loaded rows cannot be recorded in the {@link Scanner#offsetIndex}.
+     */
+    private boolean                 isOffsetFromStart;
+    /**
+     * Indicates if the hbase scanner should be kept open between the loaded pages.
+     */
+    private boolean                 keepScannerOpen;
+    /**
+     * The hbase scanner kept open to load the following page without reopening the scan.
+     */
+    private ResultScanner           session;
+    /**
+     * The key of the last row loaded by the {@link Scanner#session}.
+     */
+    private byte[]                  sessionKey;
+    /**
+     * The time the {@link Scanner#session} was used for the last time.
+     */
+    private long                    sessionLastAccess;
+    /**
+     * The number of pages to load in the background ahead of the forward navigation.
+     */
+    private int                     prefetchPages;
+    /**
+     * The background load of the pages following the last loaded row.
+     */
+    private Prefetch                prefetch;
+    /**
+     * The estimation of the size of the rows loaded by the scanner. The estimation is shared by all the scanners of the table.
+     */
+    private RowSizeEstimator        rowSize;
+    /**
+     * The columns to be loaded with the rows. The key is the binary name of the column. If this parameter is null all the columns are loaded.
+     */
+    private Map<String, ColumnQualifier> shownColumns;
+    /**
+     * Indicates if the previous pages should be loaded by the reversed scan instead of being kept for the backward navigation.
+     */
+    private boolean                 reverseNavigation;
+    /**
+     * The number of rows requested by the last forward navigation. Used as the size of the page loaded by the reversed scan.
+     */
+    private int                     pageSize;
+    /**
+     * The maximum number of columns loaded for each row at once. If this parameter is 0 all the columns of the row are loaded.
+     */
+    private int                     columnsWindow;
+    /**
+     * The settings applied to the scans loading the pages of rows.
+     */
+    private ScanProfile             scanProfile;
+    /**
+     * The statistics of the last page load.
+     */
+    private ScanStatistics          statistics;
     //endregion
 
     //region Constructor
@@ -99,6 +176,11 @@ public class Scanner {
         this.rowsCount = 0;
         this.lastRow = 0;
         this.markers = new Stack<Marker>();
+        this.offsetIndex = new OffsetIndex(GlobalConfig.instance().getRowsCheckpointInterval());
+        this.isOffsetFromStart = true;
+        this.rowSize = connection.getRowSizeEstimator(tableName);
+        this.scanProfile = ScanProfile.Interactive;
+        this.statistics = new ScanStatistics();
     }
     //endregion
 
@@ -140,6 +222,132 @@ public class Scanner {
         this.forwardNavigateOnly = forwardNavigateOnly;
     }
 
+    /**
+     * Gets the settings applied to the scans loading the pages of rows.
+     *
+     * @return The scan profile.
+     */
+    public ScanProfile getScanProfile() {
+        return this.scanProfile;
+    }
+
+    /**
+     * Sets the settings to be applied to the scans loading the pages of rows. The {@link ScanProfile#Bulk} profile should be used if the
+     * scanner is going to go over the whole table.
+     *
+     * @param scanProfile The scan profile.
+     */
+    public void setScanProfile(ScanProfile scanProfile) {
+        this.scanProfile = scanProfile;
+    }
+
+    /**
+     * Gets the maximum number of columns loaded for each row at once.
+     *
+     * @return The number of columns or 0 if all the columns of the row are loaded.
+     */
+    public int getColumnsWindow() {
+        return this.columnsWindow;
+    }
+
+    /**
+     * Sets the maximum number of columns loaded for each row at once. This mode is intended for the tables with very wide rows which cannot be
+     * loaded as a whole. The following columns of the loaded rows can be requested by the {@link #nextColumnsWindow()} method.
+     *
+     * @param columnsWindow The number of columns or 0 to load all the columns of the row.
+     */
+    public void setColumnsWindow(int columnsWindow) {
+        if (this.columnsWindow != columnsWindow) {
+            cancelPrefetch();
+            closeSession();
+        }
+
+        this.columnsWindow = columnsWindow > 0 ? columnsWindow : 0;
+    }
+
+    /**
+     * Checks whether the current rows could have columns which have not been loaded because of the columns window.
+     *
+     * @return True if more columns can be loaded or False otherwise.
+     */
+    public boolean hasMoreColumns() {
+        Marker marker = peekMarker();
+        if (getColumnsWindow() == 0 || marker == null || marker.rows == null || marker.rows != this.current) {
+            return false;
+        }
+
+        for (DataRow row : marker.rows) {
+            if (getCellsCount(row) >= marker.columnsOffset) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the value indicating if the previous pages are loaded by the reversed scan.
+     *
+     * @return True if the previous pages are loaded from hbase or False if the visited pages are kept for the backward navigation.
+     */
+    public boolean getReverseNavigation() {
+        return this.reverseNavigation;
+    }
+
+    /**
+     * Sets the value indicating if the previous pages should be loaded by the reversed scan. In this mode the visited pages are not kept so
+     * the backward navigation doesn't depend on the history and costs a single page load.
+     *
+     * @param reverseNavigation True if the previous pages should be loaded from hbase or False to keep the visited pages.
+     */
+    public void setReverseNavigation(boolean reverseNavigation) {
+        this.reverseNavigation = reverseNavigation;
+    }
+
+    /**
+     * Gets the value indicating if the hbase scanner is kept open between the loaded pages.
+     *
+     * @return True if the hbase scanner is kept open or False if a new scan is started for each page.
+     */
+    public boolean getKeepScannerOpen() {
+        return this.keepScannerOpen;
+    }
+
+    /**
+     * Sets the value indicating if the hbase scanner should be kept open between the loaded pages. When set the forward navigation continues
+     * the previous scan instead of starting a new one from the last loaded key. The scanner is reopened if it stays idle longer than
+     * the configured session timeout.
+     *
+     * @param keepScannerOpen True to keep the hbase scanner open or False to start a new scan for each page.
+     */
+    public void setKeepScannerOpen(boolean keepScannerOpen) {
+        this.keepScannerOpen = keepScannerOpen;
+
+        if (!keepScannerOpen) {
+            closeSession();
+        }
+    }
+
+    /**
+     * Gets the number of pages loaded in the background ahead of the forward navigation.
+     *
+     * @return The number of pages or 0 if the pages are not loaded in advance.
+     */
+    public int getPrefetchPages() {
+        return this.prefetchPages;
+    }
+
+    /**
+     * Sets the number of pages to load in the background ahead of the forward navigation. Once a page is loaded the following pages are
+     * read into a buffer of the specified size so the next forward navigation doesn't wait for hbase.
+     *
+     * @param prefetchPages The number of pages to load in advance or 0 to disable the background load.
+     */
+    public void setPrefetchPages(int prefetchPages) {
+        this.prefetchPages = prefetchPages;
+
+        cancelPrefetch();
+    }
+
     /**
      * Gets the name of the table.
      *
@@ -158,6 +366,34 @@ public class Scanner {
         return this.partialRowsCount > 0;
     }
 
+    /**
+     * Gets the average size of the rows loaded by the scanner.
+     *
+     * @return The average row size in bytes or 0 if no rows have been loaded yet.
+     */
+    public long getAverageRowSize() {
+        return this.rowSize.getAverageRowSize();
+    }
+
+    /**
+     * Gets the average size of the rows containing all the columns. The rows loaded with some of the columns only are not taken into account.
+     *
+     * @return The average row size in bytes or 0 if no full rows have been loaded yet.
+     */
+    public long getAverageFullRowSize() {
+        return this.rowSize.getAverageFullRowSize();
+    }
+
+    /**
+     * Gets the statistics of the last page load. The statistics include the number of rows requested from the region server in a single call
+     * which is adapted to the size of the rows.
+     *
+     * @return The statistics of the last page load.
+     */
+    public ScanStatistics getLastStatistics() {
+        return this.statistics;
+    }
+
     /**
      * Gets a list of columns. If there is no columns at this moment they will be loaded according to the provided rows number. In other words only columns
      * of loaded rows will be returned.
@@ -166,7 +402,8 @@ public class Scanner {
      * @return A list of columns.
      */
     public Collection<ColumnQualifier> getColumns(int rowsNumber) {
-        if (this.markers.isEmpty() || peekMarker().columns.size() != rowsNumber) {
+        // The rows loaded with the shown columns only don't contain all the columns of the table.
+        if (this.markers.isEmpty() || this.shownColumns != null || peekMarker().columns.size() != rowsNumber) {
             try {
                 return loadColumns(rowsNumber);
             }
@@ -198,6 +435,45 @@ public class Scanner {
         this.columnTypes = columnTypes;
     }
 
+    /**
+     * Gets the columns to be loaded with the rows.
+     *
+     * @return A list of columns or null if all the columns are loaded.
+     */
+    public Collection<ColumnQualifier> getShownColumns() {
+        if (this.shownColumns == null) {
+            return null;
+        }
+        return new ArrayList<ColumnQualifier>(this.shownColumns.values());
+    }
+
+    /**
+     * Sets the columns to be loaded with the rows. The rest of the columns are not transferred from the region servers. The rows which don't
+     * contain any of the columns are still loaded.
+     *
+     * @param columns A list of columns or null if all the columns should be loaded.
+     */
+    public void setShownColumns(Collection<ColumnQualifier> columns) {
+        Map<String, ColumnQualifier> projection = null;
+        if (columns != null) {
+            projection = new HashMap<String, ColumnQualifier>();
+            for (ColumnQualifier column : columns) {
+                if (!column.isKey()) {
+                    projection.put(getColumnKey(column), column);
+                }
+            }
+        }
+
+        boolean isChanged = projection == null ? this.shownColumns != null : this.shownColumns == null || !projection.keySet().equals(this.shownColumns.keySet());
+        if (isChanged) {
+            // The pages loaded in advance don't contain the newly shown columns.
+            cancelPrefetch();
+            closeSession();
+        }
+
+        this.shownColumns = projection;
+    }
+
     /**
      * Gets the last loaded row number.
      *
@@ -222,6 +498,9 @@ public class Scanner {
      * @return True if there are previously loaded rows or False otherwise.
      */
     public boolean hasPrev() {
+        if (isReverseRequired()) {
+            return !(this.isOffsetFromStart && this.lastRow <= this.current.size());
+        }
         return this.markers.size() > 1;
     }
     //endregion
@@ -295,11 +574,28 @@ public class Scanner {
         this.lastRow = 0;
         this.markers.clear();
 
+        cancelPrefetch();
+        closeSession();
+
+        // The offsets are not valid anymore as the data or the start of the scan could be changed. The index is replaced rather than cleared
+        // so the rows count running in the background cannot populate it with the stale offsets.
+        this.offsetIndex = new OffsetIndex(GlobalConfig.instance().getRowsCheckpointInterval());
+        this.isOffsetFromStart = startKey == null;
+
         if (startKey != null) {
-            this.markers.push(new Marker(startKey, new ArrayList<DataRow>(), new ArrayList<ColumnQualifier>()));
+            pushMarker(new Marker(startKey, new ArrayList<DataRow>(), new ArrayList<ColumnQualifier>(), null));
         }
     }
 
+    /**
+     * Removes the cached pages of the table and resets the scanner so the following pages are loaded from the hbase.
+     */
+    public void refresh() {
+        this.connection.getPageCache().invalidate(this.tableName);
+
+        resetCurrent(null);
+    }
+
     /**
      * Gets a first row in the table.
      *
@@ -307,10 +603,10 @@ public class Scanner {
      * @throws IOException Error accessing hbase.
      */
     public DataRow getFirstRow() throws IOException {
-        Scan scan = getScanner();
+        Scan scan = this.scanProfile.apply(getScanner(), 1);
 
         HTable table = this.connection.getTableFactory().get(this.tableName);
-        ResultScanner scanner = table.getScanner(scan);
+        ResultScanner scanner = openScanner(table, scan);
 
         try {
             Collection<DataRow> rows = new LinkedList<DataRow>();
@@ -369,8 +665,28 @@ public class Scanner {
             }
 
             this.markers.clear();
-            this.current = next(offset - 1, rowsNumber);
+            this.isOffsetFromStart = true;
+
+            cancelPrefetch();
+
+            this.pageSize = rowsNumber;
+            startStatistics();
+
+            long skip = offset - 1;
+            byte[] startKey = null;
+
+            // Start the scan from the closest known row instead of the beginning of the table.
+            Map.Entry<Long, byte[]> checkpoint = this.offsetIndex.floor(skip);
+            if (checkpoint != null) {
+                startKey = checkpoint.getValue();
+                skip -= checkpoint.getKey();
+            }
+
+            this.current = load(startKey, skip, rowsNumber);
             this.lastRow = offset + this.current.size() - 1;
+
+            addCheckpoint(offset - 1, this.current);
+            startPrefetch(rowsNumber);
         }
         return this.current;
     }
@@ -383,9 +699,24 @@ public class Scanner {
      * @throws IOException Error accessing hbase.
      */
     public Collection<DataRow> next(int rowsNumber) throws IOException {
+        long firstRow = this.lastRow;
+
+        this.pageSize = rowsNumber;
+        startStatistics();
+
         this.current = next(this.markers.isEmpty() ? 0 : 1, rowsNumber);
         this.lastRow += this.current.size();
 
+        if (this.reverseNavigation) {
+            // Only the marker of the last loaded page is required to continue the forward navigation.
+            while (this.markers.size() > 1) {
+                this.markers.remove(0);
+            }
+        }
+
+        addCheckpoint(firstRow, this.current);
+        startPrefetch(rowsNumber);
+
         return this.current;
     }
 
@@ -396,13 +727,27 @@ public class Scanner {
      * @throws IOException Error accessing hbase.
      */
     public Collection<DataRow> prev() throws IOException {
+        startStatistics();
+
+        if (isReverseRequired()) {
+            return prevReversed();
+        }
+
         if (!this.markers.isEmpty()) {
             if (this.markers.size() > 1) {
                 popMarker();
             }
 
+            Marker marker = peekMarker();
+            if (marker.rows == null) {
+                // The rows of the page have been released to limit the memory used by the history.
+                reloadMarker(marker);
+            }
+
             this.lastRow -= this.current.size();
-            this.current = peekMarker().rows;
+            this.current = marker.rows;
+
+            loadMissingColumns(marker);
 
             updateColumnNameConverter(columnNameConverter);
 
@@ -421,6 +766,19 @@ public class Scanner {
      * @throws IOException Error accessing hbase.
      */
     public long getRowsCount(long timeout) throws IOException {
+        return getRowsCount(timeout, null);
+    }
+
+    /**
+     * Gets the total number of rows in the table. The regions of the table are counted in parallel and the listener is notified each time
+     * a region has been counted. This value is then cached for future uses.
+     *
+     * @param timeout  The amount of time to wait for the count to complete.
+     * @param listener The listener to notify about the progress of the count. This parameter can be null.
+     * @return A total number of rows in the table.
+     * @throws IOException Error accessing hbase.
+     */
+    public long getRowsCount(long timeout, RowsCountListener listener) throws IOException {
         if (this.rowsCount == 0) {
             this.partialRowsCount = 0;
 
@@ -430,218 +788,1150 @@ public class Scanner {
             if (scan.getFilter() != null) {
                 filters.addFilter(scan.getFilter());
             }
+            else {
+                // The values are not required unless the query filters on them.
+                filters.addFilter(new KeyOnlyFilter());
+            }
 
             filters.addFilter(new FirstKeyOnlyFilter());
 
             scan.setFilter(filters);
-            scan.setCaching(GlobalConfig.instance().getBatchSizeForRead());
 
-            HTable table = this.connection.getTableFactory().get(this.tableName);
-            ResultScanner scanner = table.getScanner(scan);
+            ScanProfile.Count.apply(scan);
 
-            StopWatch stopWatch = new StopWatch();
-            stopWatch.start();
+            OffsetIndex index = this.offsetIndex;
 
-            try {
-                int count = 0;
-                for (Result rr = scanner.next() ; rr != null ; rr = scanner.next(), count++) {
-                    if (stopWatch.getTime() > timeout) {
-                        this.partialRowsCount = count;
-
-                        break;
-                    }
-                }
+            RowsCounter counter = new RowsCounter(this.connection, this.tableName, scan, index.getInterval());
 
-                this.rowsCount = count;
+            long count = counter.count(timeout, listener);
+            if (counter.isPartial()) {
+                this.partialRowsCount = count;
             }
-            finally {
-                stopWatch.stop();
-                scanner.close();
+
+            // The rows counted for a query are not checked against the conditions evaluated on the client and the first key only filter
+            // hides the columns from the value filters, so the counted offsets could differ from the offsets of the loaded pages.
+            if (!hasQuery()) {
+                for (Map.Entry<Long, byte[]> checkpoint : counter.getCheckpoints().entrySet()) {
+                    index.put(checkpoint.getKey(), checkpoint.getValue());
+                }
             }
+
+            this.rowsCount = count;
         }
         return this.rowsCount;
     }
-    //endregion
-
-    //region Protected Methods
 
     /**
-     * Gets the hbase scanner.
+     * Gets an approximate number of rows in the table. The number is calculated from the table size reported by the region servers and
+     * the average size of the already loaded rows containing all the columns so it is available immediately. The estimation doesn't take the
+     * query into account.
      *
-     * @return A hbase scanner
-     * @throws IOException Error accessing hbase.
+     * @return An approximate number of rows or 0 if the number cannot be estimated.
      */
-    protected Scan getScanner() throws IOException {
-        return new Scan();
+    public long getEstimatedRowsCount() {
+        // The rows loaded with some of the columns only would inflate the estimation.
+        long averageRowSize = getAverageFullRowSize();
+        if (averageRowSize == 0) {
+            return 0;
+        }
+
+        try {
+            return this.connection.getTableSize(this.tableName).getDataSize() / averageRowSize;
+        }
+        catch (IOException e) {
+            logger.warn(e, "Failed to estimate the number of rows in the '%s' table.", this.tableName);
+            return 0;
+        }
     }
 
     /**
-     * Checks if the row is valid. The default implementation is return 'True'. This method should be overridden by the derived classes.
+     * Loads the columns which have not been shown so far for the current rows. The columns are added to the columns loaded with the rows.
      *
-     * @param row A row to check.
-     * @return True if the row is valid and False otherwise.
+     * @param columns The columns to load.
+     * @return A list of the current rows.
+     * @throws IOException Error accessing hbase.
      */
-    protected boolean isValidRow(Result row) {
-        return true;
-    }
-    //endregion
+    public Collection<DataRow> fetchColumns(Collection<ColumnQualifier> columns) throws IOException {
+        if (this.shownColumns != null) {
+            Collection<ColumnQualifier> added = new ArrayList<ColumnQualifier>();
+            for (ColumnQualifier column : columns) {
+                if (!column.isKey() && !this.shownColumns.containsKey(getColumnKey(column))) {
+                    added.add(column);
+                }
+            }
 
-    //region Private Methods
+            if (!added.isEmpty()) {
+                // The pages loaded in the background don't contain the added columns.
+                cancelPrefetch();
+                closeSession();
+
+                for (ColumnQualifier column : added) {
+                    this.shownColumns.put(getColumnKey(column), column);
+                }
+
+                if (this.current != null) {
+                    if (!this.markers.isEmpty() && peekMarker().rows == this.current) {
+                        loadMissingColumns(peekMarker());
+                    }
+                    else {
+                        loadColumns(this.current, added);
+                    }
+                }
+            }
+        }
+        return this.current;
+    }
 
     /**
-     * Loads a specified number of rows from the hbase.
+     * Loads the following window of columns for the current rows. Only the rows which could have more columns are requested.
      *
-     * @param scanner    The hbase scanner to retrieve the data.
-     * @param offset     The offset to start from.
-     * @param rowsNumber The number of rows to load.
-     * @param rows       The loaded rows. This is the output parameter.
-     * @param columns    The columns loaded from rows. This is the output parameter.
-     * @return A key of the last loaded row. Used to mark the current position for the next scan.
+     * @return A list of the current rows.
      * @throws IOException Error accessing hbase.
      */
-    protected ConvertibleObject loadRows(
-        ResultScanner scanner, long offset, int rowsNumber, Collection<DataRow> rows, Collection<ColumnQualifier> columns) throws IOException {
+    public Collection<DataRow> nextColumnsWindow() throws IOException {
+        if (!hasMoreColumns()) {
+            return this.current;
+        }
 
-        ColumnType keyType = this.columnTypes.get(ColumnQualifier.KEY.getName());
-        Map<ColumnQualifier, ColumnQualifier> loadedColumns = new HashMap<ColumnQualifier, ColumnQualifier>();
+        Marker marker = peekMarker();
 
-        int index = 0;
-        boolean isValid;
-        ConvertibleObject key = null;
+        List<DataRow> targets = new ArrayList<DataRow>();
+        for (DataRow row : marker.rows) {
+            if (getCellsCount(row) >= marker.columnsOffset) {
+                targets.add(row);
+            }
+        }
 
-        TypeConverter nameConverter = getColumnNameConverterInternal();
+        Filter pagination = new ColumnPaginationFilter(getColumnsWindow(), marker.columnsOffset);
+        Filter projection = getProjectionFilter();
+
+        List<Get> gets = new ArrayList<Get>(targets.size());
+        for (DataRow row : targets) {
+            Get get = new Get(row.getKey().getValue());
+            get.setFilter(projection != null ? new FilterList(projection, pagination) : pagination);
+            gets.add(get);
+        }
 
         HTable table = this.connection.getTableFactory().get(this.tableName);
         HTableDescriptor tableDescriptor = table.getTableDescriptor();
 
-        do {
-            Result result = scanner.next();
+        TypeConverter nameConverter = getColumnNameConverterInternal();
 
-            isValid = result != null && rows.size() < rowsNumber;
-            if (isValid && isValidRow(result)) {
-                if (index >= offset) {
-                    key = new ConvertibleObject(keyType, result.getRow());
+        Result[] results = table.get(gets);
+        for (int i = 0 ; i < results.length ; i++) {
+            if (results[i] != null && !results[i].isEmpty()) {
+                addCells(targets.get(i), results[i], tableDescriptor, this.columnTypes, nameConverter, null);
+            }
+        }
 
-                    DataRow row = new DataRow(key);
-                    row.addCell(new DataCell(row, ColumnQualifier.KEY, key));
+        marker.columnsOffset += getColumnsWindow();
 
-                    NavigableMap<byte[], NavigableMap<byte[], NavigableMap<Long, byte[]>>> familyMap = result.getMap();
-                    for (NavigableMap.Entry<byte[], NavigableMap<byte[], NavigableMap<Long, byte[]>>> familyEntry : familyMap.entrySet()) {
-                        HColumnDescriptor columnDescriptor = tableDescriptor.getFamily(familyEntry.getKey());
+        return this.current;
+    }
 
-                        for (NavigableMap.Entry<byte[], NavigableMap<Long, byte[]>> qualifierEntry : familyEntry.getValue().entrySet()) {
-                            ColumnQualifier qualifier = new ColumnQualifier(qualifierEntry.getKey(), new ColumnFamily(columnDescriptor), nameConverter);
+    /**
+     * Samples the rows of each region of the table to find the columns which are not present in the first rows of the table. The found
+     * columns are added to the table schema shared by the scanners so they are returned by the following calls to {@link #getColumns(int)}.
+     * The table is sampled only once unless the schema is invalidated. The sampling is not done for the scanners restricted by a query.
+     *
+     * @param rowsPerRegion The number of rows to read from each region.
+     * @param listener      The listener to notify about the found columns. This parameter can be null.
+     * @throws IOException Error accessing hbase.
+     */
+    public void sampleColumns(int rowsPerRegion, ColumnsSampleListener listener) throws IOException {
+        if (hasQuery()) {
+            return;
+        }
 
-                            String columnName = qualifier.getFullName();
-                            ColumnType columnType = this.columnTypes.get(columnName);
+        TableSchema schema = this.connection.getTableSchema(this.tableName);
+        if (schema == null) {
+            schema = new TableSchema(0);
+            this.connection.setTableSchema(this.tableName, schema);
+        }
 
-                            if (columnType == null) {
-                                columnType = ColumnType.String;
-                            }
+        if (!schema.isSampled()) {
+            ColumnSampler sampler = new ColumnSampler(this.connection, this.tableName, schema, rowsPerRegion, getColumnNameConverterInternal());
+            sampler.sample(listener);
+        }
+    }
 
-                            for (NavigableMap.Entry<Long, byte[]> cell : qualifierEntry.getValue().entrySet()) {
-                                row.addCell(new DataCell(row, qualifier, new ConvertibleObject(columnType, cell.getValue())));
-                            }
+    /**
+     * Releases the hbase scanner kept open between the loaded pages.
+     */
+    public void close() {
+        cancelPrefetch();
+        closeSession();
+    }
+    //endregion
 
-                            if (!loadedColumns.containsKey(qualifier)) {
-                                columns.add(qualifier);
-                                loadedColumns.put(qualifier, null);
-                            }
-                        }
-                    }
+    //region Protected Methods
+
+    /**
+     * Gets the hbase scanner.
+     *
+     * @return A hbase scanner
+     * @throws IOException Error accessing hbase.
+     */
+    protected Scan getScanner() throws IOException {
+        return new Scan();
+    }
+
+    /**
+     * Opens the hbase scanner for the scan. The derived classes can return the rows in a different way as long as the settings of the
+     * scan are respected.
+     *
+     * @param table The table to scan.
+     * @param scan  The settings of the scan.
+     * @return An hbase scanner.
+     * @throws IOException Error accessing hbase.
+     */
+    protected ResultScanner openScanner(HTable table, Scan scan) throws IOException {
+        return table.getScanner(scan);
+    }
+
+    /**
+     * Gets the description of the query restricting the scan. The description is a part of the key of the cached pages. This method should be
+     * overridden by the derived classes.
+     *
+     * @return A description of the query or an empty string if the scan is not restricted.
+     */
+    protected String getQueryKey() {
+        return "";
+    }
+
+    /**
+     * Checks if the scanner is restricted by a query. The default implementation is return 'False'. This method should be overridden by the derived classes.
+     *
+     * @return True if the scanned rows are filtered by a query or False otherwise.
+     */
+    protected boolean hasQuery() {
+        return false;
+    }
+
+    /**
+     * Gets the columns to be loaded with the rows. The derived classes can add the columns required to validate the rows.
+     *
+     * @return A set of column names built by the {@link #getColumnKey(String, byte[])} method or null if all the columns are loaded.
+     */
+    protected Set<String> getProjectedColumns() {
+        return getProjection();
+    }
+
+    /**
+     * Gets the name of the column which doesn't depend on the column name converter.
+     *
+     * @param family    The name of the column family.
+     * @param qualifier The qualifier of the column.
+     * @return The binary name of the column.
+     */
+    protected static String getColumnKey(String family, byte[] qualifier) {
+        return String.format("%s:%s", family, Bytes.toStringBinary(qualifier));
+    }
+
+    /**
+     * Checks if the row is valid. The default implementation is return 'True'. This method should be overridden by the derived classes.
+     *
+     * @param row A row to check.
+     * @return True if the row is valid and False otherwise.
+     */
+    protected boolean isValidRow(Result row) {
+        return true;
+    }
+    //endregion
+
+    //region Private Methods
+
+    /**
+     * Loads a specified number of rows from the hbase.
+     *
+     * @param scanner    The hbase scanner to retrieve the data.
+     * @param offset     The offset to start from.
+     * @param rowsNumber The number of rows to load.
+     * @param rows       The loaded rows. This is the output parameter.
+     * @param columns    The columns loaded from rows. This is the output parameter.
+     * @return A key of the last loaded row. Used to mark the current position for the next scan.
+     * @throws IOException Error accessing hbase.
+     */
+    protected ConvertibleObject loadRows(
+        ResultScanner scanner, long offset, int rowsNumber, Collection<DataRow> rows, Collection<ColumnQualifier> columns) throws IOException {
+
+        return loadRows(scanner, offset, rowsNumber, rows, columns, this.columnTypes, getColumnNameConverterInternal(), this.statistics);
+    }
+
+    /**
+     * Loads a specified number of rows from the hbase.
+     *
+     * @param scanner       The hbase scanner to retrieve the data.
+     * @param offset        The offset to start from.
+     * @param rowsNumber    The number of rows to load.
+     * @param rows          The loaded rows. This is the output parameter.
+     * @param columns       The columns loaded from rows. This is the output parameter.
+     * @param columnTypes   The map of column types used to create the cells.
+     * @param nameConverter The converter of the column names.
+     * @param statistics    The statistics of the page load to update.
+     * @return A key of the last loaded row. Used to mark the current position for the next scan.
+     * @throws IOException Error accessing hbase.
+     */
+    private ConvertibleObject loadRows(
+        ResultScanner scanner, long offset, int rowsNumber, Collection<DataRow> rows, Collection<ColumnQualifier> columns,
+        Map<String, ColumnType> columnTypes, TypeConverter nameConverter, ScanStatistics statistics) throws IOException {
+
+        ColumnType keyType = columnTypes.get(ColumnQualifier.KEY.getName());
+        Map<ColumnQualifier, ColumnQualifier> loadedColumns = new LinkedHashMap<ColumnQualifier, ColumnQualifier>();
+
+        // The rows of the queries could be restricted by the time range.
+        boolean fullRows = !hasQuery() && getProjectedColumns() == null && getColumnsWindow() == 0;
+
+        int index = 0;
+        boolean isValid;
+        ConvertibleObject key = null;
+
+        HTable table = this.connection.getTableFactory().get(this.tableName);
+        HTableDescriptor tableDescriptor = table.getTableDescriptor();
+
+        do {
+            long started = System.nanoTime();
+
+            // Don't read a row beyond the requested number as it would be lost for the scanner kept open.
+            Result result = rows.size() < rowsNumber ? scanner.next() : null;
+
+            statistics.addFetchTime(System.nanoTime() - started);
+
+            isValid = result != null;
+            if (isValid && isValidRow(result)) {
+                if (index >= offset) {
+                    started = System.nanoTime();
+
+                    DataRow row = createRow(result, keyType, tableDescriptor, columnTypes, nameConverter, loadedColumns, fullRows);
+                    key = row.getKey();
 
                     rows.add(row);
+
+                    statistics.addRow(System.nanoTime() - started);
+                }
+
+                index++;
+            }
+        }
+        while (isValid);
+
+        columns.addAll(loadedColumns.keySet());
+
+        return key;
+    }
+
+    /**
+     * Loads column names.
+     *
+     * @param rowsNumber The number of rows to look for the column names. The column name is a key from key/value pairs in hbase row.
+     * @throws IOException Error accessing hbase.
+     */
+    private Collection<ColumnQualifier> loadColumns(int rowsNumber) throws IOException {
+        TypeConverter nameConverter = getColumnNameConverterInternal();
+
+        // The columns discovered on the whole table do not depend on the scanned data and can be shared between the scanners.
+        boolean cacheable = !hasQuery();
+        if (cacheable) {
+            TableSchema schema = this.connection.getTableSchema(this.tableName);
+            if (schema != null && schema.getRowsNumber() >= rowsNumber) {
+                return schema.getColumns(nameConverter);
+            }
+        }
+
+        Collection<ColumnQualifier> columns = new ArrayList<ColumnQualifier>();
+        columns.add(ColumnQualifier.KEY);
+
+        Map<ColumnQualifier, ColumnQualifier> loadedColumns = new HashMap<ColumnQualifier, ColumnQualifier>();
+
+        int itemsNumber = rowsNumber <= GlobalConfig.instance().getBatchSizeForRead() ? rowsNumber : GlobalConfig.instance().getBatchSizeForRead();
+
+        Scan scan = getScanner();
+        scan.setCaching(itemsNumber);
+        scan.setCacheBlocks(false);
+        scan.setMaxResultSize(GlobalConfig.instance().getColumnsScanMaxResultSize());
+
+        // Only the column names are required, there is no need to transfer the values. The filter is not replaced if the scan is filtered by
+        // a value as the values must be available to the query filter.
+        if (scan.getFilter() == null) {
+            scan.setFilter(new KeyOnlyFilter());
+        }
+
+        HTable table = this.connection.getTableFactory().get(this.tableName);
+        HTableDescriptor tableDescriptor = table.getTableDescriptor();
+
+        ResultScanner scanner = openScanner(table, scan);
+        try {
+            Result row;
+            int counter = 0;
+
+            do {
+                row = scanner.next();
+                if (row != null) {
+                    NavigableMap<byte[], NavigableMap<byte[], NavigableMap<Long, byte[]>>> familyMap = row.getMap();
+                    for (NavigableMap.Entry<byte[], NavigableMap<byte[], NavigableMap<Long, byte[]>>> familyEntry : familyMap.entrySet()) {
+                        HColumnDescriptor columnDescriptor = tableDescriptor.getFamily(familyEntry.getKey());
+
+                        for (byte[] quantifier : familyEntry.getValue().keySet()) {
+                            ColumnQualifier columnQualifier = new ColumnQualifier(quantifier, new ColumnFamily(columnDescriptor), nameConverter);
+                            if (!loadedColumns.containsKey(columnQualifier)) {
+                                columns.add(columnQualifier);
+                                loadedColumns.put(columnQualifier, null);
+                            }
+                        }
+                    }
+                }
+
+                counter++;
+            }
+            while (row != null && counter < rowsNumber);
+
+            if (cacheable) {
+                TableSchema schema = new TableSchema(rowsNumber);
+                schema.addColumns(columns);
+
+                this.connection.setTableSchema(this.tableName, schema);
+            }
+
+            return columns;
+        }
+        finally {
+            scanner.close();
+        }
+    }
+
+    /**
+     * Loads the following rows.
+     *
+     * @param offset     The offset to start from.
+     * @param rowsNumber The number of rows to load.
+     * @return A list of loaded rows.
+     * @throws IOException Error accessing hbase.
+     */
+    private Collection<DataRow> next(long offset, int rowsNumber) throws IOException {
+        byte[] startKey = null;
+        if (!this.markers.isEmpty()) {
+            startKey = peekMarker().key.getValue();
+        }
+
+        String pageKey = getPageKey(startKey, offset, rowsNumber);
+
+        if (this.forwardNavigateOnly) {
+            // Remove the current marker to reduce the memory load in case backward navigation should not be supported.
+            popMarker();
+        }
+
+        if (offset == 1 && this.prefetch != null) {
+            Page page = this.prefetch.take(startKey, rowsNumber);
+            if (page != null) {
+                Collection<DataRow> rows = usePage(page);
+                cachePage(pageKey, rows);
+
+                return rows;
+            }
+
+            // The prefetched pages don't follow the current position.
+            cancelPrefetch();
+        }
+
+        if (offset == 1 && isSessionAt(startKey)) {
+            try {
+                Collection<DataRow> rows = loadPage(this.session, 0, rowsNumber);
+                cachePage(pageKey, rows);
+                updateSession(rows, rowsNumber);
+
+                return rows;
+            }
+            catch (IOException e) {
+                logger.warn(e, "The scanner of the '%s' table has failed, the scan will be restarted from the last loaded key.", this.tableName);
+
+                closeSession();
+            }
+        }
+
+        return load(startKey, offset, rowsNumber);
+    }
+
+    /**
+     * Loads the rows starting from the specified key. The page is taken from the page cache of the connection if it has been recently loaded
+     * by any scanner with the same query and columns.
+     *
+     * @param startKey   The key to start the scan from. If this parameter is null the scan starts from the beginning.
+     * @param offset     The number of rows to skip.
+     * @param rowsNumber The number of rows to load.
+     * @return A list of loaded rows.
+     * @throws IOException Error accessing hbase.
+     */
+    private Collection<DataRow> load(byte[] startKey, long offset, int rowsNumber) throws IOException {
+        closeSession();
+
+        String pageKey = getPageKey(startKey, offset, rowsNumber);
+        if (pageKey != null) {
+            PageCache.Entry cachedPage = this.connection.getPageCache().get(pageKey);
+            if (cachedPage != null) {
+                Collection<DataRow> rows = cachedPage.getRows();
+
+                this.statistics.setCached(rows.size());
+                return applyPage(rows, cachedPage.getColumns(), cachedPage.getLastKey());
+            }
+        }
+
+        Scan scan = createScan(rowsNumber);
+
+        if (startKey != null) {
+            scan.setStartRow(startKey);
+        }
+
+        this.statistics.setScanSettings(scan.getCaching(), scan.getMaxResultSize());
+
+        HTable table = this.connection.getTableFactory().get(this.tableName);
+        ResultScanner scanner = openScanner(table, scan);
+       // scanner.setMaxNumKeyValues(-1);
+
+        try {
+            Collection<DataRow> rows = loadPage(scanner, offset, rowsNumber);
+            cachePage(pageKey, rows);
+
+            if (this.keepScannerOpen) {
+                this.session = scanner;
+                updateSession(rows, rowsNumber);
+            }
+
+            return rows;
+        }
+        finally {
+            if (this.session != scanner) {
+                scanner.close();
+
+                this.statistics.addScanMetrics(scan);
+            }
+        }
+    }
+
+    /**
+     * Loads a page of rows from the hbase scanner and marks the position of the last loaded row.
+     *
+     * @param scanner    The hbase scanner to retrieve the data.
+     * @param offset     The number of rows to skip.
+     * @param rowsNumber The number of rows to load.
+     * @return A list of loaded rows.
+     * @throws IOException Error accessing hbase.
+     */
+    private Collection<DataRow> loadPage(ResultScanner scanner, long offset, int rowsNumber) throws IOException {
+        Collection<DataRow> rows = new LinkedList<DataRow>();
+        Collection<ColumnQualifier> columns = new LinkedList<ColumnQualifier>();
+
+        columns.add(ColumnQualifier.KEY);
+
+        ConvertibleObject lastKey = loadRows(scanner, offset, rowsNumber, rows, columns);
+        if (lastKey != null) {
+            pushMarker(new Marker(lastKey, rows, columns, getProjection()));
+        }
+
+        return rows;
+    }
+
+    /**
+     * Checks whether the hbase scanner kept open is positioned right after the specified key and can be used to load the following rows.
+     *
+     * @param key The key of the last loaded row.
+     * @return True if the open scanner can continue from the key or False otherwise.
+     */
+    private boolean isSessionAt(byte[] key) {
+        if (this.session == null || key == null) {
+            return false;
+        }
+
+        if (System.currentTimeMillis() - this.sessionLastAccess > GlobalConfig.instance().getScannerSessionTimeout()) {
+            // The lease of the scanner is about to expire on the region server.
+            closeSession();
+            return false;
+        }
+
+        return Arrays.equals(this.sessionKey, key);
+    }
+
+    /**
+     * Updates the position of the hbase scanner kept open. The scanner is closed if the end of the table has been reached.
+     *
+     * @param rows       The rows loaded by the scanner.
+     * @param rowsNumber The number of rows requested.
+     */
+    private void updateSession(Collection<DataRow> rows, int rowsNumber) {
+        if (rows.isEmpty() || rows.size() < rowsNumber) {
+            closeSession();
+        }
+        else {
+            this.sessionKey = peekMarker().key.getValue();
+            this.sessionLastAccess = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Starts loading the pages following the last loaded row in the background. The hbase scanner kept open if any is handed over
+     * to the background load. Otherwise the scan is created here as the settings of the scanner could be changed while the pages are loaded.
+     *
+     * @param rowsNumber The number of rows in each page.
+     * @throws IOException Error creating the scan.
+     */
+    private void startPrefetch(int rowsNumber) throws IOException {
+        if (this.prefetchPages <= 0 || this.current.isEmpty() || this.current.size() < rowsNumber) {
+            return;
+        }
+
+        byte[] startKey = peekMarker().key.getValue();
+
+        if (this.prefetch != null && this.prefetch.continuesFrom(startKey)) {
+            return;
+        }
+
+        cancelPrefetch();
+
+        ResultScanner scanner = null;
+        if (this.session != null && Arrays.equals(this.sessionKey, startKey)) {
+            scanner = this.session;
+
+            this.session = null;
+            this.sessionKey = null;
+        }
+
+        Scan scan = null;
+        if (scanner == null) {
+            scan = createScan(rowsNumber);
+            scan.setStartRow(startKey);
+        }
+
+        this.prefetch = new Prefetch(
+            startKey, scanner, scan, rowsNumber, this.prefetchPages, new HashMap<String, ColumnType>(this.columnTypes), getColumnNameConverterInternal());
+
+        RunnableAction.run(String.format("%s-prefetch", this.tableName), this.prefetch);
+    }
+
+    /**
+     * Stops the background load of the pages.
+     */
+    private void cancelPrefetch() {
+        if (this.prefetch != null) {
+            this.prefetch.cancel();
+            this.prefetch = null;
+        }
+    }
+
+    /**
+     * Makes a prefetched page the current one. The column types and the column name converter could be changed while the page was loaded
+     * so they are applied again.
+     *
+     * @param page The prefetched page.
+     * @return A list of rows of the page.
+     */
+    private Collection<DataRow> usePage(Page page) {
+        this.statistics = page.statistics;
+
+        return applyPage(page.rows, page.columns, page.lastKey);
+    }
+
+    /**
+     * Makes the page loaded earlier the current one. The column types and the column name converter are applied to the rows again.
+     *
+     * @param rows    The rows of the page.
+     * @param columns The columns loaded from the rows.
+     * @param lastKey The key of the last row of the page or null if the page is empty.
+     * @return A list of rows of the page.
+     */
+    private Collection<DataRow> applyPage(Collection<DataRow> rows, Collection<ColumnQualifier> columns, ConvertibleObject lastKey) {
+        if (lastKey != null) {
+            pushMarker(new Marker(lastKey, rows, columns, getProjection()));
+        }
+
+        for (DataRow row : rows) {
+            if (this.columnNameConverter != null) {
+                row.updateColumnNameConverter(this.columnNameConverter);
+            }
+
+            for (Map.Entry<String, ColumnType> entry : this.columnTypes.entrySet()) {
+                row.updateColumnType(entry.getKey(), entry.getValue());
+            }
+        }
+
+        return rows;
+    }
+
+    /**
+     * Adds the just loaded page to the page cache of the connection.
+     *
+     * @param pageKey The key of the page or null if the page should not be cached.
+     * @param rows    The rows of the page.
+     */
+    private void cachePage(String pageKey, Collection<DataRow> rows) {
+        Marker marker = peekMarker();
+        if (pageKey != null && marker != null && marker.rows == rows) {
+            this.connection.getPageCache().put(this.tableName, pageKey, rows, marker.columns, marker.key, marker.size);
+        }
+    }
+
+    /**
+     * Gets the key identifying the page in the page cache. The key consists of the name of the table, the query, the loaded columns and the
+     * position of the page.
+     *
+     * @param startKey   The key the page is loaded after or null if the page is loaded from the beginning.
+     * @param offset     The number of rows skipped before the page.
+     * @param rowsNumber The number of rows in the page.
+     * @return The key of the page or null if the page should not be cached.
+     */
+    private String getPageKey(byte[] startKey, long offset, int rowsNumber) {
+        // The columns of the rows are extended in place in the wide row mode.
+        if (getColumnsWindow() > 0) {
+            return null;
+        }
+
+        Set<String> projection = getProjection();
+        return String.format(
+            "%s|%s|%s|%d|%d|%s", this.tableName, getQueryKey(), projection != null ? new TreeSet<String>(projection) : "*", offset, rowsNumber,
+            startKey != null ? Bytes.toStringBinary(startKey) : "");
+    }
+
+    /**
+     * Creates a scan loading the pages of rows. The scan is restricted to the shown columns and tuned according to the scan profile.
+     *
+     * @param rowsNumber The number of rows to load.
+     * @return A new scan.
+     * @throws IOException Error accessing hbase.
+     */
+    private Scan createScan(int rowsNumber) throws IOException {
+        Scan scan = getScanner();
+
+        applyColumnFilters(scan);
+
+        this.scanProfile.apply(scan, rowsNumber, this.rowSize);
+
+        if (getColumnsWindow() > 0) {
+            scan.setMaxResultSize(GlobalConfig.instance().getWideRowMaxResultSize());
+        }
+
+        ScanStatistics.enableScanMetrics(scan);
+
+        return scan;
+    }
+
+    /**
+     * Restricts the cells loaded by the scan to the shown columns and to the first window of columns in the wide row mode.
+     *
+     * @param scan The scan to restrict.
+     */
+    private void applyColumnFilters(Scan scan) {
+        List<Filter> filters = new ArrayList<Filter>();
+        if (scan.getFilter() != null) {
+            filters.add(scan.getFilter());
+        }
+
+        Filter projection = getProjectionFilter();
+        if (projection != null) {
+            filters.add(projection);
+        }
+
+        if (getColumnsWindow() > 0) {
+            // The pagination filter counts only the cells accepted by the preceding filters.
+            filters.add(new ColumnPaginationFilter(getColumnsWindow(), 0));
+        }
+
+        if (filters.size() == 1) {
+            scan.setFilter(filters.get(0));
+        }
+        else if (filters.size() > 1) {
+            scan.setFilter(new FilterList(filters));
+        }
+    }
+
+    /**
+     * Builds a filter restricting the loaded cells to the shown columns. The first cell of each row is always loaded so the rows which don't
+     * contain any of the shown columns are not skipped and the row offsets remain the same as for the unrestricted scan.
+     *
+     * @return A filter or null if all the columns are loaded.
+     */
+    private Filter getProjectionFilter() {
+        Set<String> columns = getProjectedColumns();
+        if (columns == null) {
+            return null;
+        }
+
+        FilterList filters = new FilterList(FilterList.Operator.MUST_PASS_ONE);
+        filters.addFilter(new FirstKeyOnlyFilter());
+
+        // The column is matched by both the family and the qualifier as the same qualifier can be used in several families.
+        for (String column : columns) {
+            int separator = column.indexOf(':');
+
+            byte[] family = Bytes.toBytes(column.substring(0, separator));
+            byte[] qualifier = Bytes.toBytesBinary(column.substring(separator + 1));
+
+            FilterList columnFilter = new FilterList(FilterList.Operator.MUST_PASS_ALL);
+            columnFilter.addFilter(new FamilyFilter(CompareFilter.CompareOp.EQUAL, new BinaryComparator(family)));
+            columnFilter.addFilter(new QualifierFilter(CompareFilter.CompareOp.EQUAL, new BinaryComparator(qualifier)));
+
+            filters.addFilter(columnFilter);
+        }
+
+        return filters;
+    }
+
+    /**
+     * Gets the binary names of the currently shown columns.
+     *
+     * @return A set of names or null if all the columns are loaded.
+     */
+    private Set<String> getProjection() {
+        if (this.shownColumns == null) {
+            return null;
+        }
+        return new HashSet<String>(this.shownColumns.keySet());
+    }
+
+    /**
+     * Loads the shown columns the rows of the marker have not been loaded with.
+     *
+     * @param marker The marker which rows should be completed.
+     * @throws IOException Error accessing hbase.
+     */
+    private void loadMissingColumns(Marker marker) throws IOException {
+        if (marker.projection == null || this.shownColumns == null) {
+            return;
+        }
+
+        Collection<ColumnQualifier> missing = new ArrayList<ColumnQualifier>();
+        for (Map.Entry<String, ColumnQualifier> entry : this.shownColumns.entrySet()) {
+            if (!marker.projection.contains(entry.getKey())) {
+                missing.add(entry.getValue());
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            loadColumns(marker.rows, missing);
+            marker.projection.addAll(this.shownColumns.keySet());
+        }
+    }
+
+    /**
+     * Loads the specified columns of the already loaded rows.
+     *
+     * @param rows    The rows to add the loaded cells to.
+     * @param columns The columns to load.
+     * @throws IOException Error accessing hbase.
+     */
+    private void loadColumns(Collection<DataRow> rows, Collection<ColumnQualifier> columns) throws IOException {
+        if (rows.isEmpty() || columns.isEmpty()) {
+            return;
+        }
+
+        List<DataRow> targets = new ArrayList<DataRow>(rows);
+        List<Get> gets = new ArrayList<Get>(targets.size());
+
+        for (DataRow row : targets) {
+            Get get = new Get(row.getKey().getValue());
+            for (ColumnQualifier column : columns) {
+                get.addColumn(Bytes.toBytesBinary(column.getFamily()), column.getNameAsByteArray());
+            }
+            gets.add(get);
+        }
+
+        HTable table = this.connection.getTableFactory().get(this.tableName);
+        HTableDescriptor tableDescriptor = table.getTableDescriptor();
+
+        TypeConverter nameConverter = getColumnNameConverterInternal();
+
+        Result[] results = table.get(gets);
+        for (int i = 0 ; i < results.length ; i++) {
+            if (results[i] != null && !results[i].isEmpty()) {
+                addCells(targets.get(i), results[i], tableDescriptor, this.columnTypes, nameConverter, null);
+            }
+        }
+    }
+
+    /**
+     * Creates a data row from the hbase row.
+     *
+     * @param result          The hbase row.
+     * @param keyType         The type of the row key.
+     * @param tableDescriptor The descriptor of the table used to resolve the column families.
+     * @param columnTypes     The map of column types used to create the cells.
+     * @param nameConverter   The converter of the column names.
+     * @param columns         The map of columns found in the row. This is the output parameter.
+     * @param fullRow         Indicates if the row has been loaded with all the columns.
+     * @return A new data row.
+     */
+    private DataRow createRow(
+        Result result, ColumnType keyType, HTableDescriptor tableDescriptor, Map<String, ColumnType> columnTypes, TypeConverter nameConverter,
+        Map<ColumnQualifier, ColumnQualifier> columns, boolean fullRow) {
+
+        ConvertibleObject key = new ConvertibleObject(keyType, result.getRow());
+
+        DataRow row = new DataRow(key);
+        row.addCell(new DataCell(row, ColumnQualifier.KEY, key));
+
+        addCells(row, result, tableDescriptor, columnTypes, nameConverter, columns);
+
+        if (fullRow) {
+            this.rowSize.addFullRow(RowSizeEstimator.getSize(result));
+        }
+        else {
+            this.rowSize.add(result);
+        }
+
+        return row;
+    }
+
+    /**
+     * Adds the cells of the hbase row to the data row.
+     *
+     * @param row             The row to add the cells to.
+     * @param result          The hbase row.
+     * @param tableDescriptor The descriptor of the table used to resolve the column families.
+     * @param columnTypes     The map of column types used to create the cells.
+     * @param nameConverter   The converter of the column names.
+     * @param columns         The map of columns found in the row. This is the output parameter and can be null.
+     */
+    private static void addCells(
+        DataRow row, Result result, HTableDescriptor tableDescriptor, Map<String, ColumnType> columnTypes, TypeConverter nameConverter,
+        Map<ColumnQualifier, ColumnQualifier> columns) {
+
+        NavigableMap<byte[], NavigableMap<byte[], NavigableMap<Long, byte[]>>> familyMap = result.getMap();
+        for (NavigableMap.Entry<byte[], NavigableMap<byte[], NavigableMap<Long, byte[]>>> familyEntry : familyMap.entrySet()) {
+            HColumnDescriptor columnDescriptor = tableDescriptor.getFamily(familyEntry.getKey());
+
+            for (NavigableMap.Entry<byte[], NavigableMap<Long, byte[]>> qualifierEntry : familyEntry.getValue().entrySet()) {
+                ColumnQualifier qualifier = new ColumnQualifier(qualifierEntry.getKey(), new ColumnFamily(columnDescriptor), nameConverter);
+
+                String columnName = qualifier.getFullName();
+                ColumnType columnType = columnTypes.get(columnName);
+
+                if (columnType == null) {
+                    columnType = ColumnType.String;
+                }
+
+                for (NavigableMap.Entry<Long, byte[]> cell : qualifierEntry.getValue().entrySet()) {
+                    row.addCell(new DataCell(row, qualifier, new ConvertibleObject(columnType, cell.getValue())));
+                }
+
+                if (columns != null && !columns.containsKey(qualifier)) {
+                    columns.put(qualifier, qualifier);
                 }
+            }
+        }
+    }
+
+    /**
+     * Gets the number of distinct columns of the row excluding the key. The versions of the same column are counted once as the
+     * {@link ColumnPaginationFilter} counts the columns and not the cells.
+     *
+     * @param row The row.
+     * @return The number of columns.
+     */
+    private static int getCellsCount(DataRow row) {
+        Set<String> columns = new HashSet<String>();
+        for (DataCell cell : row.getCells()) {
+            if (!cell.getColumn().isKey()) {
+                columns.add(getColumnKey(cell.getColumn()));
+            }
+        }
+        return columns.size();
+    }
+
+    /**
+     * Gets the name of the column which doesn't depend on the column name converter.
+     *
+     * @param column The column.
+     * @return The binary name of the column.
+     */
+    private static String getColumnKey(ColumnQualifier column) {
+        return getColumnKey(column.getFamily(), column.getNameAsByteArray());
+    }
 
-                index++;
-            }
+    /**
+     * Starts collecting the statistics of a new page load. The settings of the scan are kept as the page could be loaded by the hbase scanner
+     * kept open.
+     */
+    private void startStatistics() {
+        ScanStatistics previous = this.statistics;
+
+        this.statistics = new ScanStatistics();
+        this.statistics.setScanSettings(previous.getCaching(), previous.getMaxResultSize());
+    }
+
+    /**
+     * Closes the hbase scanner kept open between the loaded pages.
+     */
+    private void closeSession() {
+        if (this.session != null) {
+            this.session.close();
+
+            this.session = null;
+            this.sessionKey = null;
         }
-        while (isValid);
+    }
 
-        return key;
+    /**
+     * Records the first loaded row in the offset index.
+     *
+     * @param offset The zero based offset of the first row.
+     * @param rows   The loaded rows.
+     */
+    private void addCheckpoint(long offset, Collection<DataRow> rows) {
+        if (this.isOffsetFromStart && !rows.isEmpty()) {
+            this.offsetIndex.put(offset, rows.iterator().next().getKey().getValue());
+        }
     }
 
     /**
-     * Loads column names.
+     * Checks whether the previous page should be loaded by the reversed scan. This is the case if the reversed navigation is configured or if
+     * there is no page kept before the current one, for example when the scan has been started from an arbitrary key.
      *
-     * @param rowsNumber The number of rows to look for the column names. The column name is a key from key/value pairs in hbase row.
+     * @return True if the reversed scan should be used or False otherwise.
+     */
+    private boolean isReverseRequired() {
+        if (this.current == null || this.current.isEmpty()) {
+            return false;
+        }
+        return this.reverseNavigation || this.markers.size() < 2 || this.markers.get(this.markers.size() - 2).rowsNumber == 0;
+    }
+
+    /**
+     * Loads the page preceding the current one by the reversed scan started from the first key of the current page.
+     *
+     * @return A list of rows.
      * @throws IOException Error accessing hbase.
      */
-    private Collection<ColumnQualifier> loadColumns(int rowsNumber) throws IOException {
-        Collection<ColumnQualifier> columns = new ArrayList<ColumnQualifier>();
-        columns.add(ColumnQualifier.KEY);
+    private Collection<DataRow> prevReversed() throws IOException {
+        cancelPrefetch();
+        closeSession();
 
-        Map<ColumnQualifier, ColumnQualifier> loadedColumns = new HashMap<ColumnQualifier, ColumnQualifier>();
+        int rowsNumber = this.pageSize > 0 ? this.pageSize : this.current.size();
+        byte[] firstKey = this.current.iterator().next().getKey().getValue();
 
-        int itemsNumber = rowsNumber <= GlobalConfig.instance().getBatchSizeForRead() ? rowsNumber : GlobalConfig.instance().getBatchSizeForRead();
+        Scan scan = createScan(rowsNumber + 1);
 
-        Scan scan = getScanner();
-        scan.setCaching(itemsNumber);
+        // The reversed scan goes from the start row towards the beginning of the table so the lower bound of the query is checked on the loaded rows.
+        byte[] lowerBound = scan.getStartRow();
+
+        scan.setStartRow(firstKey);
+        scan.setStopRow(HConstants.EMPTY_END_ROW);
+        scan.setReversed(true);
+
+        this.statistics.setScanSettings(scan.getCaching(), scan.getMaxResultSize());
 
         HTable table = this.connection.getTableFactory().get(this.tableName);
         HTableDescriptor tableDescriptor = table.getTableDescriptor();
 
-        ResultScanner scanner = table.getScanner(scan);
+        ColumnType keyType = this.columnTypes.get(ColumnQualifier.KEY.getName());
+        TypeConverter nameConverter = getColumnNameConverterInternal();
+
+        LinkedList<DataRow> rows = new LinkedList<DataRow>();
+        Map<ColumnQualifier, ColumnQualifier> loadedColumns = new LinkedHashMap<ColumnQualifier, ColumnQualifier>();
+
+        ResultScanner scanner = openScanner(table, scan);
         try {
-            TypeConverter nameConverter = getColumnNameConverterInternal();
+            long started = System.nanoTime();
 
-            Result row;
-            int counter = 0;
+            Result result = scanner.next();
+            while (result != null) {
+                this.statistics.addFetchTime(System.nanoTime() - started);
 
-            do {
-                row = scanner.next();
-                if (row != null) {
-                    NavigableMap<byte[], NavigableMap<byte[], NavigableMap<Long, byte[]>>> familyMap = row.getMap();
-                    for (NavigableMap.Entry<byte[], NavigableMap<byte[], NavigableMap<Long, byte[]>>> familyEntry : familyMap.entrySet()) {
-                        HColumnDescriptor columnDescriptor = tableDescriptor.getFamily(familyEntry.getKey());
+                if (lowerBound.length > 0 && Bytes.compareTo(result.getRow(), lowerBound) < 0) {
+                    break;
+                }
 
-                        for (byte[] quantifier : familyEntry.getValue().keySet()) {
-                            ColumnQualifier columnQualifier = new ColumnQualifier(quantifier, new ColumnFamily(columnDescriptor), nameConverter);
-                            if (!loadedColumns.containsKey(columnQualifier)) {
-                                columns.add(columnQualifier);
-                                loadedColumns.put(columnQualifier, null);
-                            }
-                        }
-                    }
+                // The start row of the reversed scan is inclusive.
+                if (!Bytes.equals(result.getRow(), firstKey) && isValidRow(result)) {
+                    started = System.nanoTime();
+
+                    rows.addFirst(createRow(result, keyType, tableDescriptor, this.columnTypes, nameConverter, loadedColumns));
+
+                    this.statistics.addRow(System.nanoTime() - started);
                 }
 
-                counter++;
-            }
-            while (row != null && counter < rowsNumber);
+                started = System.nanoTime();
 
-            return columns;
+                result = rows.size() < rowsNumber ? scanner.next() : null;
+            }
         }
         finally {
             scanner.close();
+
+            this.statistics.addScanMetrics(scan);
+        }
+
+        if (rows.isEmpty()) {
+            // The current page is the first one.
+            this.lastRow = this.current.size();
+            this.isOffsetFromStart = true;
+
+            return this.current;
+        }
+
+        if (rows.size() < rowsNumber) {
+            this.lastRow = rows.size();
+            this.isOffsetFromStart = true;
+        }
+        else {
+            this.lastRow = Math.max(this.lastRow - this.current.size(), rows.size());
         }
+
+        Collection<ColumnQualifier> columns = new LinkedList<ColumnQualifier>();
+        columns.add(ColumnQualifier.KEY);
+        columns.addAll(loadedColumns.keySet());
+
+        this.markers.clear();
+        pushMarker(new Marker(rows.getLast().getKey(), rows, columns, getProjection()));
+
+        this.current = rows;
+
+        addCheckpoint(this.lastRow - rows.size(), rows);
+
+        return this.current;
     }
 
     /**
-     * Loads the following rows.
+     * Adds a marker to the stack. The rows of the oldest markers are released if the size of the rows kept for the backward navigation exceeds
+     * the configured limit. The markers themselves are kept so the released pages can be loaded again by their first key.
      *
-     * @param offset     The offset to start from.
-     * @param rowsNumber The number of rows to load.
-     * @return A list of loaded rows.
-     * @throws IOException Error accessing hbase.
+     * @param marker The marker to add.
      */
-    private Collection<DataRow> next(long offset, int rowsNumber) throws IOException {
-        int itemsNumber = rowsNumber <= GlobalConfig.instance().getBatchSizeForRead() ? rowsNumber : GlobalConfig.instance().getBatchSizeForRead();
+    private void pushMarker(Marker marker) {
+        marker.size = marker.rowsNumber * getAverageRowSize();
+        marker.columnsOffset = getColumnsWindow();
 
-        Scan scan = getScanner();
-        scan.setCaching(itemsNumber);
+        this.markers.push(marker);
 
-        if (!this.markers.isEmpty()) {
-            scan.setStartRow(peekMarker().key.getValue());
+        long historySize = 0;
+        for (Marker item : this.markers) {
+            if (item.rows != null) {
+                historySize += item.size;
+            }
         }
 
-        if (this.forwardNavigateOnly) {
-            // Remove the current marker to reduce the memory load in case backward navigation should not be supported.
-            popMarker();
+        long maxSize = GlobalConfig.instance().getPageHistoryMaxSize();
+
+        // The current page is never released.
+        for (int i = 0 ; i < this.markers.size() - 1 && historySize > maxSize ; i++) {
+            Marker item = this.markers.get(i);
+            if (item.rows != null && item.firstKey != null) {
+                item.rows = null;
+                historySize -= item.size;
+            }
         }
+    }
+
+    /**
+     * Loads the rows of the marker which have been released from the history.
+     *
+     * @param marker The marker to load the rows for.
+     * @throws IOException Error accessing hbase.
+     */
+    private void reloadMarker(Marker marker) throws IOException {
+        Scan scan = createScan(marker.rowsNumber);
+        scan.setStartRow(marker.firstKey);
+
+        this.statistics.setScanSettings(scan.getCaching(), scan.getMaxResultSize());
 
         HTable table = this.connection.getTableFactory().get(this.tableName);
-        ResultScanner scanner = table.getScanner(scan);
-       // scanner.setMaxNumKeyValues(-1);
+        ResultScanner scanner = openScanner(table, scan);
 
         try {
             Collection<DataRow> rows = new LinkedList<DataRow>();
@@ -649,15 +1939,17 @@ public class Scanner {
 
             columns.add(ColumnQualifier.KEY);
 
-            ConvertibleObject lastKey = loadRows(scanner, offset, rowsNumber, rows, columns);
-            if (lastKey != null) {
-                this.markers.push(new Marker(lastKey, rows, columns));
-            }
+            loadRows(scanner, 0, marker.rowsNumber, rows, columns);
 
-            return rows;
+            marker.rows = rows;
+            marker.columns = columns;
+            marker.projection = getProjection();
+            marker.columnsOffset = getColumnsWindow();
         }
         finally {
             scanner.close();
+
+            this.statistics.addScanMetrics(scan);
         }
     }
 
@@ -698,6 +1990,273 @@ public class Scanner {
     }
     //endregion
 
+    /**
+     * Represents a page of rows loaded in the background.
+     */
+    private static class Page {
+
+        //region Variables
+        /**
+         * A list of loaded rows.
+         */
+        private Collection<DataRow>         rows;
+        /**
+         * A list of columns loaded from the rows.
+         */
+        private Collection<ColumnQualifier> columns;
+        /**
+         * The key of the last loaded row or null if the page is empty.
+         */
+        private ConvertibleObject           lastKey;
+        /**
+         * The statistics of the page load.
+         */
+        private ScanStatistics              statistics;
+        //endregion
+
+        //region Constructor
+
+        /**
+         * Initializes a new instance of the {@link Page} class.
+         */
+        private Page() {
+            this.statistics = new ScanStatistics();
+            this.rows = new LinkedList<DataRow>();
+            this.columns = new LinkedList<ColumnQualifier>();
+            this.columns.add(ColumnQualifier.KEY);
+        }
+        //endregion
+    }
+
+    /**
+     * Represents a background load of the pages following a specific row. The pages are read into a bounded buffer. The load waits while
+     * the buffer is full and stops if none of the pages is taken during the scanner session timeout.
+     */
+    private class Prefetch extends Action<Object> {
+
+        //region Variables
+        /**
+         * The key of the row the next page in the buffer starts after.
+         */
+        private byte[]                  startKey;
+        /**
+         * The hbase scanner positioned right after the start key. If null a new scanner is opened.
+         */
+        private ResultScanner           scanner;
+        /**
+         * The settings of the scanner to open if no hbase scanner has been handed over.
+         */
+        private Scan                    scan;
+        /**
+         * The number of rows in each page.
+         */
+        private int                     rowsNumber;
+        /**
+         * The maximum number of pages in the buffer.
+         */
+        private int                     pagesNumber;
+        /**
+         * The map of column types used to create the cells.
+         */
+        private Map<String, ColumnType> columnTypes;
+        /**
+         * The converter of the column names.
+         */
+        private TypeConverter           nameConverter;
+        /**
+         * The buffer of loaded pages.
+         */
+        private LinkedList<Page>        pages;
+        /**
+         * Indicates if the load has been stopped.
+         */
+        private boolean                 completed;
+        /**
+         * Indicates if the load has been canceled.
+         */
+        private boolean                 canceled;
+        /**
+         * The number of rows requested from the region server in a single call by the hbase scanner.
+         */
+        private int                     caching;
+        /**
+         * The maximum size of the response of the region server set on the hbase scanner.
+         */
+        private long                    maxResultSize;
+        //endregion
+
+        //region Constructor
+
+        /**
+         * Initializes a new instance of the {@link Prefetch} class.
+         *
+         * @param startKey      The key of the row the first page should start after.
+         * @param scanner       The hbase scanner positioned right after the start key. This parameter can be null.
+         * @param scan          The settings of the scanner to open if the hbase scanner is not provided.
+         * @param rowsNumber    The number of rows in each page.
+         * @param pagesNumber   The maximum number of pages in the buffer.
+         * @param columnTypes   The map of column types used to create the cells.
+         * @param nameConverter The converter of the column names.
+         */
+        private Prefetch(
+            byte[] startKey, ResultScanner scanner, Scan scan, int rowsNumber, int pagesNumber, Map<String, ColumnType> columnTypes,
+            TypeConverter nameConverter) {
+            this.startKey = startKey;
+            this.scanner = scanner;
+            this.scan = scan;
+            this.rowsNumber = rowsNumber;
+            this.pagesNumber = pagesNumber;
+            this.columnTypes = columnTypes;
+            this.nameConverter = nameConverter;
+            this.pages = new LinkedList<Page>();
+            this.caching = scan != null ? scan.getCaching() : statistics.getCaching();
+            this.maxResultSize = scan != null ? scan.getMaxResultSize() : statistics.getMaxResultSize();
+        }
+        //endregion
+
+        //region Public Methods
+
+        /**
+         * Checks whether the load provides the pages following the specified key.
+         *
+         * @param key The key of the last loaded row.
+         * @return True if the buffer contains or is going to contain the page following the key or False otherwise.
+         */
+        public synchronized boolean continuesFrom(byte[] key) {
+            return Arrays.equals(this.startKey, key) && (!this.completed || !this.pages.isEmpty());
+        }
+
+        /**
+         * Takes the next page from the buffer. If the page is still being loaded the method waits for it.
+         *
+         * @param key        The key of the last loaded row.
+         * @param rowsNumber The number of rows in the page.
+         * @return The page following the key or null if the buffer doesn't contain such page.
+         */
+        public synchronized Page take(byte[] key, int rowsNumber) {
+            if (this.rowsNumber != rowsNumber || !Arrays.equals(this.startKey, key)) {
+                return null;
+            }
+
+            try {
+                while (this.pages.isEmpty() && !this.completed) {
+                    wait();
+                }
+            }
+            catch (InterruptedException ignore) {
+                Thread.currentThread().interrupt();
+            }
+
+            if (this.pages.isEmpty()) {
+                return null;
+            }
+
+            Page page = this.pages.removeFirst();
+            if (page.lastKey != null) {
+                this.startKey = page.lastKey.getValue();
+            }
+
+            notifyAll();
+
+            return page;
+        }
+
+        /**
+         * Stops the load.
+         */
+        public synchronized void cancel() {
+            this.canceled = true;
+            this.pages.clear();
+
+            notifyAll();
+        }
+
+        @Override
+        public Object run() throws Exception {
+            ResultScanner localScanner = this.scanner;
+            HTable table = null;
+
+            try {
+                long offset = 0;
+
+                if (localScanner == null) {
+                    // HTable is not thread safe so the background load uses its own instance.
+                    table = connection.getTableFactory().create(tableName);
+                    localScanner = openScanner(table, this.scan);
+
+                    // skip the row the page starts after.
+                    offset = 1;
+                }
+
+                boolean hasMore = true;
+                while (hasMore && waitForSpace()) {
+                    Page page = new Page();
+                    page.statistics.setScanSettings(this.caching, this.maxResultSize);
+                    page.lastKey = loadRows(
+                        localScanner, offset, this.rowsNumber, page.rows, page.columns, this.columnTypes, this.nameConverter, page.statistics);
+
+                    offset = 0;
+                    hasMore = page.rows.size() == this.rowsNumber;
+
+                    synchronized (this) {
+                        if (!this.canceled) {
+                            this.pages.add(page);
+                        }
+                        notifyAll();
+                    }
+                }
+            }
+            finally {
+                if (localScanner != null) {
+                    localScanner.close();
+                }
+
+                try {
+                    if (table != null) {
+                        table.close();
+                    }
+                }
+                finally {
+                    synchronized (this) {
+                        this.completed = true;
+                        notifyAll();
+                    }
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public void onError(Exception ex) {
+            logger.warn(ex, "Failed to load the next page of the '%s' table in the background.", tableName);
+        }
+        //endregion
+
+        //region Private Methods
+
+        /**
+         * Waits until there is a free space in the buffer.
+         *
+         * @return True if the next page should be loaded or False if the load is canceled or idle for too long.
+         * @throws InterruptedException The thread has been interrupted.
+         */
+        private synchronized boolean waitForSpace() throws InterruptedException {
+            long deadline = System.currentTimeMillis() + GlobalConfig.instance().getScannerSessionTimeout();
+
+            while (!this.canceled && this.pages.size() >= this.pagesNumber) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    // The lease of the scanner is about to expire on the region server.
+                    return false;
+                }
+
+                wait(remaining);
+            }
+            return !this.canceled;
+        }
+        //endregion
+    }
+
     /**
      * Represents a marking point between the batches of loaded rows. Each time a new batch of rows is loaded this class holds the last key to
      * start loading the next batch.
@@ -717,6 +2276,26 @@ public class Scanner {
          * A list of columns loaded from the rows.
          */
         private Collection<ColumnQualifier> columns;
+        /**
+         * The binary names of the columns the rows have been loaded with or null if the rows have been loaded with all the columns.
+         */
+        private Set<String>                 projection;
+        /**
+         * The key of the first loaded row. Used to load the rows again once they have been released.
+         */
+        private byte[]                      firstKey;
+        /**
+         * The number of loaded rows.
+         */
+        private int                         rowsNumber;
+        /**
+         * The estimated size of the loaded rows in bytes.
+         */
+        private long                        size;
+        /**
+         * The number of columns of each row requested so far in the wide row mode.
+         */
+        private int                         columnsOffset;
         //endregion
 
         //region Constructor
@@ -724,14 +2303,21 @@ public class Scanner {
         /**
          * Initializes a new instance of the {@link Marker} class.
          *
-         * @param key     The last loaded key.
-         * @param rows    A list of loaded rows.
-         * @param columns A list of columns loaded from the rows.
+         * @param key        The last loaded key.
+         * @param rows       A list of loaded rows.
+         * @param columns    A list of columns loaded from the rows.
+         * @param projection The binary names of the columns the rows have been loaded with. This parameter can be null.
          */
-        private Marker(ConvertibleObject key, Collection<DataRow> rows, Collection<ColumnQualifier> columns) {
+        private Marker(ConvertibleObject key, Collection<DataRow> rows, Collection<ColumnQualifier> columns, Set<String> projection) {
             this.key = key;
             this.rows = rows;
             this.columns = columns;
+            this.projection = projection;
+            this.rowsNumber = rows.size();
+
+            if (!rows.isEmpty()) {
+                this.firstKey = rows.iterator().next().getKey().getValue();
+            }
         }
         //endregion
 
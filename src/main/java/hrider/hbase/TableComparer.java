@@ -0,0 +1,518 @@
+package hrider.hbase;
+
+import hrider.actions.DaemonThreadFactory;
+import hrider.config.GlobalConfig;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.client.Delete;
+import org.apache.hadoop.hbase.client.HTable;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents an operation comparing two tables which can be located on different clusters. The key space is split by
+ *          the region boundaries of both tables and each key range is hashed on both sides in parallel. Only the ranges which hashes differ
+ *          are scanned again to find the different rows. The target table can be synchronized with the source table by writing the
+ *          different cells to it and deleting the cells missing in the source table.
+ */
+public class TableComparer {
+
+    //region Constants
+    /**
+     * The algorithm used to hash the key ranges.
+     */
+    private static final String HASH_ALGORITHM = "MD5";
+    //endregion
+
+    //region Variables
+    /**
+     * The connection to the cluster where the source table is located.
+     */
+    private Connection sourceCluster;
+    /**
+     * The name of the source table.
+     */
+    private String     sourceTable;
+    /**
+     * The connection to the cluster where the target table is located.
+     */
+    private Connection targetCluster;
+    /**
+     * The name of the target table.
+     */
+    private String     targetTable;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link TableComparer} class.
+     *
+     * @param sourceCluster The connection to the cluster where the source table is located.
+     * @param sourceTable   The name of the source table.
+     * @param targetCluster The connection to the cluster where the target table is located.
+     * @param targetTable   The name of the target table.
+     */
+    public TableComparer(Connection sourceCluster, String sourceTable, Connection targetCluster, String targetTable) {
+        this.sourceCluster = sourceCluster;
+        this.sourceTable = sourceTable;
+        this.targetCluster = targetCluster;
+        this.targetTable = targetTable;
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Compares the latest versions of the cells of the tables.
+     *
+     * @return The result of the comparison.
+     * @throws IOException Error accessing hbase on one of the clusters or on both clusters.
+     */
+    public TableComparison compare() throws IOException {
+        HTable source = this.sourceCluster.getTableFactory().get(this.sourceTable);
+        HTable target = this.targetCluster.getTableFactory().get(this.targetTable);
+
+        // Each range is located within a single region of both tables.
+        List<KeyRange> ranges = new ArrayList<KeyRange>();
+        for (KeyRange region : KeyRange.fromRegions(source, null, null)) {
+            ranges.addAll(KeyRange.fromRegions(target, region.getStartKey(), region.getStopKey()));
+        }
+
+        TableComparison comparison = new TableComparison(ranges.size());
+
+        AtomicBoolean canceled = new AtomicBoolean();
+
+        List<Callable<byte[]>> hashers = new ArrayList<Callable<byte[]>>();
+        for (KeyRange range : ranges) {
+            hashers.add(new RangeHasher(this.sourceCluster, this.sourceTable, range, canceled));
+            hashers.add(new RangeHasher(this.targetCluster, this.targetTable, range, canceled));
+        }
+
+        List<byte[]> hashes = execute(hashers, canceled);
+        for (int i = 0 ; i < ranges.size() ; i++) {
+            if (!Arrays.equals(hashes.get(2 * i), hashes.get(2 * i + 1))) {
+                comparison.addDifferentRange(ranges.get(i));
+            }
+        }
+
+        diff(comparison, false);
+        return comparison;
+    }
+
+    /**
+     * Synchronizes the target table with the source table. Only the key ranges found different by the comparison are scanned again.
+     *
+     * @param comparison The result of the previous comparison of the tables.
+     * @return The result of the comparison including the number of the synchronized rows.
+     * @throws IOException Error accessing hbase on one of the clusters or on both clusters.
+     */
+    public TableComparison sync(TableComparison comparison) throws IOException {
+        TableComparison result = new TableComparison(comparison.getRangesCount());
+        for (KeyRange range : comparison.getDifferentRanges()) {
+            result.addDifferentRange(range);
+        }
+
+        try {
+            diff(result, true);
+        }
+        finally {
+            this.targetCluster.invalidateTable(this.targetTable);
+        }
+        return result;
+    }
+    //endregion
+
+    //region Private Methods
+
+    /**
+     * Scans the different key ranges of both tables again and records the different rows.
+     *
+     * @param comparison The result of the comparison containing the different ranges.
+     * @param sync       Indicates whether the target table should be synchronized with the source table.
+     * @throws IOException Error accessing hbase on one of the clusters or on both clusters.
+     */
+    private void diff(TableComparison comparison, boolean sync) throws IOException {
+        AtomicBoolean canceled = new AtomicBoolean();
+
+        List<Callable<Long>> differs = new ArrayList<Callable<Long>>();
+        for (KeyRange range : comparison.getDifferentRanges()) {
+            differs.add(new RangeDiffer(range, comparison, sync, canceled));
+        }
+
+        execute(differs, canceled);
+    }
+
+    /**
+     * Runs the tasks on the thread pool and waits for the results. If one of the tasks fails the rest of the tasks are stopped.
+     *
+     * @param tasks    The tasks to run.
+     * @param canceled The flag the tasks check to stop.
+     * @param <T>      The type of the results of the tasks.
+     * @return The results of the tasks in the order of the tasks.
+     * @throws IOException Error accessing hbase on one of the clusters or on both clusters.
+     */
+    private <T> List<T> execute(List<Callable<T>> tasks, AtomicBoolean canceled) throws IOException {
+        List<T> results = new ArrayList<T>();
+        if (tasks.isEmpty()) {
+            return results;
+        }
+
+        int threads = Math.max(1, Math.min(tasks.size(), GlobalConfig.instance().getCompareThreads()));
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new DaemonThreadFactory(this.targetTable + "-compare"));
+        try {
+            List<Future<T>> futures = new ArrayList<Future<T>>();
+            for (Callable<T> task : tasks) {
+                futures.add(executor.submit(task));
+            }
+
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(String.format("The comparison of the '%s' table has been interrupted.", this.sourceTable));
+        }
+        catch (ExecutionException e) {
+            throw new IOException(
+                String.format("Failed to compare the '%s' table with the '%s' table.", this.sourceTable, this.targetTable), e.getCause());
+        }
+        finally {
+            canceled.set(true);
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Compares the cells of the same row taken from both tables. The cells are expected to be sorted as returned by hbase.
+     *
+     * @param sourceCells The cells of the source row.
+     * @param targetCells The cells of the target row.
+     * @param put         The put the source cells missing or different in the target row are added to.
+     * @param delete      The delete the target cells missing in the source row are added to.
+     * @return True if the cells differ or False otherwise.
+     */
+    private static boolean diffCells(List<KeyValue> sourceCells, List<KeyValue> targetCells, Put put, Delete delete) {
+        boolean different = false;
+
+        int sourceIndex = 0;
+        int targetIndex = 0;
+
+        while (sourceIndex < sourceCells.size() || targetIndex < targetCells.size()) {
+            KeyValue source = sourceIndex < sourceCells.size() ? sourceCells.get(sourceIndex) : null;
+            KeyValue target = targetIndex < targetCells.size() ? targetCells.get(targetIndex) : null;
+
+            int result;
+            if (source == null) {
+                result = 1;
+            }
+            else if (target == null) {
+                result = -1;
+            }
+            else {
+                result = KeyValue.COMPARATOR.compare(source, target);
+            }
+
+            if (result < 0) {
+                put.add(CellUtil.cloneFamily(source), CellUtil.cloneQualifier(source), source.getTimestamp(), CellUtil.cloneValue(source));
+                sourceIndex++;
+                different = true;
+            }
+            else if (result > 0) {
+                // Only the version missing in the source is deleted from the target.
+                delete.deleteColumn(CellUtil.cloneFamily(target), CellUtil.cloneQualifier(target), target.getTimestamp());
+                targetIndex++;
+                different = true;
+            }
+            else {
+                if (!Bytes.equals(
+                    source.getValueArray(), source.getValueOffset(), source.getValueLength(),
+                    target.getValueArray(), target.getValueOffset(), target.getValueLength())) {
+                    put.add(
+                        CellUtil.cloneFamily(source), CellUtil.cloneQualifier(source), source.getTimestamp(), CellUtil.cloneValue(source));
+                    different = true;
+                }
+                sourceIndex++;
+                targetIndex++;
+            }
+        }
+        return different;
+    }
+
+    /**
+     * Writes the buffered puts and deletes to the target table.
+     *
+     * @param target  The target table.
+     * @param puts    The puts which have not been added to the table yet.
+     * @param deletes The deletes which have not been applied to the table yet.
+     * @throws IOException Error accessing hbase.
+     */
+    private static void flush(HTable target, List<Put> puts, List<Delete> deletes) throws IOException {
+        if (!puts.isEmpty()) {
+            target.put(puts);
+            puts.clear();
+        }
+        target.flushCommits();
+
+        if (!deletes.isEmpty()) {
+            target.delete(deletes);
+            deletes.clear();
+        }
+    }
+    //endregion
+
+    /**
+     * Represents a task hashing the latest versions of the cells of a single key range of the table.
+     */
+    private static class RangeHasher implements Callable<byte[]> {
+
+        //region Variables
+        /**
+         * The connection to the cluster where the table is located.
+         */
+        private Connection    cluster;
+        /**
+         * The name of the table.
+         */
+        private String        tableName;
+        /**
+         * The range of keys to hash.
+         */
+        private KeyRange      range;
+        /**
+         * Indicates if the whole comparison has been stopped.
+         */
+        private AtomicBoolean canceled;
+        //endregion
+
+        //region Constructor
+
+        /**
+         * Initializes a new instance of the {@link RangeHasher} class.
+         *
+         * @param cluster   The connection to the cluster where the table is located.
+         * @param tableName The name of the table.
+         * @param range     The range of keys to hash.
+         * @param canceled  Indicates if the whole comparison has been stopped.
+         */
+        private RangeHasher(Connection cluster, String tableName, KeyRange range, AtomicBoolean canceled) {
+            this.cluster = cluster;
+            this.tableName = tableName;
+            this.range = range;
+            this.canceled = canceled;
+        }
+        //endregion
+
+        //region Public Methods
+        @Override
+        public byte[] call() throws Exception {
+            MessageDigest digest = MessageDigest.getInstance(HASH_ALGORITHM);
+
+            // HTable is not thread safe so each range is hashed through its own instance.
+            HTable table = this.cluster.getTableFactory().create(this.tableName);
+            try {
+                BulkScanner scanner = new BulkScanner(
+                    table, ScanProfile.Bulk, this.cluster.getRowSizeEstimator(this.tableName), this.range);
+                try {
+                    Result result = scanner.next();
+                    while (result != null && !this.canceled.get()) {
+                        // The key of the cell contains the row, the column and the timestamp.
+                        for (KeyValue kv : result.list()) {
+                            digest.update(Bytes.toBytes(kv.getKeyLength()));
+                            digest.update(kv.getBuffer(), kv.getKeyOffset(), kv.getKeyLength());
+                            digest.update(Bytes.toBytes(kv.getValueLength()));
+                            digest.update(kv.getBuffer(), kv.getValueOffset(), kv.getValueLength());
+                        }
+
+                        result = scanner.next();
+                    }
+                }
+                finally {
+                    scanner.close();
+                }
+            }
+            finally {
+                table.close();
+            }
+            return digest.digest();
+        }
+        //endregion
+    }
+
+    /**
+     * Represents a task scanning a single key range of both tables side by side and recording the different rows.
+     */
+    private class RangeDiffer implements Callable<Long> {
+
+        //region Variables
+        /**
+         * The range of keys to compare.
+         */
+        private KeyRange        range;
+        /**
+         * The result of the comparison the different rows are recorded to.
+         */
+        private TableComparison comparison;
+        /**
+         * Indicates whether the target table should be synchronized with the source table.
+         */
+        private boolean         sync;
+        /**
+         * Indicates if the whole comparison has been stopped.
+         */
+        private AtomicBoolean   canceled;
+        //endregion
+
+        //region Constructor
+
+        /**
+         * Initializes a new instance of the {@link RangeDiffer} class.
+         *
+         * @param range      The range of keys to compare.
+         * @param comparison The result of the comparison the different rows are recorded to.
+         * @param sync       Indicates whether the target table should be synchronized with the source table.
+         * @param canceled   Indicates if the whole comparison has been stopped.
+         */
+        private RangeDiffer(KeyRange range, TableComparison comparison, boolean sync, AtomicBoolean canceled) {
+            this.range = range;
+            this.comparison = comparison;
+            this.sync = sync;
+            this.canceled = canceled;
+        }
+        //endregion
+
+        //region Public Methods
+        @Override
+        public Long call() throws Exception {
+            long differentRows = 0;
+
+            HTable source = sourceCluster.getTableFactory().create(sourceTable);
+            HTable target = targetCluster.getTableFactory().create(targetTable);
+            try {
+                // The changes are written the same way the copied rows are.
+                target.setAutoFlush(false, true);
+
+                // The rows are compared as a whole. The batched scans could split the same row into different parts on each side.
+                BulkScanner sourceScanner = new BulkScanner(
+                    source, ScanProfile.Bulk, sourceCluster.getRowSizeEstimator(sourceTable), this.range, null, true);
+                try {
+                    BulkScanner targetScanner = new BulkScanner(
+                        target, ScanProfile.Bulk, targetCluster.getRowSizeEstimator(targetTable), this.range, null, true);
+                    try {
+                        List<Put> puts = new ArrayList<Put>();
+                        List<Delete> deletes = new ArrayList<Delete>();
+
+                        int batchSize = GlobalConfig.instance().getBatchSizeForWrite();
+
+                        Result sourceRow = sourceScanner.next();
+                        Result targetRow = targetScanner.next();
+
+                        while ((sourceRow != null || targetRow != null) && !this.canceled.get()) {
+                            int result;
+                            if (sourceRow == null) {
+                                result = 1;
+                            }
+                            else if (targetRow == null) {
+                                result = -1;
+                            }
+                            else {
+                                result = Bytes.compareTo(sourceRow.getRow(), targetRow.getRow());
+                            }
+
+                            byte[] key = result <= 0 ? sourceRow.getRow() : targetRow.getRow();
+
+                            List<KeyValue> sourceCells = result <= 0 ? sourceRow.list() : Collections.<KeyValue>emptyList();
+                            List<KeyValue> targetCells = result >= 0 ? targetRow.list() : Collections.<KeyValue>emptyList();
+
+                            Put put = new Put(key);
+                            Delete delete = new Delete(key);
+
+                            if (diffCells(sourceCells, targetCells, put, delete)) {
+                                if (result < 0) {
+                                    this.comparison.addMissingInTarget(key);
+                                }
+                                else if (result > 0) {
+                                    this.comparison.addMissingInSource(key);
+                                }
+                                else {
+                                    this.comparison.addDifferentRow(key);
+                                }
+
+                                differentRows++;
+
+                                if (this.sync) {
+                                    if (!put.isEmpty()) {
+                                        puts.add(put);
+                                    }
+
+                                    if (!delete.isEmpty()) {
+                                        deletes.add(delete);
+                                    }
+
+                                    if (puts.size() >= batchSize || deletes.size() >= batchSize) {
+                                        flush(target, puts, deletes);
+                                    }
+
+                                    this.comparison.addSyncedRow();
+                                }
+                            }
+
+                            if (result <= 0) {
+                                sourceRow = sourceScanner.next();
+                            }
+
+                            if (result >= 0) {
+                                targetRow = targetScanner.next();
+                            }
+                        }
+
+                        flush(target, puts, deletes);
+                    }
+                    finally {
+                        targetScanner.close();
+                    }
+                }
+                finally {
+                    sourceScanner.close();
+                }
+            }
+            finally {
+                target.close();
+                source.close();
+            }
+            return differentRows;
+        }
+        //endregion
+    }
+}
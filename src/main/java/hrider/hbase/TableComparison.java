@@ -0,0 +1,238 @@
+package hrider.hbase;
+
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents the result of the comparison of two tables. The result contains the key ranges which hashes differ and the
+ *          number of the rows found different when these ranges are scanned again.
+ */
+public class TableComparison {
+
+    //region Constants
+    /**
+     * The maximum number of the keys of the different rows kept for the presentation.
+     */
+    private static final int MAX_KEYS = 100;
+    //endregion
+
+    //region Variables
+    /**
+     * The number of compared key ranges.
+     */
+    private int            rangesCount;
+    /**
+     * The key ranges which hashes differ.
+     */
+    private List<KeyRange> differentRanges;
+    /**
+     * The number of rows found only in the source table.
+     */
+    private long           missingInTarget;
+    /**
+     * The number of rows found only in the target table.
+     */
+    private long           missingInSource;
+    /**
+     * The number of rows which cells differ.
+     */
+    private long           differentRows;
+    /**
+     * The number of rows of the target table which have been synchronized with the source table.
+     */
+    private long           syncedRows;
+    /**
+     * The keys of the first different rows.
+     */
+    private List<String>   keys;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link TableComparison} class.
+     *
+     * @param rangesCount The number of compared key ranges.
+     */
+    public TableComparison(int rangesCount) {
+        this.rangesCount = rangesCount;
+        this.differentRanges = new ArrayList<KeyRange>();
+        this.keys = new ArrayList<String>();
+    }
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Gets the number of compared key ranges.
+     *
+     * @return The number of ranges.
+     */
+    public synchronized int getRangesCount() {
+        return this.rangesCount;
+    }
+
+    /**
+     * Gets the key ranges which hashes differ.
+     *
+     * @return A list of ranges ordered by the keys.
+     */
+    public synchronized List<KeyRange> getDifferentRanges() {
+        return new ArrayList<KeyRange>(this.differentRanges);
+    }
+
+    /**
+     * Gets the number of rows found only in the source table.
+     *
+     * @return The number of rows.
+     */
+    public synchronized long getMissingInTarget() {
+        return this.missingInTarget;
+    }
+
+    /**
+     * Gets the number of rows found only in the target table.
+     *
+     * @return The number of rows.
+     */
+    public synchronized long getMissingInSource() {
+        return this.missingInSource;
+    }
+
+    /**
+     * Gets the number of rows found in both tables which cells differ.
+     *
+     * @return The number of rows.
+     */
+    public synchronized long getDifferentRows() {
+        return this.differentRows;
+    }
+
+    /**
+     * Gets the number of rows of the target table which have been synchronized with the source table.
+     *
+     * @return The number of rows.
+     */
+    public synchronized long getSyncedRows() {
+        return this.syncedRows;
+    }
+
+    /**
+     * Gets the keys of the first different rows.
+     *
+     * @return A list of keys in the printable format.
+     */
+    public synchronized List<String> getKeys() {
+        return new ArrayList<String>(this.keys);
+    }
+
+    /**
+     * Checks whether the tables contain the same data.
+     *
+     * @return True if no differences have been found or False otherwise.
+     */
+    public synchronized boolean isEqual() {
+        return this.differentRanges.isEmpty();
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Records the range which hashes differ.
+     *
+     * @param range The range of keys.
+     */
+    public synchronized void addDifferentRange(KeyRange range) {
+        this.differentRanges.add(range);
+    }
+
+    /**
+     * Records the row found only in the source table.
+     *
+     * @param key The key of the row.
+     */
+    public synchronized void addMissingInTarget(byte[] key) {
+        this.missingInTarget++;
+        addKey(key);
+    }
+
+    /**
+     * Records the row found only in the target table.
+     *
+     * @param key The key of the row.
+     */
+    public synchronized void addMissingInSource(byte[] key) {
+        this.missingInSource++;
+        addKey(key);
+    }
+
+    /**
+     * Records the row found in both tables which cells differ.
+     *
+     * @param key The key of the row.
+     */
+    public synchronized void addDifferentRow(byte[] key) {
+        this.differentRows++;
+        addKey(key);
+    }
+
+    /**
+     * Records the row of the target table which has been synchronized with the source table.
+     */
+    public synchronized void addSyncedRow() {
+        this.syncedRows++;
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("%d of %d key ranges differ", this.differentRanges.size(), this.rangesCount));
+
+        if (!this.differentRanges.isEmpty()) {
+            builder.append(
+                String.format(
+                    "; %d rows missing in the target, %d rows missing in the source, %d rows differ", this.missingInTarget,
+                    this.missingInSource, this.differentRows));
+        }
+
+        if (this.syncedRows > 0) {
+            builder.append(String.format("; %d rows synchronized", this.syncedRows));
+        }
+        return builder.toString();
+    }
+    //endregion
+
+    //region Private Methods
+
+    /**
+     * Keeps the key of the different row if the maximum number of the kept keys has not been reached yet.
+     *
+     * @param key The key of the row.
+     */
+    private void addKey(byte[] key) {
+        if (this.keys.size() < MAX_KEYS) {
+            this.keys.add(Bytes.toStringBinary(key));
+        }
+    }
+    //endregion
+}
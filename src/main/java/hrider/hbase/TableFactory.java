@@ -71,6 +71,17 @@ public class TableFactory {
         return table;
     }
 
+    /**
+     * Creates a new table which is not cached by the factory. The {@link HTable} is not thread safe so the operations running in parallel
+     * should use their own instance. The caller is responsible to close the table.
+     * @param tableName The name of the table to create.
+     * @return A new instance of the {@link HTable}.
+     * @throws IOException Error accessing hbase.
+     */
+    public HTable create(String tableName) throws IOException {
+        return new HTable(this.config, tableName);
+    }
+
     /**
      * Cleans the resources of the specified table.
      * @param tableName The name of the table to dispose.
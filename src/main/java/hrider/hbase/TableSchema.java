@@ -0,0 +1,136 @@
+package hrider.hbase;
+
+import hrider.converters.TypeConverter;
+import hrider.data.ColumnQualifier;
+import hrider.data.ColumnType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents the columns discovered in the table. The column names are kept in their binary form so the schema
+ *          doesn't depend on the column name converter selected by the user.
+ */
+public class TableSchema {
+
+    //region Variables
+    /**
+     * The number of rows the columns have been collected from.
+     */
+    private int                  rowsNumber;
+    /**
+     * The set of discovered columns.
+     */
+    private Set<ColumnQualifier> columns;
+    /**
+     * Indicates if the rows of all the regions have been sampled for the columns.
+     */
+    private volatile boolean     sampled;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link TableSchema} class.
+     *
+     * @param rowsNumber The number of rows the columns have been collected from.
+     */
+    public TableSchema(int rowsNumber) {
+        this.rowsNumber = rowsNumber;
+        this.columns = new LinkedHashSet<ColumnQualifier>();
+    }
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Gets the number of rows the columns have been collected from.
+     *
+     * @return The number of rows.
+     */
+    public int getRowsNumber() {
+        return this.rowsNumber;
+    }
+
+    /**
+     * Checks whether the rows of all the regions have been sampled for the columns.
+     *
+     * @return True if the table has been sampled or False otherwise.
+     */
+    public boolean isSampled() {
+        return this.sampled;
+    }
+
+    /**
+     * Sets a value indicating whether the rows of all the regions have been sampled for the columns.
+     *
+     * @param sampled The value to set.
+     */
+    public void setSampled(boolean sampled) {
+        this.sampled = sampled;
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Adds a column to the schema.
+     *
+     * @param column The column to add.
+     * @return True if the column has not been in the schema or False otherwise.
+     */
+    public synchronized boolean addColumn(ColumnQualifier column) {
+        if (column.isKey()) {
+            return false;
+        }
+        return this.columns.add(new ColumnQualifier(column.getNameAsByteArray(), column.getColumnFamily(), ColumnType.BinaryString.getConverter()));
+    }
+
+    /**
+     * Gets the columns of the schema. The key column is always the first one.
+     *
+     * @param nameConverter The converter to be used to present the column names.
+     * @return A list of columns.
+     */
+    public synchronized List<ColumnQualifier> getColumns(TypeConverter nameConverter) {
+        List<ColumnQualifier> list = new ArrayList<ColumnQualifier>(this.columns.size() + 1);
+        list.add(ColumnQualifier.KEY);
+
+        for (ColumnQualifier column : this.columns) {
+            list.add(new ColumnQualifier(column.getNameAsByteArray(), column.getColumnFamily(), nameConverter));
+        }
+        return list;
+    }
+
+    /**
+     * Adds all the columns to the schema.
+     *
+     * @param columns The columns to add.
+     */
+    public synchronized void addColumns(Collection<ColumnQualifier> columns) {
+        for (ColumnQualifier column : columns) {
+            addColumn(column);
+        }
+    }
+    //endregion
+}
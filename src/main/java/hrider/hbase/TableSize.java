@@ -0,0 +1,136 @@
+package hrider.hbase;
+
+import org.apache.hadoop.hbase.RegionLoad;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents the size of the table calculated from the load metrics reported by the region servers.
+ */
+public class TableSize {
+
+    //region Constants
+    private static final long MEGABYTE = 1024L * 1024L;
+    //endregion
+
+    //region Variables
+    /**
+     * The total size of the store files in bytes.
+     */
+    private long storefileSize;
+    /**
+     * The total size of the store file indexes in bytes.
+     */
+    private long storefileIndexSize;
+    /**
+     * The total size of the memstores in bytes.
+     */
+    private long memstoreSize;
+    /**
+     * The number of regions which load has been reported.
+     */
+    private int  regionsCount;
+    /**
+     * The time the size has been calculated.
+     */
+    private long timestamp;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link TableSize} class.
+     */
+    public TableSize() {
+        this.timestamp = System.currentTimeMillis();
+    }
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Gets the total size of the store files.
+     *
+     * @return The size in bytes.
+     */
+    public long getStorefileSize() {
+        return this.storefileSize;
+    }
+
+    /**
+     * Gets the total size of the store file indexes.
+     *
+     * @return The size in bytes.
+     */
+    public long getStorefileIndexSize() {
+        return this.storefileIndexSize;
+    }
+
+    /**
+     * Gets the total size of the memstores.
+     *
+     * @return The size in bytes.
+     */
+    public long getMemstoreSize() {
+        return this.memstoreSize;
+    }
+
+    /**
+     * Gets the size of the data held by the table both on disk and in memory.
+     *
+     * @return The size in bytes.
+     */
+    public long getDataSize() {
+        return this.storefileSize + this.memstoreSize;
+    }
+
+    /**
+     * Gets the number of regions which load has been reported.
+     *
+     * @return The number of regions.
+     */
+    public int getRegionsCount() {
+        return this.regionsCount;
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Adds the load of the table region.
+     *
+     * @param load The load reported by the region server.
+     */
+    public void addRegion(RegionLoad load) {
+        this.storefileSize += load.getStorefileSizeMB() * MEGABYTE;
+        this.storefileIndexSize += load.getStorefileIndexSizeMB() * MEGABYTE;
+        this.memstoreSize += load.getMemStoreSizeMB() * MEGABYTE;
+        this.regionsCount++;
+    }
+
+    /**
+     * Checks whether the size has been calculated too long ago.
+     *
+     * @param timeout The amount of time the size is valid.
+     * @return True if the size should be calculated again or False otherwise.
+     */
+    public boolean isExpired(long timeout) {
+        return System.currentTimeMillis() - this.timestamp > timeout;
+    }
+    //endregion
+}
@@ -0,0 +1,242 @@
+package hrider.hbase;
+
+import hrider.data.ColumnType;
+import hrider.format.DateUtils;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.nio.charset.Charset;
+import java.text.DateFormat;
+import java.text.ParseException;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents a comparison of the values with a word according to the type of the column. The values are decoded to primitive
+ *          numbers so the negative numbers and the dates stored as strings are ordered correctly. The class also tells which comparisons give correct
+ *          results when the raw bytes are compared by the region servers.
+ */
+public class TypedComparator {
+
+    //region Constants
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    //endregion
+
+    //region Variables
+    /**
+     * The way the values are decoded and compared.
+     */
+    private Kind       kind;
+    /**
+     * The word encoded as bytes.
+     */
+    private byte[]     wordBytes;
+    /**
+     * The word decoded as an integer number. Used by the signed integer types and by the dates.
+     */
+    private long       longWord;
+    /**
+     * The word decoded as a floating point number.
+     */
+    private double     doubleWord;
+    /**
+     * The format of the dates stored as strings. The format is not thread safe so the access is synchronized.
+     */
+    private DateFormat dateFormat;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link TypedComparator} class.
+     *
+     * @param type The type of the column.
+     * @param word The word to compare the values with.
+     * @throws IllegalArgumentException The word cannot be converted to the type of the column.
+     */
+    public TypedComparator(ColumnType type, String word) {
+        this.kind = getKind(type);
+        this.wordBytes = type.toBytes(word);
+
+        if (this.kind == Kind.DateString) {
+            this.dateFormat = (DateFormat)DateUtils.getDefaultDateFormat().clone();
+        }
+
+        switch (this.kind) {
+            case Signed:
+            case DateString:
+                this.longWord = toLong(this.wordBytes);
+                break;
+            case Floating:
+                this.doubleWord = toDouble(this.wordBytes);
+                break;
+            default:
+                break;
+        }
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Checks if the values of the type are ordered the same way as their bytes.
+     *
+     * @param type The type of the column.
+     * @return True if the byte comparison gives the correct order or False otherwise.
+     */
+    public static boolean isOrderSafe(ColumnType type) {
+        return getKind(type) == Kind.Raw;
+    }
+
+    /**
+     * Checks if the values of the column are ordered the same way as their bytes.
+     *
+     * @return True if the byte comparison gives the correct order or False otherwise.
+     */
+    public boolean isOrderSafe() {
+        return this.kind == Kind.Raw;
+    }
+
+    /**
+     * Checks if the byte comparison done by the region servers returns at least all the values satisfying the operator. For example the
+     * negative numbers are greater than the positive ones when compared as bytes, so <code>value &gt; 5</code> returns the right positive
+     * values and all the negative ones. The extra values are rejected on the client.
+     *
+     * @param operator The range operator.
+     * @return True if the byte comparison can be done on the region servers or False otherwise.
+     */
+    public boolean canPushDown(Operator operator) {
+        switch (this.kind) {
+            case Raw:
+                return true;
+            case Signed:
+                if (operator == Operator.Greater || operator == Operator.GreaterOrEqual) {
+                    return this.longWord >= 0;
+                }
+                // The negative numbers are ordered correctly among themselves and are smaller than any positive number.
+                return this.longWord < 0;
+            case Floating:
+                return (operator == Operator.Greater || operator == Operator.GreaterOrEqual) && this.doubleWord >= 0;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Compares the value with the word.
+     *
+     * @param value The value to compare.
+     * @return A negative number, zero, or a positive number as the value is less than, equal to, or greater than the word.
+     * @throws IllegalArgumentException The value cannot be decoded according to the type of the column.
+     */
+    public int compareTo(byte[] value) {
+        switch (this.kind) {
+            case Signed:
+            case DateString:
+                long longValue = toLong(value);
+                return longValue < this.longWord ? -1 : longValue == this.longWord ? 0 : 1;
+            case Floating:
+                return Double.compare(toDouble(value), this.doubleWord);
+            default:
+                return Bytes.compareTo(value, this.wordBytes);
+        }
+    }
+    //endregion
+
+    //region Private Methods
+
+    /**
+     * Gets the way the values of the type are decoded and compared.
+     *
+     * @param type The type of the column.
+     * @return The kind of the comparison.
+     */
+    private static Kind getKind(ColumnType type) {
+        if (ColumnType.Integer.equals(type) || ColumnType.Long.equals(type) || ColumnType.Short.equals(type) || ColumnType.DateAsLong.equals(type)) {
+            return Kind.Signed;
+        }
+
+        if (ColumnType.Double.equals(type) || ColumnType.Float.equals(type)) {
+            return Kind.Floating;
+        }
+
+        if (ColumnType.DateAsString.equals(type)) {
+            return Kind.DateString;
+        }
+        return Kind.Raw;
+    }
+
+    /**
+     * Decodes the value as an integer number or as a date.
+     *
+     * @param value The value to decode.
+     * @return The decoded value.
+     * @throws IllegalArgumentException The value cannot be decoded.
+     */
+    private long toLong(byte[] value) {
+        if (this.kind == Kind.DateString) {
+            synchronized (this.dateFormat) {
+                try {
+                    return this.dateFormat.parse(new String(value, UTF8)).getTime();
+                }
+                catch (ParseException e) {
+                    throw new IllegalArgumentException(e.getMessage(), e);
+                }
+            }
+        }
+
+        switch (value.length) {
+            case Bytes.SIZEOF_LONG:
+                return Bytes.toLong(value);
+            case Bytes.SIZEOF_INT:
+                return Bytes.toInt(value);
+            case Bytes.SIZEOF_SHORT:
+                return Bytes.toShort(value);
+            default:
+                throw new IllegalArgumentException(String.format("The value of %d bytes is not an integer number.", value.length));
+        }
+    }
+
+    /**
+     * Decodes the value as a floating point number.
+     *
+     * @param value The value to decode.
+     * @return The decoded value.
+     * @throws IllegalArgumentException The value cannot be decoded.
+     */
+    private static double toDouble(byte[] value) {
+        switch (value.length) {
+            case Bytes.SIZEOF_DOUBLE:
+                return Bytes.toDouble(value);
+            case Bytes.SIZEOF_FLOAT:
+                return Bytes.toFloat(value);
+            default:
+                throw new IllegalArgumentException(String.format("The value of %d bytes is not a floating point number.", value.length));
+        }
+    }
+    //endregion
+
+    /**
+     * Represents the way the values are decoded and compared.
+     */
+    private enum Kind {
+        Raw,
+        Signed,
+        Floating,
+        DateString
+    }
+}
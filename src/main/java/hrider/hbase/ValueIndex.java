@@ -0,0 +1,476 @@
+package hrider.hbase;
+
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.*;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents a local index of the values of a single column. The index is a file holding the pairs of the values and the
+ *          keys of the rows containing them sorted by the value. The file is mapped into the memory and searched with the binary search so the
+ *          keys of the rows with the specified value can be found without scanning the table.
+ *          <p/>
+ *          The file consists of the header, the offsets of the entries and the entries themselves:
+ *          <pre>
+ *          int magic, int version, long timestamp, string table, string family, string column, int count
+ *          int offset[count]
+ *          (int value length, byte[] value, int key length, byte[] key)[count]
+ *          </pre>
+ *          The strings are written as the length followed by the UTF-8 bytes. The offsets are relative to the beginning of the entries.
+ */
+public class ValueIndex {
+
+    //region Constants
+    /**
+     * The extension of the index files.
+     */
+    public static final String  FILE_EXTENSION = ".idx";
+
+    private static final int     MAGIC          = 0x48524958;
+    private static final int     VERSION        = 1;
+    private static final Charset UTF8           = Charset.forName("UTF-8");
+    //endregion
+
+    //region Variables
+    /**
+     * The file holding the index.
+     */
+    private File             file;
+    /**
+     * The name of the indexed table.
+     */
+    private String           tableName;
+    /**
+     * The name of the family of the indexed column.
+     */
+    private String           family;
+    /**
+     * The name of the indexed column.
+     */
+    private String           column;
+    /**
+     * The time the table has been scanned up to. The cells written after this time are not indexed.
+     */
+    private long             timestamp;
+    /**
+     * The number of entries in the index.
+     */
+    private int              count;
+    /**
+     * The position of the offsets of the entries in the file.
+     */
+    private int              offsetsPosition;
+    /**
+     * The position of the entries in the file.
+     */
+    private int              entriesPosition;
+    /**
+     * The memory mapped content of the file.
+     */
+    private MappedByteBuffer buffer;
+    /**
+     * Indicates whether the table has been changed through the connection after the index was built.
+     */
+    private volatile boolean stale;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link ValueIndex} class.
+     *
+     * @param file The file holding the index.
+     * @throws IOException Error reading the file or the file doesn't hold an index.
+     */
+    private ValueIndex(File file) throws IOException {
+        this.file = file;
+
+        RandomAccessFile stream = new RandomAccessFile(file, "r");
+        try {
+            if (stream.length() > Integer.MAX_VALUE) {
+                throw new IOException(String.format("The index file '%s' is too large.", file.getName()));
+            }
+            this.buffer = stream.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, stream.length());
+        }
+        finally {
+            stream.close();
+        }
+
+        if (this.buffer.remaining() < 8 || this.buffer.getInt() != MAGIC || this.buffer.getInt() != VERSION) {
+            throw new IOException(String.format("The file '%s' is not a value index.", file.getName()));
+        }
+
+        this.timestamp = this.buffer.getLong();
+        this.tableName = readString(this.buffer);
+        this.family = readString(this.buffer);
+        this.column = readString(this.buffer);
+        this.count = this.buffer.getInt();
+        this.offsetsPosition = this.buffer.position();
+        this.entriesPosition = this.offsetsPosition + this.count * Bytes.SIZEOF_INT;
+    }
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Gets the file holding the index.
+     *
+     * @return The index file.
+     */
+    public File getFile() {
+        return this.file;
+    }
+
+    /**
+     * Gets the name of the indexed table.
+     *
+     * @return The name of the table.
+     */
+    public String getTableName() {
+        return this.tableName;
+    }
+
+    /**
+     * Gets the name of the family of the indexed column.
+     *
+     * @return The name of the family.
+     */
+    public String getFamily() {
+        return this.family;
+    }
+
+    /**
+     * Gets the name of the indexed column.
+     *
+     * @return The name of the column.
+     */
+    public String getColumn() {
+        return this.column;
+    }
+
+    /**
+     * Gets the time the table has been scanned up to.
+     *
+     * @return The time in milliseconds.
+     */
+    public long getTimestamp() {
+        return this.timestamp;
+    }
+
+    /**
+     * Gets the number of entries in the index.
+     *
+     * @return The number of entries.
+     */
+    public int size() {
+        return this.count;
+    }
+
+    /**
+     * Checks whether the table has been changed through the connection after the index was built. The stale index could miss the new rows.
+     *
+     * @return True if the index should be refreshed before it is used or False otherwise.
+     */
+    public boolean isStale() {
+        return this.stale;
+    }
+
+    /**
+     * Marks the index as stale.
+     */
+    public void setStale() {
+        this.stale = true;
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Opens the index file.
+     *
+     * @param file The file holding the index.
+     * @return A new index.
+     * @throws IOException Error reading the file or the file doesn't hold an index.
+     */
+    public static ValueIndex open(File file) throws IOException {
+        return new ValueIndex(file);
+    }
+
+    /**
+     * Writes the index file. The entries are sorted and the duplicate entries are removed.
+     *
+     * @param file      The file to write the index to.
+     * @param tableName The name of the indexed table.
+     * @param family    The name of the family of the indexed column.
+     * @param column    The name of the indexed column.
+     * @param timestamp The time the table has been scanned up to.
+     * @param entries   The entries of the index.
+     * @return The written index.
+     * @throws IOException Error writing the file.
+     */
+    public static ValueIndex write(File file, String tableName, String family, String column, long timestamp, List<Entry> entries)
+        throws IOException {
+        Collections.sort(entries);
+
+        List<Entry> unique = new ArrayList<Entry>(entries.size());
+        for (Entry entry : entries) {
+            if (unique.isEmpty() || unique.get(unique.size() - 1).compareTo(entry) != 0) {
+                unique.add(entry);
+            }
+        }
+
+        DataOutputStream stream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+        try {
+            stream.writeInt(MAGIC);
+            stream.writeInt(VERSION);
+            stream.writeLong(timestamp);
+            writeString(stream, tableName);
+            writeString(stream, family);
+            writeString(stream, column);
+            stream.writeInt(unique.size());
+
+            long offset = 0;
+            for (Entry entry : unique) {
+                if (offset > Integer.MAX_VALUE) {
+                    throw new IOException(String.format("The index of the '%s' column is too large.", column));
+                }
+
+                stream.writeInt((int)offset);
+                offset += 2 * Bytes.SIZEOF_INT + entry.value.length + entry.key.length;
+            }
+
+            for (Entry entry : unique) {
+                stream.writeInt(entry.value.length);
+                stream.write(entry.value);
+                stream.writeInt(entry.key.length);
+                stream.write(entry.key);
+            }
+        }
+        finally {
+            stream.close();
+        }
+
+        return open(file);
+    }
+
+    /**
+     * Finds the keys of the rows with the value equal to or starting with the specified bytes.
+     *
+     * @param value   The value to look for.
+     * @param prefix  Indicates whether the value is a prefix of the values to look for.
+     * @param maxKeys The maximum number of keys to return.
+     * @return A sorted list of keys or null if there are more keys than the specified maximum. The list could contain the keys of the rows
+     *         which value has been changed since the index was built.
+     */
+    public List<byte[]> lookup(byte[] value, boolean prefix, int maxKeys) {
+        ByteBuffer localBuffer = this.buffer.duplicate();
+
+        // Find the first entry which value is not less than the searched one.
+        int low = 0;
+        int high = this.count;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (Bytes.compareTo(readValue(localBuffer, middle), value) < 0) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+
+        List<byte[]> keys = new ArrayList<byte[]>();
+        for (int i = low ; i < this.count ; i++) {
+            byte[] entryValue = readValue(localBuffer, i);
+            if (prefix ? !Bytes.startsWith(entryValue, value) : !Bytes.equals(entryValue, value)) {
+                break;
+            }
+
+            if (keys.size() == maxKeys) {
+                return null;
+            }
+
+            int keyLength = localBuffer.getInt();
+            byte[] key = new byte[keyLength];
+            localBuffer.get(key);
+
+            keys.add(key);
+        }
+
+        if (!prefix) {
+            return keys;
+        }
+
+        // The row could be indexed with several values starting with the prefix if the value has been changed.
+        Collections.sort(keys, Bytes.BYTES_COMPARATOR);
+
+        List<byte[]> uniqueKeys = new ArrayList<byte[]>(keys.size());
+        for (byte[] key : keys) {
+            if (uniqueKeys.isEmpty() || !Bytes.equals(uniqueKeys.get(uniqueKeys.size() - 1), key)) {
+                uniqueKeys.add(key);
+            }
+        }
+        return uniqueKeys;
+    }
+
+    /**
+     * Reads all the entries of the index.
+     *
+     * @return A list of entries.
+     */
+    public List<Entry> entries() {
+        ByteBuffer localBuffer = this.buffer.duplicate();
+
+        List<Entry> entries = new ArrayList<Entry>(this.count);
+        for (int i = 0 ; i < this.count ; i++) {
+            byte[] value = readValue(localBuffer, i);
+
+            byte[] key = new byte[localBuffer.getInt()];
+            localBuffer.get(key);
+
+            entries.add(new Entry(value, key));
+        }
+        return entries;
+    }
+
+    /**
+     * Gets the name of the file for the index of the column. The name includes the timestamp so a refreshed index doesn't overwrite the file
+     * which could still be mapped into the memory.
+     *
+     * @param tableName The name of the table.
+     * @param family    The name of the family.
+     * @param column    The name of the column.
+     * @param timestamp The time the table has been scanned up to.
+     * @return The name of the file.
+     */
+    public static String getFileName(String tableName, String family, String column, long timestamp) {
+        return String.format("%s.%s.%s.%d%s", toFileName(tableName), toFileName(family), toFileName(column), timestamp, FILE_EXTENSION);
+    }
+    //endregion
+
+    //region Private Methods
+
+    /**
+     * Reads the value of the entry and leaves the buffer positioned at the key of the entry.
+     *
+     * @param buffer The buffer to read from.
+     * @param index  The index of the entry.
+     * @return The value of the entry.
+     */
+    private byte[] readValue(ByteBuffer buffer, int index) {
+        buffer.position(this.entriesPosition + buffer.getInt(this.offsetsPosition + index * Bytes.SIZEOF_INT));
+
+        byte[] value = new byte[buffer.getInt()];
+        buffer.get(value);
+
+        return value;
+    }
+
+    /**
+     * Reads the string written by the {@link #writeString(DataOutputStream, String)} method.
+     *
+     * @param buffer The buffer to read from.
+     * @return The read string.
+     */
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, UTF8);
+    }
+
+    /**
+     * Writes the length of the string followed by its UTF-8 bytes.
+     *
+     * @param stream The stream to write to.
+     * @param value  The string to write.
+     * @throws IOException Error writing the stream.
+     */
+    private static void writeString(DataOutputStream stream, String value) throws IOException {
+        byte[] bytes = value.getBytes(UTF8);
+        stream.writeInt(bytes.length);
+        stream.write(bytes);
+    }
+
+    /**
+     * Replaces the characters which are not allowed in the file names on some systems.
+     *
+     * @param name The name to convert.
+     * @return The name which can be used as a part of the file name.
+     */
+    private static String toFileName(String name) {
+        return name.replaceAll("[^A-Za-z0-9_-]", "_");
+    }
+    //endregion
+
+    /**
+     * Represents a pair of the indexed value and the key of the row holding it.
+     */
+    public static class Entry implements Comparable<Entry> {
+
+        //region Variables
+        /**
+         * The value of the column.
+         */
+        private byte[] value;
+        /**
+         * The key of the row.
+         */
+        private byte[] key;
+        //endregion
+
+        //region Constructor
+
+        /**
+         * Initializes a new instance of the {@link Entry} class.
+         *
+         * @param value The value of the column.
+         * @param key   The key of the row.
+         */
+        public Entry(byte[] value, byte[] key) {
+            this.value = value;
+            this.key = key;
+        }
+        //endregion
+
+        //region Public Methods
+        @Override
+        public int compareTo(Entry other) {
+            int result = Bytes.compareTo(this.value, other.value);
+            if (result == 0) {
+                result = Bytes.compareTo(this.key, other.key);
+            }
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Entry && compareTo((Entry)obj) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Arrays.hashCode(this.value) + Arrays.hashCode(this.key);
+        }
+        //endregion
+    }
+}
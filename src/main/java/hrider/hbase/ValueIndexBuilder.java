@@ -0,0 +1,250 @@
+package hrider.hbase;
+
+import hrider.actions.DaemonThreadFactory;
+import hrider.config.GlobalConfig;
+import org.apache.hadoop.hbase.client.HTable;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents an operation building the local index of the values of a single column. The table is split by the region
+ *          boundaries and the regions are scanned in parallel for the indexed column only. The index can be refreshed incrementally by scanning
+ *          the cells written after the previous build.
+ */
+public class ValueIndexBuilder {
+
+    //region Variables
+    /**
+     * The connection to the cluster where the table is located.
+     */
+    private Connection connection;
+    /**
+     * The name of the indexed table.
+     */
+    private String     tableName;
+    /**
+     * The name of the family of the indexed column.
+     */
+    private String     family;
+    /**
+     * The name of the indexed column.
+     */
+    private String     column;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link ValueIndexBuilder} class.
+     *
+     * @param connection The connection to the cluster where the table is located.
+     * @param tableName  The name of the indexed table.
+     * @param family     The name of the family of the indexed column.
+     * @param column     The name of the indexed column.
+     */
+    public ValueIndexBuilder(Connection connection, String tableName, String family, String column) {
+        this.connection = connection;
+        this.tableName = tableName;
+        this.family = family;
+        this.column = column;
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Builds the index from all the values of the column.
+     *
+     * @param folder The folder to write the index file to.
+     * @return The built index.
+     * @throws IOException Error accessing hbase or writing the index file.
+     */
+    public ValueIndex build(File folder) throws IOException {
+        return build(folder, null);
+    }
+
+    /**
+     * Refreshes the index with the values written after the index was built. The values which have been changed remain in the index until
+     * it is built again. The rows found by such values are rejected by the filter on the column anyway.
+     *
+     * @param folder   The folder to write the index file to.
+     * @param previous The index to refresh.
+     * @return The refreshed index.
+     * @throws IOException Error accessing hbase or writing the index file.
+     */
+    public ValueIndex refresh(File folder, ValueIndex previous) throws IOException {
+        return build(folder, previous);
+    }
+    //endregion
+
+    //region Private Methods
+
+    /**
+     * Scans the regions of the table in parallel and writes the found values along with the entries of the previous index to a new file.
+     *
+     * @param folder   The folder to write the index file to.
+     * @param previous The index to refresh or null if the index is built from scratch.
+     * @return The new index.
+     * @throws IOException Error accessing hbase or writing the index file.
+     */
+    private ValueIndex build(File folder, ValueIndex previous) throws IOException {
+        // The cells written while the table is scanned are indexed by the next refresh.
+        long timestamp = System.currentTimeMillis();
+        long minTimestamp = previous != null ? previous.getTimestamp() : 0;
+
+        HTable table = this.connection.getTableFactory().get(this.tableName);
+
+        List<KeyRange> ranges = KeyRange.fromRegions(table, null, null);
+
+        List<ValueIndex.Entry> entries = previous != null ? previous.entries() : new ArrayList<ValueIndex.Entry>();
+
+        if (!ranges.isEmpty()) {
+            int threads = Math.max(1, Math.min(ranges.size(), GlobalConfig.instance().getValueIndexThreads()));
+
+            ExecutorService executor = Executors.newFixedThreadPool(threads, new DaemonThreadFactory(this.tableName + "-valueIndex"));
+            CompletionService<List<ValueIndex.Entry>> completionService = new ExecutorCompletionService<List<ValueIndex.Entry>>(executor);
+
+            AtomicBoolean canceled = new AtomicBoolean();
+
+            for (KeyRange range : ranges) {
+                completionService.submit(new RangeIndexer(range, minTimestamp, timestamp, canceled));
+            }
+
+            try {
+                for (int completed = 0 ; completed < ranges.size() ; completed++) {
+                    entries.addAll(completionService.take().get());
+                }
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException(String.format("The index build of the '%s' table has been interrupted.", this.tableName));
+            }
+            catch (ExecutionException e) {
+                throw new IOException(
+                    String.format("Failed to index the '%s:%s' column of the '%s' table.", this.family, this.column, this.tableName), e.getCause());
+            }
+            finally {
+                canceled.set(true);
+                executor.shutdown();
+            }
+        }
+
+        if (!folder.exists() && !folder.mkdirs()) {
+            throw new IOException(String.format("Failed to create the '%s' folder.", folder.getPath()));
+        }
+
+        File file = new File(folder, ValueIndex.getFileName(this.tableName, this.family, this.column, timestamp));
+        return ValueIndex.write(file, this.tableName, this.family, this.column, timestamp, entries);
+    }
+    //endregion
+
+    /**
+     * Represents a task collecting the values of the column in a single key range.
+     */
+    private class RangeIndexer implements Callable<List<ValueIndex.Entry>> {
+
+        //region Variables
+        /**
+         * The range of keys to scan.
+         */
+        private KeyRange      range;
+        /**
+         * The inclusive lower bound of the time range of the scanned cells.
+         */
+        private long          minTimestamp;
+        /**
+         * The exclusive upper bound of the time range of the scanned cells.
+         */
+        private long          maxTimestamp;
+        /**
+         * Indicates if the whole build has been stopped.
+         */
+        private AtomicBoolean canceled;
+        //endregion
+
+        //region Constructor
+
+        /**
+         * Initializes a new instance of the {@link RangeIndexer} class.
+         *
+         * @param range        The range of keys to scan.
+         * @param minTimestamp The inclusive lower bound of the time range of the scanned cells.
+         * @param maxTimestamp The exclusive upper bound of the time range of the scanned cells.
+         * @param canceled     Indicates if the whole build has been stopped.
+         */
+        private RangeIndexer(KeyRange range, long minTimestamp, long maxTimestamp, AtomicBoolean canceled) {
+            this.range = range;
+            this.minTimestamp = minTimestamp;
+            this.maxTimestamp = maxTimestamp;
+            this.canceled = canceled;
+        }
+        //endregion
+
+        //region Public Methods
+        @Override
+        public List<ValueIndex.Entry> call() throws Exception {
+            List<ValueIndex.Entry> entries = new ArrayList<ValueIndex.Entry>();
+
+            byte[] familyName = Bytes.toBytesBinary(family);
+            byte[] columnName = Bytes.toBytesBinary(column);
+
+            Scan scan = ScanProfile.Bulk.apply(new Scan());
+            scan.setStartRow(this.range.getStartKey());
+            scan.setStopRow(this.range.getStopKey());
+            scan.addColumn(familyName, columnName);
+            scan.setTimeRange(this.minTimestamp, this.maxTimestamp);
+
+            // HTable is not thread safe so each range is indexed through its own instance.
+            HTable table = connection.getTableFactory().create(tableName);
+            try {
+                ResultScanner scanner = table.getScanner(scan);
+                try {
+                    Result row = scanner.next();
+                    while (row != null && !this.canceled.get()) {
+                        byte[] value = row.getValue(familyName, columnName);
+                        if (value != null) {
+                            entries.add(new ValueIndex.Entry(value, row.getRow()));
+                        }
+
+                        row = scanner.next();
+                    }
+                }
+                finally {
+                    scanner.close();
+                }
+            }
+            finally {
+                table.close();
+            }
+            return entries;
+        }
+        //endregion
+    }
+}
@@ -12,8 +12,10 @@ import hrider.data.DataRow;
 import hrider.data.TypedColumn;
 import hrider.export.FileExporter;
 import hrider.hbase.Connection;
+import hrider.hbase.CopyProgress;
 import hrider.hbase.HbaseActionListener;
 import hrider.hbase.QueryScanner;
+import hrider.hbase.ScanProfile;
 import hrider.hbase.Scanner;
 import hrider.io.Log;
 import org.apache.hadoop.hbase.client.Put;
@@ -103,7 +105,7 @@ public class ExportTableDialog extends JDialog {
                                 columns.add(new TypedColumn(column, ColumnType.String));
                             }
 
-                            ScanDialog dialog = new ScanDialog(null, columns);
+                            ScanDialog dialog = new ScanDialog(null, columns, scanner);
                             if (dialog.showDialog(contentPane)) {
                                 scanner.setQuery(dialog.getQuery());
 
@@ -312,6 +314,9 @@ public class ExportTableDialog extends JDialog {
 
         try {
             scanner.resetCurrent(null);
+            scanner.setForwardNavigateOnly(true);
+            scanner.setScanProfile(ScanProfile.Bulk);
+            scanner.setKeepScannerOpen(true);
 
             Collection<DataRow> rows = scanner.next(GlobalConfig.instance().getBatchSizeForRead());
             Collection<ColumnQualifier> columns = scanner.getColumns(0);
@@ -330,6 +335,7 @@ public class ExportTableDialog extends JDialog {
             }
         }
         finally {
+            scanner.close();
             stream.close();
         }
     }
@@ -341,7 +347,7 @@ public class ExportTableDialog extends JDialog {
 
         HbaseActionListener listener = new HbaseActionListener() {
             @Override
-            public void copyOperation(String source, String sourceTable, String target, String targetTable, Result result) {
+            public void copyOperation(String source, String sourceTable, String target, String targetTable, CopyProgress progress) {
             }
 
             @Override
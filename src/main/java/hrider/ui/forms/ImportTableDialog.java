@@ -7,6 +7,7 @@ import hrider.config.GlobalConfig;
 import hrider.converters.TypeConverter;
 import hrider.data.*;
 import hrider.hbase.Connection;
+import hrider.hbase.CopyProgress;
 import hrider.hbase.HbaseActionListener;
 import hrider.ui.controls.WideComboBox;
 import hrider.ui.design.JTableModel;
@@ -429,7 +430,7 @@ public class ImportTableDialog extends JDialog {
 
         HbaseActionListener listener = new HbaseActionListener() {
             @Override
-            public void copyOperation(String source, String sourceTable, String target, String targetTable, Result result) {
+            public void copyOperation(String source, String sourceTable, String target, String targetTable, CopyProgress progress) {
             }
 
             @Override
@@ -3,12 +3,19 @@ package hrider.ui.forms;
 import com.intellij.uiDesigner.core.GridConstraints;
 import com.intellij.uiDesigner.core.GridLayoutManager;
 import com.michaelbaranov.microba.calendar.DatePicker;
+import hrider.actions.Action;
+import hrider.actions.RunnableAction;
+import hrider.config.GlobalConfig;
 import hrider.data.ColumnQualifier;
 import hrider.data.ColumnType;
 import hrider.data.TypedColumn;
 import hrider.format.DateUtils;
 import hrider.hbase.Operator;
+import hrider.hbase.Predicate;
+import hrider.hbase.PredicateParser;
 import hrider.hbase.Query;
+import hrider.hbase.QueryScanner;
+import hrider.hbase.ScanCost;
 import hrider.ui.controls.BoundsPopupMenuListener;
 
 import javax.swing.*;
@@ -16,6 +23,10 @@ import javax.swing.event.PopupMenuListener;
 import java.awt.*;
 import java.awt.event.*;
 import java.beans.PropertyVetoException;
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Copyright (C) 2012 NICE Systems ltd.
@@ -43,6 +54,7 @@ public class ScanDialog extends JDialog {
 
     //region Variables
     private JPanel     contentPane;
+    private JButton    buttonExplain;
     private JButton    buttonRun;
     private JButton    buttonCancel;
     private JComboBox  comboBoxColumns;
@@ -56,11 +68,15 @@ public class ScanDialog extends JDialog {
     private DatePicker endTimeDatePicker;
     private JCheckBox  checkBoxUseDates;
     private JComboBox  comboBoxWordType;
+    private JTextField textFieldFilter;
     private boolean    okPressed;
+    private Map<String, ColumnType> columnTypes;
+    private Predicate  predicate;
+    private QueryScanner scanner;
     //endregion
 
     //region Constructor
-    public ScanDialog(Query query, Iterable<TypedColumn> columns) {
+    public ScanDialog(Query query, Iterable<TypedColumn> columns, QueryScanner scanner) {
         setContentPane(this.contentPane);
         setModal(true);
         setTitle("Scan");
@@ -69,10 +85,14 @@ public class ScanDialog extends JDialog {
         this.startTimeDatePicker.setDateFormat(DateUtils.getDefaultDateFormat());
         this.endTimeDatePicker.setDateFormat(DateUtils.getDefaultDateFormat());
 
+        this.columnTypes = new HashMap<String, ColumnType>();
+        this.scanner = scanner;
+
         for (TypedColumn column : columns) {
             if (!column.getColumn().isKey()) {
                 this.comboBoxColumns.addItem(column.getColumn());
             }
+            this.columnTypes.put(column.getColumn().getFullName(), column.getType());
         }
 
         PopupMenuListener listener = new BoundsPopupMenuListener(true, false);
@@ -95,6 +115,15 @@ public class ScanDialog extends JDialog {
 
         fillForm(query);
 
+        this.buttonExplain.setEnabled(scanner != null);
+        this.buttonExplain.addActionListener(
+            new ActionListener() {
+                @Override
+                public void actionPerformed(ActionEvent e) {
+                    onExplain();
+                }
+            });
+
         this.buttonRun.addActionListener(
             new ActionListener() {
                 @Override
@@ -145,39 +174,45 @@ public class ScanDialog extends JDialog {
 
     public Query getQuery() {
         if (this.okPressed) {
-            Query query = new Query();
+            return createQuery();
+        }
+        return null;
+    }
+    //endregion
 
-            if (!this.textFieldStartKey.getText().trim().isEmpty()) {
-                query.setStartKey((ColumnType)this.comboBoxStartKeyType.getSelectedItem(), this.textFieldStartKey.getText().trim());
-            }
+    //region Private Methods
+    private Query createQuery() {
+        Query query = new Query();
 
-            if (!this.textFieldEndKey.getText().trim().isEmpty()) {
-                query.setEndKey((ColumnType)this.comboBoxEndKeyType.getSelectedItem(), this.textFieldEndKey.getText().trim());
-            }
+        if (!this.textFieldStartKey.getText().trim().isEmpty()) {
+            query.setStartKey((ColumnType)this.comboBoxStartKeyType.getSelectedItem(), this.textFieldStartKey.getText().trim());
+        }
 
-            if (this.checkBoxUseDates.isSelected()) {
-                query.setStartDate(this.startTimeDatePicker.getDate());
-                query.setEndDate(this.endTimeDatePicker.getDate());
-            }
+        if (!this.textFieldEndKey.getText().trim().isEmpty()) {
+            query.setEndKey((ColumnType)this.comboBoxEndKeyType.getSelectedItem(), this.textFieldEndKey.getText().trim());
+        }
 
-            ColumnQualifier column = (ColumnQualifier)this.comboBoxColumns.getSelectedItem();
+        if (this.checkBoxUseDates.isSelected()) {
+            query.setStartDate(this.startTimeDatePicker.getDate());
+            query.setEndDate(this.endTimeDatePicker.getDate());
+        }
 
-            query.setFamily(column.getFamily());
-            query.setColumn(column.getName());
-            query.setOperator((Operator)this.comboBoxOperator.getSelectedItem());
+        ColumnQualifier column = (ColumnQualifier)this.comboBoxColumns.getSelectedItem();
 
-            if (!this.textFieldWord.getText().trim().isEmpty()) {
-                query.setWord(this.textFieldWord.getText().trim());
-                query.setWordType((ColumnType)this.comboBoxWordType.getSelectedItem());
-            }
+        query.setFamily(column.getFamily());
+        query.setColumn(column.getName());
+        query.setOperator((Operator)this.comboBoxOperator.getSelectedItem());
 
-            return query;
+        if (!this.textFieldWord.getText().trim().isEmpty()) {
+            query.setWord(this.textFieldWord.getText().trim());
+            query.setWordType((ColumnType)this.comboBoxWordType.getSelectedItem());
         }
-        return null;
+
+        query.setPredicate(this.predicate);
+
+        return query;
     }
-    //endregion
 
-    //region Private Methods
     private void fillForm(Query query) {
         if (query != null) {
             if (query.getStartKey() != null) {
@@ -209,10 +244,143 @@ public class ScanDialog extends JDialog {
                 this.comboBoxOperator.setSelectedItem(query.getOperator());
                 this.textFieldWord.setText(query.getWord());
             }
+
+            if (query.getPredicate() != null) {
+                this.textFieldFilter.setText(query.getPredicate().toString());
+            }
+        }
+    }
+
+    private boolean parseFilter() {
+        try {
+            this.predicate = new PredicateParser(this.columnTypes).parse(this.textFieldFilter.getText());
+            return true;
+        }
+        catch (ParseException e) {
+            JOptionPane.showMessageDialog(this.contentPane, e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            return false;
+        }
+    }
+
+    private void onExplain() {
+        if (!parseFilter()) {
+            return;
+        }
+
+        // The explain contacts the cluster so it is not done on the event dispatch thread.
+        final QueryScanner explainScanner = new QueryScanner(this.scanner.getConnection(), this.scanner.getTableName(), createQuery());
+
+        this.buttonExplain.setEnabled(false);
+
+        RunnableAction.run(
+            this.scanner.getTableName() + "-explain", new Action<Object>() {
+                @Override
+                public Object run() throws IOException {
+                    final String explanation = explainScanner.explain();
+
+                    SwingUtilities.invokeLater(
+                        new Runnable() {
+                            @Override
+                            public void run() {
+                                buttonExplain.setEnabled(true);
+
+                                if (isDisplayable()) {
+                                    JTextArea textArea = new JTextArea(explanation);
+                                    textArea.setEditable(false);
+                                    textArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, textArea.getFont().getSize()));
+
+                                    JOptionPane.showMessageDialog(
+                                        contentPane, new JScrollPane(textArea), "Explain", JOptionPane.INFORMATION_MESSAGE);
+                                }
+                            }
+                        });
+                    return null;
+                }
+
+                @Override
+                public void onError(final Exception ex) {
+                    SwingUtilities.invokeLater(
+                        new Runnable() {
+                            @Override
+                            public void run() {
+                                buttonExplain.setEnabled(true);
+
+                                if (isDisplayable()) {
+                                    JOptionPane.showMessageDialog(contentPane, ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                                }
+                            }
+                        });
+                }
+            });
+    }
+
+    private boolean confirmFullScan(ScanCost cost) {
+        if (cost != null && cost.isFullScan() && cost.getSize() >= GlobalConfig.instance().getFullScanWarningSize()) {
+            int decision = JOptionPane.showConfirmDialog(
+                this.contentPane, String.format(
+                "The query scans the whole '%s' table: %d regions on %d region servers, about %d MB.\nDo you want to run it anyway?",
+                this.scanner.getTableName(), cost.getRegionsCount(), cost.getServers().size(), cost.getSize() / (1024L * 1024L)), "Full scan",
+                JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
+
+            return decision == JOptionPane.YES_OPTION;
         }
+        return true;
     }
 
     private void onOK() {
+        if (!parseFilter()) {
+            return;
+        }
+
+        if (this.scanner == null) {
+            accept();
+            return;
+        }
+
+        // The cost is calculated from the regions of the table so it is not done on the event dispatch thread.
+        final QueryScanner costScanner = new QueryScanner(this.scanner.getConnection(), this.scanner.getTableName(), createQuery());
+
+        this.buttonRun.setEnabled(false);
+
+        RunnableAction.run(
+            this.scanner.getTableName() + "-scanCost", new Action<Object>() {
+                @Override
+                public Object run() throws IOException {
+                    final ScanCost cost = costScanner.getScanCost();
+
+                    SwingUtilities.invokeLater(
+                        new Runnable() {
+                            @Override
+                            public void run() {
+                                onScanCost(cost);
+                            }
+                        });
+                    return null;
+                }
+
+                @Override
+                public void onError(Exception ex) {
+                    // The cost is only an estimation, the errors are reported by the scan itself.
+                    SwingUtilities.invokeLater(
+                        new Runnable() {
+                            @Override
+                            public void run() {
+                                onScanCost(null);
+                            }
+                        });
+                }
+            });
+    }
+
+    private void onScanCost(ScanCost cost) {
+        this.buttonRun.setEnabled(true);
+
+        if (isDisplayable() && confirmFullScan(cost)) {
+            accept();
+        }
+    }
+
+    private void accept() {
         this.okPressed = true;
 
         dispose();
@@ -250,25 +418,31 @@ public class ScanDialog extends JDialog {
             2, 0, 1, 1, GridConstraints.ANCHOR_CENTER, GridConstraints.FILL_BOTH, GridConstraints.SIZEPOLICY_CAN_SHRINK | GridConstraints.SIZEPOLICY_CAN_GROW,
             1, null, null, null, 0, false));
         final JPanel panel2 = new JPanel();
-        panel2.setLayout(new GridLayoutManager(1, 2, new Insets(0, 0, 0, 0), -1, -1, true, false));
+        panel2.setLayout(new GridLayoutManager(1, 3, new Insets(0, 0, 0, 0), -1, -1, true, false));
         panel1.add(
             panel2, new GridConstraints(
             0, 0, 1, 1, GridConstraints.ANCHOR_EAST, GridConstraints.FILL_VERTICAL, GridConstraints.SIZEPOLICY_CAN_SHRINK | GridConstraints.SIZEPOLICY_CAN_GROW,
             GridConstraints.SIZEPOLICY_CAN_SHRINK | GridConstraints.SIZEPOLICY_CAN_GROW, null, null, null, 0, false));
+        buttonExplain = new JButton();
+        buttonExplain.setText("Explain");
+        panel2.add(
+            buttonExplain, new GridConstraints(
+            0, 0, 1, 1, GridConstraints.ANCHOR_CENTER, GridConstraints.FILL_HORIZONTAL,
+            GridConstraints.SIZEPOLICY_CAN_SHRINK | GridConstraints.SIZEPOLICY_CAN_GROW, GridConstraints.SIZEPOLICY_FIXED, null, null, null, 0, false));
         buttonRun = new JButton();
         buttonRun.setText("Run");
         panel2.add(
             buttonRun, new GridConstraints(
-            0, 0, 1, 1, GridConstraints.ANCHOR_CENTER, GridConstraints.FILL_HORIZONTAL,
+            0, 1, 1, 1, GridConstraints.ANCHOR_CENTER, GridConstraints.FILL_HORIZONTAL,
             GridConstraints.SIZEPOLICY_CAN_SHRINK | GridConstraints.SIZEPOLICY_CAN_GROW, GridConstraints.SIZEPOLICY_FIXED, null, null, null, 0, false));
         buttonCancel = new JButton();
         buttonCancel.setText("Cancel");
         panel2.add(
             buttonCancel, new GridConstraints(
-            0, 1, 1, 1, GridConstraints.ANCHOR_CENTER, GridConstraints.FILL_HORIZONTAL,
+            0, 2, 1, 1, GridConstraints.ANCHOR_CENTER, GridConstraints.FILL_HORIZONTAL,
             GridConstraints.SIZEPOLICY_CAN_SHRINK | GridConstraints.SIZEPOLICY_CAN_GROW, GridConstraints.SIZEPOLICY_FIXED, null, null, null, 0, false));
         final JPanel panel3 = new JPanel();
-        panel3.setLayout(new GridLayoutManager(6, 3, new Insets(5, 5, 5, 0), -1, -1));
+        panel3.setLayout(new GridLayoutManager(7, 3, new Insets(5, 5, 5, 0), -1, -1));
         contentPane.add(
             panel3, new GridConstraints(
             0, 0, 1, 1, GridConstraints.ANCHOR_CENTER, GridConstraints.FILL_BOTH, GridConstraints.SIZEPOLICY_CAN_SHRINK | GridConstraints.SIZEPOLICY_CAN_GROW,
@@ -367,12 +541,25 @@ public class ScanDialog extends JDialog {
             comboBoxWordType, new GridConstraints(
             5, 2, 1, 1, GridConstraints.ANCHOR_WEST, GridConstraints.FILL_HORIZONTAL, GridConstraints.SIZEPOLICY_CAN_GROW, GridConstraints.SIZEPOLICY_FIXED,
             null, null, null, 0, false));
+        final JLabel label7 = new JLabel();
+        label7.setText("and filter");
+        panel3.add(
+            label7, new GridConstraints(
+            6, 0, 1, 1, GridConstraints.ANCHOR_EAST, GridConstraints.FILL_NONE, GridConstraints.SIZEPOLICY_FIXED, GridConstraints.SIZEPOLICY_FIXED, null, null,
+            null, 0, false));
+        textFieldFilter = new JTextField();
+        textFieldFilter.setToolTipText("Conditions joined by AND/OR, for example: cf:a = 'x' AND (cf:b startsWith 'y' OR key >= '100')");
+        panel3.add(
+            textFieldFilter, new GridConstraints(
+            6, 1, 1, 2, GridConstraints.ANCHOR_WEST, GridConstraints.FILL_HORIZONTAL, GridConstraints.SIZEPOLICY_WANT_GROW, GridConstraints.SIZEPOLICY_FIXED,
+            null, new Dimension(150, 26), null, 0, false));
         final JSeparator separator1 = new JSeparator();
         contentPane.add(
             separator1, new GridConstraints(
             1, 0, 1, 1, GridConstraints.ANCHOR_CENTER, GridConstraints.FILL_BOTH, GridConstraints.SIZEPOLICY_WANT_GROW, GridConstraints.SIZEPOLICY_WANT_GROW,
             null, null, null, 0, false));
         label2.setLabelFor(textFieldWord);
+        label7.setLabelFor(textFieldFilter);
     }
 
     /**
@@ -82,6 +82,8 @@ public class DesignerView {
     private JSpinner                          rowsNumber;
     private JButton                           rowsPrev;
     private JButton                           rowsNext;
+    private JButton                           rowsRefresh;
+    private JButton                           columnIndex;
     private JLabel                            rowsTotal;
     private JLabel                            rowsVisible;
     private JButton                           columnCheck;
@@ -90,6 +92,7 @@ public class DesignerView {
     private JButton                           tableRefresh;
     private JButton                           tableCopy;
     private JButton                           tablePaste;
+    private JButton                           tableCompare;
     private JButton                           columnUncheck;
     private JSplitPane                        topSplitPane;
     private JSplitPane                        innerSplitPane;
@@ -123,6 +126,8 @@ public class DesignerView {
     private ClusterConfig                     clusterConfig;
     private JComboBox                         cmbColumnTypes;
     private RunnableAction                    rowsCountAction;
+    private RunnableAction                    columnsSampleAction;
+    private int                               columnsCount;
     private JCellEditor                       readOnlyCellEditor;
     private JCellEditor                       editableCellEditor;
     private Map<String, ColumnType>           columnTypes;
@@ -138,6 +143,7 @@ public class DesignerView {
         rowsTableRemovedColumns = new HashMap<ColumnQualifier, TableColumn>();
         clusterConfig = new ClusterConfig(connection.getServerName());
         clusterConfig.setConnection(connection.getConnectionDetails());
+        loadValueIndexes();
         tablesFilterModel = new DefaultComboBoxModel();
         tableFilters.setModel(tablesFilterModel);
         columnsFilterModel = new DefaultComboBoxModel();
@@ -159,6 +165,7 @@ public class DesignerView {
                     @Override
                     public void onChanged(ClipboardData data) {
                         tablePaste.setEnabled(hasTableInClipboard());
+                        tableCompare.setEnabled(hasTableInClipboard() && getSelectedTableName() != null);
                         rowPaste.setEnabled(hasRowsInClipboard());
                     }
                 });
@@ -276,10 +283,11 @@ public class DesignerView {
         connection.addListener(
                 new HbaseActionListener() {
                     @Override
-                    public void copyOperation(String source, String sourceTable, String target, String targetTable, Result result) {
+                    public void copyOperation(String source, String sourceTable, String target, String targetTable, CopyProgress progress) {
                         setInfo(
                                 String.format(
-                                        "Copying row '%s' from '%s.%s' to '%s.%s'", Bytes.toStringBinary(result.getRow()), source, sourceTable, target, targetTable));
+                                        "Copying '%s.%s' to '%s.%s': region %s copied (%d rows), %s", source, sourceTable, target, targetTable,
+                                        progress.getRegion(), progress.getRegionRows(), progress));
                     }
 
                     @Override
@@ -312,6 +320,77 @@ public class DesignerView {
                     }
                 });
 
+        columnIndex.addActionListener(
+                new ActionListener() {
+                    @Override
+                    public void actionPerformed(ActionEvent e) {
+                        clearError();
+
+                        final String tableName = getSelectedTableName();
+                        int row = columnsTable.getSelectedRow();
+
+                        if (tableName == null || row == -1) {
+                            JOptionPane.showMessageDialog(topPanel, "Select the column to index.", "Index", JOptionPane.INFORMATION_MESSAGE);
+                            return;
+                        }
+
+                        final ColumnQualifier qualifier = (ColumnQualifier)columnsTable.getValueAt(row, 1);
+                        if (qualifier.isKey()) {
+                            JOptionPane.showMessageDialog(topPanel, "The row key cannot be indexed.", "Index", JOptionPane.INFORMATION_MESSAGE);
+                            return;
+                        }
+
+                        final ValueIndex previous = connection.getValueIndex(tableName, qualifier.getFamily(), qualifier.getName());
+
+                        String message;
+                        if (previous == null) {
+                            message = String.format(
+                                    "Build the local index of the '%s' column?\nThe column is read from all the regions of the '%s' table.", qualifier.getFullName(),
+                                    tableName);
+                        }
+                        else {
+                            message = String.format(
+                                    "Refresh the local index of the '%s' column with the values written after %s?", qualifier.getFullName(),
+                                    new Date(previous.getTimestamp()));
+                        }
+
+                        int decision = JOptionPane.showConfirmDialog(topPanel, message, "Index", JOptionPane.YES_NO_OPTION);
+                        if (decision != JOptionPane.YES_OPTION) {
+                            return;
+                        }
+
+                        setInfo(String.format("Indexing the '%s' column of the '%s' table...", qualifier.getFullName(), tableName));
+
+                        RunnableAction.run(
+                                tableName + "-valueIndex", new Action<Boolean>() {
+
+                                    @Override
+                                    public Boolean run() throws IOException {
+                                        ValueIndexBuilder builder = new ValueIndexBuilder(connection, tableName, qualifier.getFamily(), qualifier.getName());
+
+                                        File folder = clusterConfig.getIndexFolder();
+                                        ValueIndex index = previous == null ? builder.build(folder) : builder.refresh(folder, previous);
+
+                                        connection.setValueIndex(index);
+                                        if (previous != null) {
+                                            deleteValueIndex(previous);
+                                        }
+
+                                        setInfo(
+                                                String.format(
+                                                        "The '%s' column of the '%s' table has been indexed: %d values", qualifier.getFullName(), tableName,
+                                                        index.size()));
+                                        return true;
+                                    }
+
+                                    @Override
+                                    public void onError(Exception ex) {
+                                        setError("Failed to index the column: ", ex);
+                                    }
+                                });
+                    }
+                });
+
         columnJump.addActionListener(
                 new ActionListener() {
                     @Override
@@ -354,7 +433,7 @@ public class DesignerView {
                     public void actionPerformed(ActionEvent e) {
                         clearError();
 
-                        ScanDialog dialog = new ScanDialog(lastQuery, getShownTypedColumns());
+                        ScanDialog dialog = new ScanDialog(lastQuery, getShownTypedColumns(), scanner);
                         dialog.showDialog(topPanel);
 
                         lastQuery = dialog.getQuery();
@@ -641,7 +720,7 @@ public class DesignerView {
                                         }
                                     }
 
-                                    scanner = null;
+                                    resetScanner();
 
                                     populateColumnsTable(true);
                                 }
@@ -673,6 +752,24 @@ public class DesignerView {
                     }
                 });
 
+        rowsRefresh.addActionListener(
+                new ActionListener() {
+                    @Override
+                    public void actionPerformed(ActionEvent e) {
+                        clearError();
+
+                        if (scanner != null) {
+                            Collection<DataRow> rows = scanner.current();
+                            long offset = rows != null ? scanner.getLastRow() - rows.size() + 1 : 0;
+
+                            // The cached pages are dropped so the rows are loaded from the hbase.
+                            scanner.refresh();
+
+                            populateRowsTable(offset, Direction.Current);
+                        }
+                    }
+                });
+
         columnCheck.addActionListener(
                 new ActionListener() {
                     @Override
@@ -767,6 +864,16 @@ public class DesignerView {
                     }
                 });
 
+        tableCompare.addActionListener(
+                new ActionListener() {
+                    @Override
+                    public void actionPerformed(ActionEvent e) {
+                        clearError();
+
+                        compareTableWithClipboard();
+                    }
+                });
+
         tableExport.addActionListener(
                 new ActionListener() {
                     @Override
@@ -863,7 +970,9 @@ public class DesignerView {
                     public void actionPerformed(ActionEvent e) {
                         clearError();
 
-                        scanner = null;
+                        connection.clearTableSchema(getSelectedTableName());
+
+                        resetScanner();
                         populateColumnsTable(true);
                     }
                 });
@@ -1233,6 +1342,10 @@ public class DesignerView {
                                 rowsCountAction.abort();
                             }
 
+                            if (columnsSampleAction != null) {
+                                columnsSampleAction.abort();
+                            }
+
                             toggleTableControls();
 
                             boolean populate = false;
@@ -1243,7 +1356,7 @@ public class DesignerView {
                             }
 
                             if (populate) {
-                                scanner = null;
+                                resetScanner();
 
                                 String currentFilter = clusterConfig.getSelectedColumnFilter(getSelectedTableName());
 
@@ -1492,6 +1605,23 @@ public class DesignerView {
                     }
                 });
 
+        // In the wide row mode the following columns of the rows are loaded once the rows table is scrolled to the right edge.
+        JScrollPane rowsScrollPane = (JScrollPane)SwingUtilities.getAncestorOfClass(JScrollPane.class, rowsTable);
+        if (rowsScrollPane != null) {
+            rowsScrollPane.getHorizontalScrollBar().addAdjustmentListener(
+                    new AdjustmentListener() {
+                        @Override
+                        public void adjustmentValueChanged(AdjustmentEvent e) {
+                            Adjustable adjustable = e.getAdjustable();
+                            if (!e.getValueIsAdjusting() && adjustable.getValue() + adjustable.getVisibleAmount() >= adjustable.getMaximum()) {
+                                if (scanner != null && scanner.hasMoreColumns()) {
+                                    populateNextColumnsWindow();
+                                }
+                            }
+                        }
+                    });
+        }
+
         rowsTable.addPropertyChangeListener(
                 new PropertyChangeListener() {
                     @Override
@@ -1575,6 +1705,7 @@ public class DesignerView {
             String tableName = getSelectedTableName();
             if (tableName != null) {
                 loadColumns(tableName, row);
+                sampleColumns(tableName);
             }
 
             togglePagingControls();
@@ -1619,6 +1750,9 @@ public class DesignerView {
                 scanner.setColumnTypes(columnTypes);
                 scanner.setQuery(lastQuery);
 
+                // Only the checked columns are transferred with the rows.
+                scanner.setShownColumns(columnsTableModel.getRowCount() > 0 ? getShownColumns() : null);
+
                 Collection<DataRow> rows;
 
                 if (direction == Direction.Current) {
@@ -1632,9 +1766,20 @@ public class DesignerView {
                 }
 
                 loadColumns(tableName, null);
+
+                // The columns found while the rows were loaded could be checked by default.
+                scanner.fetchColumns(getShownColumns());
+
                 loadRowsTableColumns(tableName);
+
+                long started = System.nanoTime();
                 loadRows(rows);
 
+                ScanStatistics statistics = scanner.getLastStatistics();
+                statistics.addConvertTime(System.nanoTime() - started);
+
+                setInfo(String.format("The page of the '%s' table has been loaded: %s", tableName, statistics));
+
                 togglePagingControls();
 
                 rowsVisible.setText(String.format("%s - %s", scanner.getLastRow() - rows.size() + 1, scanner.getLastRow()));
@@ -1648,7 +1793,25 @@ public class DesignerView {
                                 rowsNumberIcon.setVisible(true);
                                 rowsTotal.setVisible(false);
 
-                                long totalNumberOfRows = scanner.getRowsCount(GlobalConfig.instance().getRowCountTimeout());
+                                if (scanner.getQuery() == null) {
+                                    long estimatedNumberOfRows = scanner.getEstimatedRowsCount();
+                                    if (estimatedNumberOfRows > 0) {
+                                        rowsTotal.setText("~" + estimatedNumberOfRows);
+                                        rowsTotal.setVisible(true);
+                                    }
+                                }
+
+                                long totalNumberOfRows = scanner.getRowsCount(
+                                        GlobalConfig.instance().getRowCountTimeout(), new RowsCountListener() {
+                                    @Override
+                                    public void onProgress(long rowsCount, int completedRanges, int totalRanges) {
+                                        if (completedRanges < totalRanges) {
+                                            rowsTotal.setText(String.format("%s+ (%s of %s regions)", rowsCount, completedRanges, totalRanges));
+                                            rowsTotal.setVisible(true);
+                                        }
+                                    }
+                                });
+
                                 if (scanner.isRowsCountPartiallyCalculated()) {
                                     rowsTotal.setText("more than " + totalNumberOfRows);
                                 }
@@ -1712,6 +1875,29 @@ public class DesignerView {
         }
     }
 
+    /**
+     * Loads the following window of columns for the rows shown in the rows table. Used in the wide row mode.
+     */
+    private void populateNextColumnsWindow() {
+        owner.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        try {
+            Collection<DataRow> rows = scanner.nextColumnsWindow();
+
+            for (int i = 0 ; i < rowsTable.getColumnCount() ; i++) {
+                ColumnQualifier qualifier = (ColumnQualifier)rowsTable.getColumnModel().getColumn(i).getIdentifier();
+                if (!qualifier.isKey()) {
+                    populateColumnOnRowsTable(qualifier, rows);
+                }
+            }
+        }
+        catch (IOException ex) {
+            setError("Failed to load the following columns: ", ex);
+        }
+        finally {
+            owner.setCursor(Cursor.getPredefinedCursor(Cursor.DEFAULT_CURSOR));
+        }
+    }
+
     /**
      * Loads columns into the columns table.
      *
@@ -1726,18 +1912,14 @@ public class DesignerView {
         try {
             if (scanner == null) {
                 scanner = connection.getScanner(tableName, null);
+                scanner.setKeepScannerOpen(true);
+                scanner.setPrefetchPages(GlobalConfig.instance().getPrefetchPages());
+                scanner.setReverseNavigation(GlobalConfig.instance().getReverseNavigation());
+                scanner.setColumnsWindow(GlobalConfig.instance().getWideRowColumns());
                 updateColumnNameConverter(getColumnNameConverter());
             }
 
-            Filter filter;
-
-            String value = (String)columnFilters.getSelectedItem();
-            if (value == null || value.isEmpty()) {
-                filter = new EmptyFilter();
-            }
-            else {
-                filter = new PatternFilter(value);
-            }
+            Filter filter = getColumnFilter();
 
             if (row == null) {
                 scanner.setColumnTypes(
@@ -1758,13 +1940,149 @@ public class DesignerView {
                 setRowsTableColumnVisible(column, isColumnVisible && isShown(tableName, column.getFullName()));
             }
 
-            columnsNumber.setText(String.format("%s of %s", columnsTableModel.getRowCount(), columns.size()));
+            columnsCount = columns.size();
+            columnsNumber.setText(String.format("%s of %s", columnsTableModel.getRowCount(), columnsCount));
         }
         catch (Exception ex) {
             setError("Failed to fill tables list: ", ex);
         }
     }
 
+    /**
+     * Opens the local indexes of the column values stored in the folder of the cluster configuration. Only the latest index of each column is
+     * used, the files of the older indexes are deleted.
+     */
+    private void loadValueIndexes() {
+        File[] files = clusterConfig.getIndexFolder().listFiles();
+        if (files == null) {
+            return;
+        }
+
+        for (File file : files) {
+            if (file.getName().endsWith(ValueIndex.FILE_EXTENSION)) {
+                try {
+                    ValueIndex index = ValueIndex.open(file);
+
+                    ValueIndex loaded = connection.getValueIndex(index.getTableName(), index.getFamily(), index.getColumn());
+                    if (loaded == null || loaded.getTimestamp() < index.getTimestamp()) {
+                        connection.setValueIndex(index);
+
+                        if (loaded != null) {
+                            deleteValueIndex(loaded);
+                        }
+                    }
+                    else {
+                        deleteValueIndex(index);
+                    }
+                }
+                catch (IOException ex) {
+                    setError(String.format("Failed to open the index file '%s': ", file.getName()), ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Deletes the file of the replaced index. The file could still be mapped into the memory and cannot be deleted on some systems until the
+     * process exits.
+     *
+     * @param index The replaced index.
+     */
+    private static void deleteValueIndex(ValueIndex index) {
+        if (!index.getFile().delete()) {
+            index.getFile().deleteOnExit();
+        }
+    }
+
+    /**
+     * Starts sampling the rows of each region of the table in the background. The columns which are not present in the rows the columns table
+     * has been populated from are appended to the columns table as they are found.
+     *
+     * @param tableName The name of the table which columns to be sampled.
+     */
+    private void sampleColumns(final String tableName) {
+        if (columnsSampleAction != null) {
+            columnsSampleAction.abort();
+        }
+
+        final QueryScanner sampleScanner = scanner;
+        if (sampleScanner == null || sampleScanner.getQuery() != null) {
+            return;
+        }
+
+        columnsSampleAction = RunnableAction.run(
+                tableName + "-columnsSample", new Action<Boolean>() {
+
+                    @Override
+                    public Boolean run() throws IOException {
+                        sampleScanner.sampleColumns(
+                                GlobalConfig.instance().getColumnSampleRows(), new ColumnsSampleListener() {
+                            @Override
+                            public void onColumnsFound(final Collection<ColumnQualifier> columns, int completedRanges, int totalRanges) {
+                                if (!columns.isEmpty()) {
+                                    SwingUtilities.invokeLater(
+                                            new Runnable() {
+                                                @Override
+                                                public void run() {
+                                                    addSampledColumns(tableName, columns);
+                                                }
+                                            });
+                                }
+                            }
+                        });
+                        return true;
+                    }
+
+                    @Override
+                    public void onError(Exception ex) {
+                        setError("Failed to sample the columns of the table.", ex);
+                    }
+                });
+    }
+
+    /**
+     * Appends the columns found by the columns sampling to the columns table.
+     *
+     * @param tableName The name of the table the columns belong to.
+     * @param columns   The found columns.
+     */
+    private void addSampledColumns(String tableName, Iterable<ColumnQualifier> columns) {
+        if (!tableName.equals(getSelectedTableName())) {
+            return;
+        }
+
+        Filter filter = getColumnFilter();
+
+        for (ColumnQualifier column : columns) {
+            if (!columnTypes.containsKey(column.getFullName())) {
+                columnsCount++;
+
+                boolean isColumnVisible = filter.match(column.getFullName());
+                if (isColumnVisible) {
+                    addColumnToColumnsTable(tableName, column, null);
+                }
+
+                setRowsTableColumnVisible(column, isColumnVisible && isShown(tableName, column.getFullName()));
+            }
+        }
+
+        columnsNumber.setText(String.format("%s of %s", columnsTableModel.getRowCount(), columnsCount));
+        toggleColumnControls(columnsTableModel.getRowCount() > 0);
+    }
+
+    /**
+     * Gets the filter selected to restrict the columns shown in the columns table.
+     *
+     * @return The selected filter.
+     */
+    private Filter getColumnFilter() {
+        String value = (String)columnFilters.getSelectedItem();
+        if (value == null || value.isEmpty()) {
+            return new EmptyFilter();
+        }
+        return new PatternFilter(value);
+    }
+
     /**
      * Adds a column to the columns table.
      *
@@ -1833,7 +2151,12 @@ public class DesignerView {
                         addColumnToRowsTable(getSelectedTableName(), qualifier, rowsTable.getColumnCount());
 
                         if (scanner != null) {
-                            populateColumnOnRowsTable(qualifier, scanner.current());
+                            try {
+                                populateColumnOnRowsTable(qualifier, scanner.fetchColumns(Arrays.asList(qualifier)));
+                            }
+                            catch (IOException e) {
+                                setError(String.format("Failed to load the '%s' column: ", qualifier.getFullName()), e);
+                            }
                         }
 
                         rowsTable.moveColumn(rowsTable.getColumnCount() - 1, getColumnIndex(qualifier.getFullName()));
@@ -2058,7 +2381,74 @@ public class DesignerView {
                 AddTableDialog dialog = new AddTableDialog(sourceTable);
                 if (dialog.showDialog(topPanel)) {
                     TableDescriptor targetTable = dialog.getTableDescriptor();
-                    connection.copyTable(targetTable, sourceTable, table.getConnection());
+
+                    String sourceServer = table.getConnection().getServerName();
+
+                    // The changes done after the copy has been started are copied by the next incremental copy.
+                    long started = System.currentTimeMillis();
+
+                    File checkpointFile = new File(
+                        clusterConfig.getCheckpointFolder(), CopyCheckpoint.getFileName(sourceServer, sourceTable.getName(), targetTable.getName()));
+
+                    CopyCheckpoint checkpoint = CopyCheckpoint.open(checkpointFile);
+                    Long lastSync = clusterConfig.getLastSync(sourceServer, sourceTable.getName(), targetTable.getName());
+
+                    boolean incremental = false;
+
+                    if (!checkpoint.isEmpty()) {
+                        int decision = JOptionPane.showConfirmDialog(
+                            topPanel, String.format(
+                            "The previous copy of the '%s' table to the '%s' table has been interrupted.\nDo you want to resume it?",
+                            sourceTable.getName(), targetTable.getName()), "Copy", JOptionPane.YES_NO_CANCEL_OPTION);
+
+                        if (decision == JOptionPane.CANCEL_OPTION || decision == JOptionPane.CLOSED_OPTION) {
+                            return;
+                        }
+
+                        if (decision == JOptionPane.YES_OPTION) {
+                            Long copyStart = clusterConfig.getCopyStart(sourceServer, sourceTable.getName(), targetTable.getName());
+                            if (copyStart != null) {
+                                started = copyStart;
+                            }
+                        }
+                        else {
+                            checkpoint.clear();
+                        }
+                    }
+                    else if (lastSync != null && connection.tableExists(targetTable.getName())) {
+                        int decision = JOptionPane.showConfirmDialog(
+                            topPanel, String.format(
+                            "The '%s' table has been copied to the '%s' table at %s.\nDo you want to copy only the changes done since then?",
+                            sourceTable.getName(), targetTable.getName(), new Date(lastSync)), "Copy", JOptionPane.YES_NO_CANCEL_OPTION);
+
+                        if (decision == JOptionPane.CANCEL_OPTION || decision == JOptionPane.CLOSED_OPTION) {
+                            return;
+                        }
+
+                        incremental = decision == JOptionPane.YES_OPTION;
+                    }
+
+                    if (incremental) {
+                        long minTimestamp = Math.max(0, lastSync - GlobalConfig.instance().getCopySyncOverlap());
+                        connection.copyTableChanges(targetTable, sourceTable, table.getConnection(), minTimestamp, started);
+                    }
+                    else {
+                        clusterConfig.setCopyStart(sourceServer, sourceTable.getName(), targetTable.getName(), started);
+                        clusterConfig.save();
+
+                        connection.copyTable(targetTable, sourceTable, table.getConnection(), checkpoint);
+
+                        clusterConfig.setCopyStart(sourceServer, sourceTable.getName(), targetTable.getName(), null);
+                    }
+
+                    clusterConfig.setLastSync(sourceServer, sourceTable.getName(), targetTable.getName(), started);
+                    clusterConfig.save();
+
+                    String message = incremental
+                        ? "The changes of the '%s' table have been copied to the '%s' table: %s"
+                        : "The '%s' table has been copied to the '%s' table: %s";
+
+                    setInfo(String.format(message, sourceTable.getName(), targetTable.getName(), connection.getLastBulkStatistics()));
 
                     Filter filter;
 
@@ -2094,6 +2484,98 @@ public class DesignerView {
         }
     }
 
+    /**
+     * Compares the selected table with the table from the clipboard in the background. The table from the clipboard is the source table.
+     * If the tables differ the user is offered to synchronize the selected table with the source table.
+     */
+    private void compareTableWithClipboard() {
+        ClipboardData<DataTable> clipboardData = InMemoryClipboard.getData();
+
+        final String targetTable = getSelectedTableName();
+        if (clipboardData == null || targetTable == null) {
+            return;
+        }
+
+        final DataTable table = clipboardData.getData();
+
+        setInfo(String.format("Comparing the '%s' table with the '%s' table...", table.getTableName(), targetTable));
+
+        RunnableAction.run(
+            targetTable + "-compare", new Action<Boolean>() {
+
+            @Override
+            public Boolean run() throws IOException {
+                final TableComparer comparer = new TableComparer(table.getConnection(), table.getTableName(), connection, targetTable);
+                final TableComparison comparison = comparer.compare();
+
+                if (comparison.isEqual()) {
+                    setInfo(String.format("The '%s' table matches the '%s' table: %s", targetTable, table.getTableName(), comparison));
+                }
+                else {
+                    setInfo(String.format("The '%s' table differs from the '%s' table: %s", targetTable, table.getTableName(), comparison));
+
+                    SwingUtilities.invokeLater(
+                        new Runnable() {
+                            @Override
+                            public void run() {
+                                syncTable(comparer, comparison, table.getTableName(), targetTable);
+                            }
+                        });
+                }
+                return true;
+            }
+
+            @Override
+            public void onError(Exception ex) {
+                setError("Failed to compare the tables: ", ex);
+            }
+        });
+    }
+
+    /**
+     * Offers the user to synchronize the target table with the source table found different and synchronizes the tables in the background.
+     *
+     * @param comparer    The comparer of the tables.
+     * @param comparison  The result of the comparison.
+     * @param sourceTable The name of the source table.
+     * @param targetTable The name of the target table.
+     */
+    private void syncTable(final TableComparer comparer, final TableComparison comparison, final String sourceTable, final String targetTable) {
+        StringBuilder keys = new StringBuilder();
+        for (String key : comparison.getKeys()) {
+            keys.append(key).append('\n');
+        }
+
+        String message = String.format(
+            "The '%s' table differs from the '%s' table: %s.\n\nThe first different rows:\n%s\n" +
+            "Do you want to update the '%s' table to match the '%s' table?", targetTable, sourceTable, comparison, keys, targetTable,
+            sourceTable);
+
+        int decision = JOptionPane.showConfirmDialog(topPanel, message, "Compare", JOptionPane.YES_NO_OPTION);
+        if (decision != JOptionPane.YES_OPTION) {
+            return;
+        }
+
+        setInfo(String.format("Synchronizing the '%s' table with the '%s' table...", targetTable, sourceTable));
+
+        RunnableAction.run(
+            targetTable + "-sync", new Action<Boolean>() {
+
+            @Override
+            public Boolean run() throws IOException {
+                TableComparison result = comparer.sync(comparison);
+
+                setInfo(String.format("The '%s' table has been synchronized with the '%s' table: %s", targetTable, sourceTable, result));
+                return true;
+            }
+
+            @Override
+            public void onError(Exception ex) {
+                setError("Failed to synchronize the tables: ", ex);
+            }
+        });
+    }
+
     /**
      * Gets a list of columns that are checked. Checked columns are the columns to be shown in the rows table.
      *
@@ -2341,12 +2823,23 @@ public class DesignerView {
         }
     }
 
+    /**
+     * Releases the current scanner. A new scanner is created the next time the columns are loaded.
+     */
+    private void resetScanner() {
+        if (scanner != null) {
+            scanner.close();
+            scanner = null;
+        }
+    }
+
     /**
      * Enables or disables the paging buttons.
      */
     private void togglePagingControls() {
         rowsPrev.setEnabled(scanner != null && scanner.hasPrev());
         rowsNext.setEnabled(scanner != null && scanner.hasNext());
+        rowsRefresh.setEnabled(scanner != null && scanner.current() != null);
     }
 
     private void toggleTableControls() {
@@ -2373,6 +2866,7 @@ public class DesignerView {
 
                 tableCopy.setEnabled(tableEnabled && !isMetaTableSelected);
                 tablePaste.setEnabled(tableEnabled && !isMetaTableSelected && hasTableInClipboard());
+                tableCompare.setEnabled(tableEnabled && !isMetaTableSelected && hasTableInClipboard());
                 tableExport.setEnabled(tableEnabled && !isMetaTableSelected);
                 tableMetadata.setEnabled(tableEnabled);
             }
@@ -2382,6 +2876,7 @@ public class DesignerView {
             tableTruncate.setEnabled(false);
             tableCopy.setEnabled(false);
             tablePaste.setEnabled(false);
+            tableCompare.setEnabled(false);
             tableExport.setEnabled(false);
             tableFlush.setEnabled(false);
             tableMetadata.setEnabled(false);
@@ -2394,6 +2889,7 @@ public class DesignerView {
         columnScan.setEnabled(enabled);
         columnJump.setEnabled(enabled);
         columnPopulate.setEnabled(enabled);
+        columnIndex.setEnabled(enabled);
         columnCheck.setEnabled(enabled);
         columnUncheck.setEnabled(enabled);
 
@@ -2641,6 +3137,15 @@ public class DesignerView {
         tablePaste.setText("");
         tablePaste.setToolTipText("Paste table from the clipboard");
         toolBar2.add(tablePaste);
+        tableCompare = new JButton();
+        tableCompare.setEnabled(false);
+        tableCompare.setIcon(new ImageIcon(getClass().getResource("/images/search.png")));
+        tableCompare.setMaximumSize(new Dimension(24, 24));
+        tableCompare.setMinimumSize(new Dimension(24, 24));
+        tableCompare.setPreferredSize(new Dimension(24, 24));
+        tableCompare.setText("");
+        tableCompare.setToolTipText("Compare the selected table with the table from the clipboard");
+        toolBar2.add(tableCompare);
         tableExport = new JButton();
         tableExport.setEnabled(false);
         tableExport.setIcon(new ImageIcon(getClass().getResource("/images/db-export.png")));
@@ -2772,6 +3277,14 @@ public class DesignerView {
         columnPopulate.setText("");
         columnPopulate.setToolTipText("Populate rows for the selected columns");
         toolBar3.add(columnPopulate);
+        columnIndex = new JButton();
+        columnIndex.setEnabled(false);
+        columnIndex.setIcon(new ImageIcon(getClass().getResource("/images/filter.png")));
+        columnIndex.setMinimumSize(new Dimension(24, 24));
+        columnIndex.setPreferredSize(new Dimension(24, 24));
+        columnIndex.setText("");
+        columnIndex.setToolTipText("Build or refresh the local index of the selected column");
+        toolBar3.add(columnIndex);
         final JScrollPane scrollPane2 = new JScrollPane();
         scrollPane2.setDoubleBuffered(true);
         panel5.add(
@@ -3003,6 +3516,15 @@ public class DesignerView {
         rowsNext.setText("");
         rowsNext.setToolTipText("Go to the next page");
         toolBar6.add(rowsNext);
+        rowsRefresh = new JButton();
+        rowsRefresh.setEnabled(false);
+        rowsRefresh.setIcon(new ImageIcon(getClass().getResource("/images/refresh.png")));
+        rowsRefresh.setMaximumSize(new Dimension(49, 27));
+        rowsRefresh.setMinimumSize(new Dimension(24, 24));
+        rowsRefresh.setPreferredSize(new Dimension(24, 24));
+        rowsRefresh.setText("");
+        rowsRefresh.setToolTipText("Reload the page from the hbase");
+        toolBar6.add(rowsRefresh);
         final JScrollPane scrollPane3 = new JScrollPane();
         panel9.add(
                 scrollPane3, new GridConstraints(